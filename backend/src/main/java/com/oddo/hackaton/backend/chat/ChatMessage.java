@@ -0,0 +1,20 @@
+package com.oddo.hackaton.backend.chat;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * An accepted chat message. The id is final from the moment it is assigned (see {@link MessageIdAllocator}),
+ * so the same value is delivered live, kept in the conversation ring and written to {@code messages}.
+ */
+@Value
+public class ChatMessage
+{
+    long id;
+    Long matchId;
+    Long senderId;
+    String content;
+    String clientId;
+    LocalDateTime createdAt;
+}
@@ -0,0 +1,104 @@
+package com.oddo.hackaton.backend.chat;
+
+import com.oddo.hackaton.backend.model.enums.MatchStatus;
+import com.oddo.hackaton.backend.model.projection.MatchParticipantsView;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory side of one match's chat: its two participants, the match status and a ring of the
+ * most recent messages (newest overwrites oldest).
+ *
+ * Sending runs under {@link #withLock}, so id assignment, the ring and live delivery all see the
+ * same order. A {@link ReentrantLock} rather than {@code synchronized}, so virtual threads waiting
+ * here (or refilling ids over JDBC) do not pin their carrier.
+ */
+public class Conversation
+{
+    @Getter
+    private final Long matchId;
+    @Getter
+    private final Long pickerId;
+    @Getter
+    private final Long requesterId;
+    @Getter
+    private volatile MatchStatus status;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ChatMessage[] recent;
+    private int head; // next slot to write
+    private int size;
+
+    Conversation(MatchParticipantsView participants, int capacity)
+    {
+        this.matchId = participants.getMatchId();
+        this.pickerId = participants.getPickerId();
+        this.requesterId = participants.getRequesterId();
+        this.status = participants.getStatus();
+        this.recent = new ChatMessage[capacity];
+    }
+
+    public boolean hasParticipant(Long userId)
+    {
+        return pickerId.equals(userId) || requesterId.equals(userId);
+    }
+
+    /**
+     * Messages can be sent once the match is ACCEPTED, and still after the meetup COMPLETED it.
+     */
+    public boolean isOpen()
+    {
+        return status == MatchStatus.ACCEPTED || status == MatchStatus.COMPLETED;
+    }
+
+    void setStatus(MatchStatus status)
+    {
+        this.status = status;
+    }
+
+    public <T> T withLock(Supplier<T> action)
+    {
+        lock.lock();
+        try
+        {
+            return action.get();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    public void append(ChatMessage message)
+    {
+        withLock(() -> {
+            recent[head] = message;
+            head = (head + 1) % recent.length;
+            size = Math.min(size + 1, recent.length);
+            return null;
+        });
+    }
+
+    /**
+     * Up to {@code limit} buffered messages with an id below {@code before}, newest first.
+     */
+    public List<ChatMessage> recentBefore(long before, int limit)
+    {
+        return withLock(() -> {
+            List<ChatMessage> found = new ArrayList<>(Math.min(limit, size));
+            for (int i = 1; i <= size && found.size() < limit; i++)
+            {
+                ChatMessage message = recent[Math.floorMod(head - i, recent.length)];
+                if (message.getId() < before)
+                {
+                    found.add(message);
+                }
+            }
+            return found;
+        });
+    }
+}
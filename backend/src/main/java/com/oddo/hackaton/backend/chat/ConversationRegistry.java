@@ -0,0 +1,51 @@
+package com.oddo.hackaton.backend.chat;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.oddo.hackaton.backend.event.MatchEvent;
+import com.oddo.hackaton.backend.repository.MatchRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Live conversations by match id, loaded on first use from the match row and evicted after an idle hour.
+ * Match status changes arrive as committed {@link MatchEvent}s, so a conversation opens or closes
+ * without another query.
+ */
+@Component
+public class ConversationRegistry
+{
+    private final LoadingCache<Long, Conversation> conversations;
+
+    public ConversationRegistry(MatchRepository matchRepository,
+                                @Value("${chat.recent-messages:50}") int recentMessages,
+                                @Value("${chat.max-conversations:50000}") long maxConversations)
+    {
+        // A null load (unknown match) is not cached, so a match created later is found
+        this.conversations = Caffeine.newBuilder()
+                .maximumSize(maxConversations)
+                .expireAfterAccess(Duration.ofHours(1))
+                .build(matchId -> matchRepository.findParticipants(matchId)
+                        .map(participants -> new Conversation(participants, recentMessages))
+                        .orElse(null));
+    }
+
+    public Optional<Conversation> find(Long matchId)
+    {
+        return matchId == null ? Optional.empty() : Optional.ofNullable(conversations.get(matchId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMatchEvent(MatchEvent event)
+    {
+        Conversation conversation = conversations.getIfPresent(event.getMatch().getMatchId());
+        if (conversation != null)
+        {
+            conversation.setStatus(event.getMatch().getStatus());
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.oddo.hackaton.backend.chat;
+
+import com.oddo.hackaton.backend.event.MatchEvent;
+import com.oddo.hackaton.backend.model.dto.reponse.ConversationSummaryResponse;
+import com.oddo.hackaton.backend.model.dto.reponse.MatchResponse;
+import com.oddo.hackaton.backend.model.enums.MatchStatus;
+import com.oddo.hackaton.backend.model.projection.ConversationSummaryView;
+import com.oddo.hackaton.backend.repository.MatchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Materialized conversation list: per match, the last message and an unread count for each participant.
+ *
+ * Kept in memory and updated incrementally (a send bumps the other side's count, a read resets the
+ * reader's), so listing a user's conversations is O(their matches) and never touches {@code messages}.
+ * States live in {@link #STRIPES} lock stripes keyed by match id; a user -> matches index finds them.
+ *
+ * The database stays the source of truth: everything is reloaded at startup and reconciled in chunks
+ * every few minutes. A state that changed while a reconcile was reading is left for the next round.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConversationSummaries
+{
+    static final int PREVIEW_LENGTH = 140;
+    private static final int STRIPES = 64;
+    private static final int RELOAD_BATCH = 1000;
+
+    private final MatchRepository matchRepository;
+    private final MessageWriteBehind writeBehind;
+
+    private final Stripe[] stripes = createStripes();
+    private final Map<Long, Set<Long>> matchesByUser = new ConcurrentHashMap<>();
+    // Logical clock stamped on every in-memory change, compared against a reconcile's start
+    private final AtomicLong clock = new AtomicLong();
+    private volatile boolean warm = false;
+
+    public boolean isWarm()
+    {
+        return warm;
+    }
+
+    /**
+     * Every conversation of the user, most recent activity first.
+     */
+    public List<ConversationSummaryResponse> forUser(Long userId)
+    {
+        Set<Long> matchIds = matchesByUser.getOrDefault(userId, Set.of());
+        List<ConversationSummaryResponse> summaries = new ArrayList<>(matchIds.size());
+        for (Long matchId : matchIds)
+        {
+            inStripe(matchId, states -> {
+                State state = states.get(matchId);
+                if (state != null)
+                {
+                    summaries.add(state.toResponse(userId));
+                }
+                return null;
+            });
+        }
+        summaries.sort(Comparator.comparing(ConversationSummaryResponse::getLastMessageId,
+                        Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(ConversationSummaryResponse::getMatchId)
+                .reversed());
+        return summaries;
+    }
+
+    /**
+     * A message was accepted (called under the conversation lock, after it was queued for writing).
+     */
+    public void onMessage(Conversation conversation, ChatMessage message)
+    {
+        inStripe(conversation.getMatchId(), states -> {
+            State state = stateOf(states, conversation);
+            state.lastMessageId = message.getId();
+            state.lastSenderId = message.getSenderId();
+            state.lastPreview = preview(message.getContent());
+            state.lastMessageAt = message.getCreatedAt();
+            if (message.getSenderId().equals(state.pickerId))
+            {
+                state.requesterUnread++;
+            }
+            else
+            {
+                state.pickerUnread++;
+            }
+            state.version = clock.incrementAndGet();
+            return null;
+        });
+    }
+
+    /**
+     * The reader has seen the conversation up to {@code upToId} (null = everything so far).
+     *
+     * The receipt is queued to the write-behind capped at the last known message, so it can never cover
+     * a message the reader has not been sent. Reading only part of the backlog keeps the count until the
+     * next reconcile, since per-message read state is not held in memory.
+     */
+    public ConversationSummaryResponse markRead(Conversation conversation, Long readerId, Long upToId)
+    {
+        return inStripe(conversation.getMatchId(), states -> {
+            State state = stateOf(states, conversation);
+            if (state.lastMessageId != null)
+            {
+                long readUpTo = upToId != null ? Math.min(upToId, state.lastMessageId) : state.lastMessageId;
+                writeBehind.markRead(state.matchId, readerId, readUpTo);
+                if (readUpTo == state.lastMessageId)
+                {
+                    if (readerId.equals(state.pickerId))
+                    {
+                        state.pickerUnread = 0;
+                    }
+                    else
+                    {
+                        state.requesterUnread = 0;
+                    }
+                }
+                state.version = clock.incrementAndGet();
+            }
+            return state.toResponse(readerId);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMatchEvent(MatchEvent event)
+    {
+        MatchResponse match = event.getMatch();
+        if (match.getStatus() != MatchStatus.ACCEPTED)
+        {
+            return;
+        }
+        inStripe(match.getMatchId(), states -> {
+            State state = states.computeIfAbsent(match.getMatchId(),
+                    id -> new State(id, match.getPickerId(), match.getRequesterId()));
+            state.pickerName = match.getPickerName();
+            state.requesterName = match.getRequesterName();
+            return null;
+        });
+        index(match.getMatchId(), match.getPickerId(), match.getRequesterId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp()
+    {
+        reconcile();
+    }
+
+    /**
+     * Reload every conversation from the database in id-ordered chunks. Pending chat writes and read
+     * receipts are flushed first, so the database has caught up with everything stamped before the start.
+     */
+    @Scheduled(fixedDelayString = "${chat.summaries.reconcile-interval-ms:300000}",
+            initialDelayString = "${chat.summaries.reconcile-interval-ms:300000}")
+    public void reconcile()
+    {
+        long start = System.currentTimeMillis();
+        long startedAt = clock.get();
+        if (!writeBehind.flushAll())
+        {
+            log.warn("Skipping conversation reconcile: chat messages are not being persisted");
+            return;
+        }
+
+        long afterId = 0;
+        int loaded = 0;
+        int corrected = 0;
+        List<ConversationSummaryView> rows;
+        do
+        {
+            rows = matchRepository.findConversationSummaries(afterId, PREVIEW_LENGTH, RELOAD_BATCH);
+            for (ConversationSummaryView row : rows)
+            {
+                if (apply(row, startedAt))
+                {
+                    corrected++;
+                }
+            }
+            loaded += rows.size();
+            if (!rows.isEmpty())
+            {
+                afterId = rows.getLast().getMatchId();
+            }
+        } while (rows.size() == RELOAD_BATCH);
+
+        log.info("Conversation summaries reconciled: {} loaded, {} corrected in {}ms",
+                loaded, warm ? corrected : 0, System.currentTimeMillis() - start);
+        warm = true;
+    }
+
+    /**
+     * @return true if the in-memory state disagreed with the database
+     */
+    private boolean apply(ConversationSummaryView row, long startedAt)
+    {
+        boolean corrected = inStripe(row.getMatchId(), states -> {
+            State current = states.get(row.getMatchId());
+            if (current != null && current.version > startedAt)
+            {
+                return false;
+            }
+            State fresh = State.from(row);
+            fresh.version = current != null ? current.version : 0;
+            states.put(row.getMatchId(), fresh);
+            return current == null || !current.sameCounters(fresh);
+        });
+        index(row.getMatchId(), row.getPickerId(), row.getRequesterId());
+        return corrected;
+    }
+
+    private State stateOf(Map<Long, State> states, Conversation conversation)
+    {
+        State state = states.get(conversation.getMatchId());
+        if (state == null)
+        {
+            // Not loaded yet (only before the first reconcile); names are filled in by the reconcile
+            state = new State(conversation.getMatchId(), conversation.getPickerId(), conversation.getRequesterId());
+            states.put(conversation.getMatchId(), state);
+            index(conversation.getMatchId(), conversation.getPickerId(), conversation.getRequesterId());
+        }
+        return state;
+    }
+
+    private void index(Long matchId, Long pickerId, Long requesterId)
+    {
+        matchesByUser.computeIfAbsent(pickerId, id -> ConcurrentHashMap.newKeySet()).add(matchId);
+        matchesByUser.computeIfAbsent(requesterId, id -> ConcurrentHashMap.newKeySet()).add(matchId);
+    }
+
+    private <T> T inStripe(Long matchId, Function<Map<Long, State>, T> action)
+    {
+        Stripe stripe = stripes[Long.hashCode(matchId) & (STRIPES - 1)];
+        stripe.lock.lock();
+        try
+        {
+            return action.apply(stripe.states);
+        }
+        finally
+        {
+            stripe.lock.unlock();
+        }
+    }
+
+    private static String preview(String content)
+    {
+        return content.length() <= PREVIEW_LENGTH ? content : content.substring(0, PREVIEW_LENGTH);
+    }
+
+    private static Stripe[] createStripes()
+    {
+        Stripe[] created = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++)
+        {
+            created[i] = new Stripe();
+        }
+        return created;
+    }
+
+    private static final class Stripe
+    {
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<Long, State> states = new HashMap<>();
+    }
+
+    // Mutable, only touched under its stripe lock
+    private static final class State
+    {
+        final Long matchId;
+        final Long pickerId;
+        final Long requesterId;
+        String pickerName;
+        String requesterName;
+        Long lastMessageId;
+        Long lastSenderId;
+        String lastPreview;
+        LocalDateTime lastMessageAt;
+        int pickerUnread;
+        int requesterUnread;
+        long version;
+
+        State(Long matchId, Long pickerId, Long requesterId)
+        {
+            this.matchId = matchId;
+            this.pickerId = pickerId;
+            this.requesterId = requesterId;
+        }
+
+        static State from(ConversationSummaryView row)
+        {
+            State state = new State(row.getMatchId(), row.getPickerId(), row.getRequesterId());
+            state.pickerName = row.getPickerName();
+            state.requesterName = row.getRequesterName();
+            state.lastMessageId = row.getLastMessageId();
+            state.lastSenderId = row.getLastSenderId();
+            state.lastPreview = row.getLastPreview();
+            state.lastMessageAt = row.getLastMessageAt();
+            state.pickerUnread = row.getPickerUnread().intValue();
+            state.requesterUnread = row.getRequesterUnread().intValue();
+            return state;
+        }
+
+        boolean sameCounters(State other)
+        {
+            return pickerUnread == other.pickerUnread
+                    && requesterUnread == other.requesterUnread
+                    && Objects.equals(lastMessageId, other.lastMessageId);
+        }
+
+        ConversationSummaryResponse toResponse(Long userId)
+        {
+            boolean isPicker = userId.equals(pickerId);
+            return ConversationSummaryResponse.builder()
+                    .matchId(matchId)
+                    .otherUserId(isPicker ? requesterId : pickerId)
+                    .otherUserName(isPicker ? requesterName : pickerName)
+                    .unreadCount(isPicker ? pickerUnread : requesterUnread)
+                    .lastMessageId(lastMessageId)
+                    .lastMessageSenderId(lastSenderId)
+                    .lastMessagePreview(lastPreview)
+                    .lastMessageAt(lastMessageAt != null
+                            ? lastMessageAt.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null)
+                    .build();
+        }
+    }
+}
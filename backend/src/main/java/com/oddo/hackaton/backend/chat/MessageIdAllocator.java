@@ -0,0 +1,53 @@
+package com.oddo.hackaton.backend.chat;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out {@code messages.id} values before the row exists, so a message can be delivered under its
+ * final id and inserted later. Ids are taken from the column's own identity sequence a block at a time;
+ * one round trip per {@code blockSize} messages, and ids stay increasing on this node.
+ */
+@Component
+public class MessageIdAllocator
+{
+    private static final String NEXT_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('messages', 'id')) FROM generate_series(1, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int blockSize;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long[] block = new long[0];
+    private int next;
+
+    public MessageIdAllocator(JdbcTemplate jdbcTemplate,
+                              @Value("${chat.id-block-size:100}") int blockSize)
+    {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blockSize = blockSize;
+    }
+
+    public long next()
+    {
+        lock.lock();
+        try
+        {
+            if (next == block.length)
+            {
+                List<Long> ids = jdbcTemplate.queryForList(NEXT_IDS_SQL, Long.class, blockSize);
+                block = ids.stream().mapToLong(Long::longValue).sorted().toArray();
+                next = 0;
+            }
+            return block[next++];
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+}
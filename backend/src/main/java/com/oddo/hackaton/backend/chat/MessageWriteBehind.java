@@ -0,0 +1,256 @@
+package com.oddo.hackaton.backend.chat;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.NonTransientDataAccessResourceException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Persists chat messages off the send path: senders only {@link #offer} to a bounded queue, and a
+ * scheduled flush drains it into {@code messages} with JDBC batch inserts.
+ *
+ * If the database is unreachable the current batch is kept and retried on the next flush; the queue
+ * then fills up and {@link #offer} starts refusing, which the chat surfaces as 503. Rows the database
+ * rejects for good (e.g. the match was deleted) are dropped one by one so they cannot wedge the queue.
+ * Inserts use the pre-assigned ids with ON CONFLICT DO NOTHING, so a retried batch never duplicates.
+ *
+ * Until its row is written a message stays readable through {@link #unwrittenBefore}, so history can
+ * serve it after it has left the conversation ring.
+ *
+ * Read receipts ride the same flush: marks are coalesced per (match, reader) and applied only after
+ * every message queued before them is written, so a mark never misses a message it covers.
+ */
+@Slf4j
+@Component
+public class MessageWriteBehind
+{
+    private static final String INSERT_SQL = """
+            INSERT INTO messages (id, match_id, sender_id, content, is_read, created_at)
+            VALUES (?, ?, ?, ?, false, ?)
+            ON CONFLICT (id) DO NOTHING
+            """;
+
+    private static final String MARK_READ_SQL = """
+            UPDATE messages SET is_read = true
+            WHERE match_id = ? AND sender_id <> ? AND id <= ? AND is_read IS NOT TRUE
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<ChatMessage> queue;
+    private final int batchSize;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final List<ChatMessage> batch = new ArrayList<>();
+    private final Map<ReadMark, Long> readMarks = new ConcurrentHashMap<>();
+    // Offered and not yet written (or dropped), by id
+    private final ConcurrentSkipListMap<Long, ChatMessage> unwritten = new ConcurrentSkipListMap<>();
+
+    private final Counter persistedCounter;
+    private final Counter droppedCounter;
+
+    public MessageWriteBehind(JdbcTemplate jdbcTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${chat.write-behind.capacity:50000}") int capacity,
+                              @Value("${chat.write-behind.batch-size:500}") int batchSize)
+    {
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+
+        this.persistedCounter = Counter.builder("pikme.chat.messages.persisted")
+                .description("Chat messages written to the database")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("pikme.chat.messages.dropped")
+                .description("Chat messages the database rejected permanently")
+                .register(meterRegistry);
+        Gauge.builder("pikme.chat.write_behind.pending", queue, BlockingQueue::size)
+                .description("Chat messages delivered but not yet written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return false if the backlog is full (the database is down or far behind)
+     */
+    public boolean offer(ChatMessage message)
+    {
+        // Indexed first, so a flush that picks the message up straight away always finds it to remove
+        unwritten.put(message.getId(), message);
+        if (!queue.offer(message))
+        {
+            unwritten.remove(message.getId());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Up to {@code limit} messages of the match with an id below {@code before} that are queued or
+     * being written, newest first. A match's rows are written in id order, so these are all newer
+     * than anything of that match already in the table.
+     */
+    public List<ChatMessage> unwrittenBefore(Long matchId, long before, int limit)
+    {
+        List<ChatMessage> found = new ArrayList<>();
+        for (ChatMessage message : unwritten.headMap(before).descendingMap().values())
+        {
+            if (found.size() == limit)
+            {
+                break;
+            }
+            if (message.getMatchId().equals(matchId))
+            {
+                found.add(message);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Mark the reader's incoming messages of a match read up to {@code upToId} (coalesced, highest id wins).
+     */
+    public void markRead(Long matchId, Long readerId, long upToId)
+    {
+        readMarks.merge(new ReadMark(matchId, readerId), upToId, Math::max);
+    }
+
+    @Scheduled(fixedDelayString = "${chat.write-behind.flush-interval-ms:100}")
+    public void flush()
+    {
+        flushAll();
+    }
+
+    /**
+     * Write everything queued so far, then apply the read marks taken before it.
+     *
+     * @return false if a retryable failure left messages unwritten
+     */
+    public boolean flushAll()
+    {
+        flushLock.lock();
+        try
+        {
+            List<Map.Entry<ReadMark, Long>> marks = new ArrayList<>(readMarks.entrySet());
+            while (true)
+            {
+                if (batch.isEmpty())
+                {
+                    queue.drainTo(batch, batchSize);
+                }
+                if (batch.isEmpty())
+                {
+                    break;
+                }
+                if (!write(batch))
+                {
+                    return false;
+                }
+                batch.forEach(message -> unwritten.remove(message.getId()));
+                batch.clear();
+            }
+            return applyReadMarks(marks);
+        }
+        finally
+        {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void drain()
+    {
+        if (!flushAll())
+        {
+            log.error("Shutting down with {} chat messages not persisted", batch.size() + queue.size());
+        }
+    }
+
+    private boolean applyReadMarks(List<Map.Entry<ReadMark, Long>> marks)
+    {
+        if (marks.isEmpty())
+        {
+            return true;
+        }
+        try
+        {
+            jdbcTemplate.batchUpdate(MARK_READ_SQL, marks, marks.size(), (ps, mark) -> {
+                ps.setLong(1, mark.getKey().getMatchId());
+                ps.setLong(2, mark.getKey().getReaderId());
+                ps.setLong(3, mark.getValue());
+            });
+        }
+        catch (DataAccessException e)
+        {
+            log.warn("Applying {} read marks failed, retrying: {}", marks.size(), e.getMessage());
+            return false;
+        }
+        // Drop only the marks written; a newer mark for the same key stays for the next flush
+        marks.forEach(mark -> readMarks.remove(mark.getKey(), mark.getValue()));
+        return true;
+    }
+
+    /**
+     * @return false if the batch should be retried later
+     */
+    private boolean write(List<ChatMessage> messages)
+    {
+        try
+        {
+            jdbcTemplate.batchUpdate(INSERT_SQL, messages, messages.size(), MessageWriteBehind::bind);
+            persistedCounter.increment(messages.size());
+            return true;
+        }
+        catch (TransientDataAccessException | RecoverableDataAccessException
+               | NonTransientDataAccessResourceException e)
+        {
+            log.warn("Chat write-behind failed, retrying {} messages: {}", messages.size(), e.getMessage());
+            return false;
+        }
+        catch (DataAccessException e)
+        {
+            // Something in the batch is bad: write row by row and drop only what the database refuses
+            for (ChatMessage message : messages)
+            {
+                try
+                {
+                    jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, message));
+                    persistedCounter.increment();
+                }
+                catch (DataAccessException rowError)
+                {
+                    droppedCounter.increment();
+                    log.error("Dropping chat message {} of match {}: {}",
+                            message.getId(), message.getMatchId(), rowError.getMessage());
+                }
+            }
+            return true;
+        }
+    }
+
+    private static void bind(PreparedStatement ps, ChatMessage message) throws SQLException
+    {
+        ps.setLong(1, message.getId());
+        ps.setLong(2, message.getMatchId());
+        ps.setLong(3, message.getSenderId());
+        ps.setString(4, message.getContent());
+        ps.setObject(5, message.getCreatedAt());
+    }
+}
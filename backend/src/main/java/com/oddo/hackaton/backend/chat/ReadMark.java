@@ -0,0 +1,13 @@
+package com.oddo.hackaton.backend.chat;
+
+import lombok.Value;
+
+/**
+ * Key of a pending read receipt: one reader in one match.
+ */
+@Value
+class ReadMark
+{
+    Long matchId;
+    Long readerId;
+}
@@ -0,0 +1,178 @@
+package com.oddo.hackaton.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * JDBC admission control: at most {@code maximumPoolSize} callers may hold or wait on the Hikari
+ * pool directly; everyone else queues on a fair semaphore in front of it.
+ *
+ * With virtual threads there is no request-thread cap any more, so tens of thousands of requests can
+ * ask for a connection at once. The semaphore keeps them parked cheaply (no carrier pinning), FIFO,
+ * and fails them with a normal connection timeout instead of piling onto Hikari's hand-off queue.
+ *
+ * The configured connectionTimeout is the budget for both waits together. Hikari only gets a
+ * quarter of it: a permit holder always has a pool slot, so it only waits there while a
+ * connection is being opened or replaced. The rest is the semaphore's.
+ */
+@Slf4j
+@Configuration
+public class JdbcAdmissionConfig
+{
+    // Hikari rejects anything lower and silently raises it to this
+    private static final long MIN_POOL_TIMEOUT_MS = 250;
+
+    @Bean
+    public static BeanPostProcessor jdbcAdmissionPostProcessor(Environment environment,
+                                                               ObjectProvider<MeterRegistry> meterRegistry)
+    {
+        return new BeanPostProcessor()
+        {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName)
+            {
+                if (!(bean instanceof HikariDataSource hikari)
+                        || !environment.getProperty("jdbc.admission.enabled", Boolean.class, true))
+                {
+                    return bean;
+                }
+                long budgetMs = hikari.getConnectionTimeout();
+                long poolTimeoutMs = Math.max(MIN_POOL_TIMEOUT_MS, budgetMs / 4);
+                // Before the pool starts, so its first connection already uses the shorter wait
+                hikari.setConnectionTimeout(poolTimeoutMs);
+                AdmissionLimitedDataSource limited = new AdmissionLimitedDataSource(
+                        hikari, hikari.getMaximumPoolSize(), Math.max(0, budgetMs - poolTimeoutMs));
+                meterRegistry.ifAvailable(registry ->
+                        Gauge.builder("pikme.jdbc.admission.waiting", limited, AdmissionLimitedDataSource::waiting)
+                                .description("Callers queued for a JDBC connection permit")
+                                .register(registry));
+                log.info("JDBC admission limit set to {} concurrent connections ({}ms permit wait + {}ms pool wait)",
+                        hikari.getMaximumPoolSize(), limited.timeoutMs, poolTimeoutMs);
+                return limited;
+            }
+        };
+    }
+
+    static final class AdmissionLimitedDataSource extends DelegatingDataSource
+    {
+        private final Semaphore permits;
+        private final long timeoutMs;
+
+        AdmissionLimitedDataSource(DataSource target, int maxConcurrent, long timeoutMs)
+        {
+            super(target);
+            this.permits = new Semaphore(maxConcurrent, true);
+            this.timeoutMs = timeoutMs;
+        }
+
+        int waiting()
+        {
+            return permits.getQueueLength();
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException
+        {
+            acquire();
+            try
+            {
+                return releasingOnClose(super.getConnection());
+            }
+            catch (SQLException | RuntimeException e)
+            {
+                permits.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException
+        {
+            acquire();
+            try
+            {
+                return releasingOnClose(super.getConnection(username, password));
+            }
+            catch (SQLException | RuntimeException e)
+            {
+                permits.release();
+                throw e;
+            }
+        }
+
+        private void acquire() throws SQLException
+        {
+            try
+            {
+                if (!permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS))
+                {
+                    throw new SQLTransientConnectionException(
+                            "No JDBC connection permit within " + timeoutMs + "ms (" + waiting() + " waiting)");
+                }
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted while waiting for a JDBC connection", e);
+            }
+        }
+
+        /**
+         * The permit goes back exactly once, on the first close().
+         */
+        private Connection releasingOnClose(Connection connection)
+        {
+            AtomicBoolean released = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    (proxy, method, args) -> {
+                        if ("close".equals(method.getName()) && method.getParameterCount() == 0)
+                        {
+                            try
+                            {
+                                connection.close();
+                            }
+                            finally
+                            {
+                                if (released.compareAndSet(false, true))
+                                {
+                                    permits.release();
+                                }
+                            }
+                            return null;
+                        }
+                        if ("unwrap".equals(method.getName()) && ((Class<?>) args[0]).isInstance(connection))
+                        {
+                            return connection;
+                        }
+                        try
+                        {
+                            return method.invoke(connection, args);
+                        }
+                        catch (InvocationTargetException e)
+                        {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.oddo.hackaton.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * Background jobs (@Scheduled) get their own scheduler, separate from the
+ * STOMP broker's heartbeat scheduler. In virtual-thread mode every run gets
+ * its own virtual thread; otherwise a small platform pool.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig implements SchedulingConfigurer
+{
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar)
+    {
+        if (virtualThreads)
+        {
+            SimpleAsyncTaskScheduler scheduler = new SimpleAsyncTaskScheduler();
+            scheduler.setVirtualThreads(true);
+            scheduler.setThreadNamePrefix("pikme-scheduled-");
+            registrar.setTaskScheduler(scheduler);
+            return;
+        }
+
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(4);
+        scheduler.setThreadNamePrefix("pikme-scheduled-");
+        scheduler.initialize();
+        registrar.setTaskScheduler(scheduler);
+    }
+}
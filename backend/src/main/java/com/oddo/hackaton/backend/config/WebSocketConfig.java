@@ -0,0 +1,75 @@
+package com.oddo.hackaton.backend.config;
+
+import com.oddo.hackaton.backend.realtime.FeedSubscriptionInterceptor;
+import com.oddo.hackaton.backend.security.StompAuthenticationInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+/**
+ * STOMP over WebSocket at /ws with an in-memory broker for /topic and /queue.
+ *
+ * Every session gets a bounded outbound buffer: a client that cannot keep up for
+ * {@code SEND_TIME_LIMIT_MS} or lets {@code SEND_BUFFER_LIMIT_BYTES} pile up is disconnected,
+ * so one slow phone never holds back the broker threads serving everyone else.
+ *
+ * CONNECT frames are authenticated by {@link StompAuthenticationInterceptor}; publish order is
+ * preserved per session so chat messages arrive in the order they were sent.
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer
+{
+    private static final int SEND_TIME_LIMIT_MS = 10_000;
+    private static final int SEND_BUFFER_LIMIT_BYTES = 256 * 1024;
+    private static final int MESSAGE_SIZE_LIMIT_BYTES = 64 * 1024;
+    private static final int OUTBOUND_QUEUE_CAPACITY = 10_000;
+
+    private final StompAuthenticationInterceptor stompAuthenticationInterceptor;
+    private final FeedSubscriptionInterceptor feedSubscriptionInterceptor;
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry)
+    {
+        registry.addEndpoint("/ws").setAllowedOriginPatterns("*");
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry)
+    {
+        registry.enableSimpleBroker("/topic", "/queue");
+        registry.setApplicationDestinationPrefixes("/app");
+        registry.setUserDestinationPrefix("/user");
+        registry.setPreservePublishOrder(true);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration)
+    {
+        registration.setSendTimeLimit(SEND_TIME_LIMIT_MS)
+                .setSendBufferSizeLimit(SEND_BUFFER_LIMIT_BYTES)
+                .setMessageSizeLimit(MESSAGE_SIZE_LIMIT_BYTES);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration)
+    {
+        registration.interceptors(stompAuthenticationInterceptor, feedSubscriptionInterceptor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration)
+    {
+        int threads = Runtime.getRuntime().availableProcessors() * 2;
+        registration.taskExecutor()
+                .corePoolSize(threads)
+                .maxPoolSize(threads)
+                .queueCapacity(OUTBOUND_QUEUE_CAPACITY);
+    }
+}
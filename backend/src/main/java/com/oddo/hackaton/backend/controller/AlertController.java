@@ -0,0 +1,54 @@
+package com.oddo.hackaton.backend.controller;
+
+import com.oddo.hackaton.backend.model.dto.reponse.AlertSubscriptionResponse;
+import com.oddo.hackaton.backend.model.dto.request.CreateAlertRequest;
+import com.oddo.hackaton.backend.security.CurrentUser;
+import com.oddo.hackaton.backend.service.AlertService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/alerts")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class AlertController {
+
+    private final AlertService alertService;
+    private final CurrentUser currentUser;
+
+    /**
+     * Save a search; matching new pick requests are pushed to /user/queue/alerts.
+     *
+     * POST /api/alerts
+     * Body: { "latitude": 45.5, "longitude": -73.6, "radiusMeters": 1000,
+     *         "activityTypes": ["COFFEE"], "windowStart": "08:00", "windowEnd": "18:00" }
+     */
+    @PostMapping
+    public ResponseEntity<AlertSubscriptionResponse> createAlert(@Valid @RequestBody CreateAlertRequest request) {
+
+        return ResponseEntity.ok(alertService.createAlert(currentUser.id(), request));
+    }
+
+    /**
+     * GET /api/alerts
+     */
+    @GetMapping
+    public ResponseEntity<List<AlertSubscriptionResponse>> getMyAlerts() {
+
+        return ResponseEntity.ok(alertService.getMyAlerts(currentUser.id()));
+    }
+
+    /**
+     * DELETE /api/alerts/{id}
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteAlert(@PathVariable Long id) {
+
+        alertService.deleteAlert(id, currentUser.id());
+        return ResponseEntity.noContent().build();
+    }
+}
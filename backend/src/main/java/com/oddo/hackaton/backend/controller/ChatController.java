@@ -0,0 +1,129 @@
+package com.oddo.hackaton.backend.controller;
+
+import com.oddo.hackaton.backend.exceptions.MatchException;
+import com.oddo.hackaton.backend.exceptions.MessageException;
+import com.oddo.hackaton.backend.exceptions.ServiceBusyException;
+import com.oddo.hackaton.backend.model.dto.reponse.ChatMessageResponse;
+import com.oddo.hackaton.backend.model.dto.reponse.ConversationSummaryResponse;
+import com.oddo.hackaton.backend.model.dto.request.SendMessageRequest;
+import com.oddo.hackaton.backend.security.CurrentUser;
+import com.oddo.hackaton.backend.security.StompPrincipal;
+import com.oddo.hackaton.backend.service.ChatService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class ChatController {
+
+    private final ChatService chatService;
+    private final CurrentUser currentUser;
+
+    /**
+     * Send a chat message over STOMP (the usual path).
+     *
+     * SEND /app/chat/{matchId}
+     * Body: { "content": "On my way!", "clientId": "tmp-1" }
+     *
+     * Both participants receive it on /user/queue/chat; errors go to /user/queue/errors.
+     */
+    @MessageMapping("/chat/{matchId}")
+    public void sendOverStomp(
+            @DestinationVariable Long matchId,
+            @Payload SendMessageRequest request,
+            Principal principal) {
+
+        if (!(principal instanceof StompPrincipal user)) {
+            throw new AccessDeniedException("Connect with a token to chat");
+        }
+        chatService.send(matchId, user.getUserId(), request);
+    }
+
+    /**
+     * Rejections we raise on purpose carry text written for the user; it is sent back as is.
+     */
+    @MessageExceptionHandler({MessageException.class, MatchException.class, ServiceBusyException.class,
+            AccessDeniedException.class})
+    @SendToUser(destinations = "/queue/errors", broadcast = false)
+    public String handleChatError(RuntimeException e) {
+        return e.getMessage();
+    }
+
+    /**
+     * Anything else is a bug or an infrastructure failure: logged here, never echoed to the client.
+     */
+    @MessageExceptionHandler
+    @SendToUser(destinations = "/queue/errors", broadcast = false)
+    public String handleUnexpectedChatError(Exception e) {
+        log.error("Chat message failed", e);
+        return "Message could not be sent, please retry";
+    }
+
+    /**
+     * Send a chat message over HTTP (for clients without a socket). Delivered exactly like the STOMP path.
+     *
+     * POST /api/matches/{matchId}/messages
+     * Body: { "content": "On my way!" }
+     */
+    @PostMapping("/api/matches/{matchId}/messages")
+    public ResponseEntity<ChatMessageResponse> sendMessage(
+            @PathVariable Long matchId,
+            @Valid @RequestBody SendMessageRequest request) {
+
+        return ResponseEntity.ok(chatService.send(matchId, currentUser.id(), request));
+    }
+
+    /**
+     * Conversation history, newest first.
+     *
+     * GET /api/matches/{matchId}/messages?limit=30
+     * GET /api/matches/{matchId}/messages?before=812&limit=30
+     */
+    @GetMapping("/api/matches/{matchId}/messages")
+    public ResponseEntity<List<ChatMessageResponse>> getMessages(
+            @PathVariable Long matchId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "30") int limit) {
+
+        return ResponseEntity.ok(chatService.getHistory(matchId, currentUser.id(), before, limit));
+    }
+
+    /**
+     * Mark a conversation as read.
+     *
+     * PUT /api/matches/{matchId}/messages/read              -> everything so far
+     * PUT /api/matches/{matchId}/messages/read?upToId=812   -> up to the last message on screen
+     */
+    @PutMapping("/api/matches/{matchId}/messages/read")
+    public ResponseEntity<ConversationSummaryResponse> markRead(
+            @PathVariable Long matchId,
+            @RequestParam(required = false) Long upToId) {
+
+        return ResponseEntity.ok(chatService.markRead(matchId, currentUser.id(), upToId));
+    }
+
+    /**
+     * Conversation list: one entry per chat with unread count and last message preview.
+     *
+     * GET /api/conversations
+     */
+    @GetMapping("/api/conversations")
+    public ResponseEntity<List<ConversationSummaryResponse>> getConversations() {
+
+        return ResponseEntity.ok(chatService.getConversations(currentUser.id()));
+    }
+}
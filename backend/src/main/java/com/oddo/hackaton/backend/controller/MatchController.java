@@ -1,14 +1,19 @@
 package com.oddo.hackaton.backend.controller;
 
 import com.oddo.hackaton.backend.model.dto.reponse.MatchResponse;
+import com.oddo.hackaton.backend.model.dto.reponse.QuickMatchStatusResponse;
+import com.oddo.hackaton.backend.model.dto.request.JoinQuickMatchRequest;
 import com.oddo.hackaton.backend.model.dto.request.SendPickRequest;
+import com.oddo.hackaton.backend.model.enums.MatchStatus;
+import com.oddo.hackaton.backend.security.CurrentUser;
 import com.oddo.hackaton.backend.service.MatchService;
+import com.oddo.hackaton.backend.service.QuickMatchService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -19,6 +24,8 @@ import java.util.List;
 public class MatchController {
 
     private final MatchService matchService;
+    private final QuickMatchService quickMatchService;
+    private final CurrentUser currentUser;
 
     /**
      * Picker sends a pick request to a pick request.
@@ -30,17 +37,53 @@ public class MatchController {
      */
     @PostMapping
     public ResponseEntity<MatchResponse> sendPickRequest(
-            @Valid @RequestBody SendPickRequest request,
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @Valid @RequestBody SendPickRequest request) {
 
         MatchResponse match = matchService.createMatch(
                 request.getPickRequestId(),
-                userDetails.getUsername()
+                currentUser.id()
         );
 
         return ResponseEntity.ok(match);
     }
 
+    /**
+     * Join the quick-match pool: the server picks a request for you within a few seconds.
+     * The resulting match arrives on /api/matches/stream like any other.
+     *
+     * POST /api/matches/quick
+     * Body: { "latitude": 45.5, "longitude": -73.6, "maxDistanceMeters": 2000, "activityTypes": ["COFFEE"] }
+     */
+    @PostMapping("/quick")
+    public ResponseEntity<QuickMatchStatusResponse> joinQuickMatch(
+            @Valid @RequestBody JoinQuickMatchRequest request) {
+
+        return ResponseEntity.ok(quickMatchService.join(currentUser.id(), request));
+    }
+
+    /**
+     * Whether the current user is still waiting in the pool.
+     *
+     * GET /api/matches/quick
+     */
+    @GetMapping("/quick")
+    public ResponseEntity<QuickMatchStatusResponse> getQuickMatchStatus() {
+
+        return ResponseEntity.ok(quickMatchService.getStatus(currentUser.id()));
+    }
+
+    /**
+     * Leave the pool.
+     *
+     * DELETE /api/matches/quick
+     */
+    @DeleteMapping("/quick")
+    public ResponseEntity<Void> leaveQuickMatch() {
+
+        quickMatchService.leave(currentUser.id());
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Requester approves or declines a match request.
      *
@@ -50,23 +93,40 @@ public class MatchController {
     @PutMapping("/{matchId}/respond")
     public ResponseEntity<MatchResponse> respondToMatch(
             @PathVariable Long matchId,
-            @RequestParam Boolean approved,
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @RequestParam Boolean approved) {
 
-        MatchResponse match = matchService.respondToMatch(matchId, approved, userDetails.getUsername());
+        MatchResponse match = matchService.respondToMatch(matchId, approved, currentUser.id());
         return ResponseEntity.ok(match);
     }
 
     /**
-     * Get current user's matches (both as picker and requester).
+     * Get current user's matches (both as picker and requester), newest first.
+     *
+     * GET /api/matches/my?limit=20
+     * GET /api/matches/my?before=123&limit=20&status=PENDING
      *
-     * GET /api/matches/my
+     * For the next page, pass the last matchId of the current page as "before".
      */
     @GetMapping("/my")
     public ResponseEntity<List<MatchResponse>> getMyMatches(
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) MatchStatus status) {
 
-        List<MatchResponse> matches = matchService.getMyMatches(userDetails.getUsername());
+        List<MatchResponse> matches = matchService.getMyMatches(currentUser.id(), before, limit, status);
         return ResponseEntity.ok(matches);
     }
+
+    /**
+     * Live stream of the current user's match changes (Server-Sent Events).
+     *
+     * GET /api/matches/stream
+     * Header (optional): Last-Event-ID: 42  -> replay what was missed since event 42
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMatches(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+
+        return matchService.openMatchStream(currentUser.id(), lastEventId);
+    }
 }
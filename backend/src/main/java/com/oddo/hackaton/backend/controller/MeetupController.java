@@ -0,0 +1,81 @@
+package com.oddo.hackaton.backend.controller;
+
+import com.oddo.hackaton.backend.model.dto.reponse.MeetupResponse;
+import com.oddo.hackaton.backend.model.dto.reponse.ReviewResponse;
+import com.oddo.hackaton.backend.model.dto.request.SubmitReviewRequest;
+import com.oddo.hackaton.backend.security.CurrentUser;
+import com.oddo.hackaton.backend.service.MeetupService;
+import com.oddo.hackaton.backend.service.ReviewService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/matches/{matchId}/meetup")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class MeetupController {
+
+    private final MeetupService meetupService;
+    private final ReviewService reviewService;
+    private final CurrentUser currentUser;
+
+    /**
+     * Current meetup state of an accepted match.
+     *
+     * GET /api/matches/{matchId}/meetup
+     */
+    @GetMapping
+    public ResponseEntity<MeetupResponse> getMeetup(@PathVariable Long matchId) {
+
+        return ResponseEntity.ok(meetupService.getMeetup(matchId, currentUser.id()));
+    }
+
+    /**
+     * "We met" - the meetup starts once both users have confirmed.
+     *
+     * POST /api/matches/{matchId}/meetup/start
+     */
+    @PostMapping("/start")
+    public ResponseEntity<MeetupResponse> confirmStart(@PathVariable Long matchId) {
+
+        return ResponseEntity.ok(meetupService.confirmStart(matchId, currentUser.id()));
+    }
+
+    /**
+     * "We're done" - the meetup (and its match and pick request) completes once both users have confirmed.
+     *
+     * POST /api/matches/{matchId}/meetup/end
+     */
+    @PostMapping("/end")
+    public ResponseEntity<MeetupResponse> confirmEnd(@PathVariable Long matchId) {
+
+        return ResponseEntity.ok(meetupService.confirmEnd(matchId, currentUser.id()));
+    }
+
+    /**
+     * Either user can call the meetup off before it completes.
+     *
+     * POST /api/matches/{matchId}/meetup/cancel
+     */
+    @PostMapping("/cancel")
+    public ResponseEntity<MeetupResponse> cancel(@PathVariable Long matchId) {
+
+        return ResponseEntity.ok(meetupService.cancel(matchId, currentUser.id()));
+    }
+
+    /**
+     * Review the other participant once the meetup is completed (once per user per meetup).
+     *
+     * POST /api/matches/{matchId}/meetup/review
+     * Body: { "rating": 5, "badges": ["Friendly", "Punctual"], "wouldMeetAgain": true, "comment": "..." }
+     */
+    @PostMapping("/review")
+    public ResponseEntity<ReviewResponse> submitReview(
+            @PathVariable Long matchId,
+            @Valid @RequestBody SubmitReviewRequest request) {
+
+        return ResponseEntity.ok(reviewService.submitReview(matchId, currentUser.id(), request));
+    }
+}
@@ -1,14 +1,15 @@
 package com.oddo.hackaton.backend.controller;
 
+import com.oddo.hackaton.backend.model.dto.reponse.ClusterResponse;
 import com.oddo.hackaton.backend.model.dto.reponse.NearbyPickRequestResponse;
 import com.oddo.hackaton.backend.model.dto.reponse.PickRequestResponse;
 import com.oddo.hackaton.backend.model.dto.request.CreatePickRequestRequest;
+import com.oddo.hackaton.backend.model.enums.ActivityType;
+import com.oddo.hackaton.backend.security.CurrentUser;
 import com.oddo.hackaton.backend.service.PickRequestService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -20,6 +21,7 @@ import java.util.List;
 public class PickRequestController
 {
     private final PickRequestService pickRequestService;
+    private final CurrentUser currentUser;
 
     /**
      * Create a new pick request (User wants to be picked up).
@@ -50,10 +52,9 @@ public class PickRequestController
      */
     @PostMapping
     public ResponseEntity<PickRequestResponse> createPickRequest(
-            @Valid @RequestBody CreatePickRequestRequest request,
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @Valid @RequestBody CreatePickRequestRequest request) {
 
-        PickRequestResponse response = pickRequestService.createPickRequest(request, userDetails.getUsername());
+        PickRequestResponse response = pickRequestService.createPickRequest(request, currentUser.id());
         return ResponseEntity.ok(response);
     }
 
@@ -61,10 +62,12 @@ public class PickRequestController
      * Get nearby active pick requests for the map view.
      *
      * GET /api/pick-requests/nearby?latitude=45.5&longitude=-73.6&radius=5000
+     * GET /api/pick-requests/nearby?latitude=45.5&longitude=-73.6&limit=50 (closest 50)
      *
      * @param latitude Current user latitude
      * @param longitude Current user longitude
-     * @param radius Search radius in meters (default 5000m = 5km)
+     * @param radius Search radius in meters (default 5000m = 5km); the max radius in limit mode
+     * @param limit Optional: return only the closest K requests (max 200)
      * @return List of nearby pick requests with user info
      */
     @GetMapping("/nearby")
@@ -72,17 +75,78 @@ public class PickRequestController
             @RequestParam Double latitude,
             @RequestParam Double longitude,
             @RequestParam(defaultValue = "50000") Double radiusMeters,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        String currentUserEmail = null;
-        if (userDetails != null)
-            currentUserEmail = userDetails.getUsername();
+            @RequestParam(required = false) Integer limit) {
+        Long currentUserId = currentUser.idOrNull();
 
-        List<NearbyPickRequestResponse> nearbyRequests =
-                pickRequestService.findNearbyPickRequests(latitude, longitude, radiusMeters, currentUserEmail);
+        List<NearbyPickRequestResponse> nearbyRequests = limit != null
+                ? pickRequestService.findNearestPickRequests(latitude, longitude, limit, radiusMeters, currentUserId)
+                : pickRequestService.findNearbyPickRequests(latitude, longitude, radiusMeters, currentUserId);
 
         return ResponseEntity.ok(nearbyRequests);
     }
 
+    /**
+     * Nearby pick requests ordered by relevance instead of distance: closeness, safety score, interests
+     * shared with the caller and the preferred activities all count (weights in ranking.weight.*).
+     *
+     * GET /api/pick-requests/nearby/ranked?latitude=45.5&longitude=-73.6&radiusMeters=5000&limit=20
+     *     &activityTypes=COFFEE,WALK
+     *
+     * @param radiusMeters  search radius (max 50000)
+     * @param limit         how many to return, best first (max 200)
+     * @param activityTypes Optional: activities the caller would rather do
+     */
+    @GetMapping("/nearby/ranked")
+    public ResponseEntity<List<NearbyPickRequestResponse>> getRankedPickRequests(
+            @RequestParam Double latitude,
+            @RequestParam Double longitude,
+            @RequestParam(defaultValue = "5000") Double radiusMeters,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) List<ActivityType> activityTypes) {
+
+        return ResponseEntity.ok(pickRequestService.findRankedPickRequests(
+                latitude, longitude, radiusMeters, limit, activityTypes, currentUser.idOrNull()));
+    }
+
+    /**
+     * Get active pick requests inside the visible map rectangle.
+     *
+     * GET /api/pick-requests/in-viewport?minLat=45.4&minLon=-73.7&maxLat=45.6&maxLon=-73.5&zoom=13
+     *
+     * Results are newest first and capped by zoom level; distanceMeters is not set.
+     */
+    @GetMapping("/in-viewport")
+    public ResponseEntity<List<NearbyPickRequestResponse>> getPickRequestsInViewport(
+            @RequestParam Double minLat,
+            @RequestParam Double minLon,
+            @RequestParam Double maxLat,
+            @RequestParam Double maxLon,
+            @RequestParam(required = false) Integer zoom) {
+        List<NearbyPickRequestResponse> visibleRequests =
+                pickRequestService.findInViewport(minLat, minLon, maxLat, maxLon, zoom, currentUser.idOrNull());
+
+        return ResponseEntity.ok(visibleRequests);
+    }
+
+    /**
+     * Get marker clusters for a zoomed-out map.
+     *
+     * GET /api/pick-requests/clusters?minLat=45.0&minLon=-74.5&maxLat=46.0&maxLon=-73.0&zoom=9
+     *
+     * Each cluster has a cell id, a count, a centroid and a per-activity breakdown.
+     */
+    @GetMapping("/clusters")
+    public ResponseEntity<List<ClusterResponse>> getClusters(
+            @RequestParam Double minLat,
+            @RequestParam Double minLon,
+            @RequestParam Double maxLat,
+            @RequestParam Double maxLon,
+            @RequestParam Integer zoom) {
+
+        List<ClusterResponse> clusters = pickRequestService.findClusters(minLat, minLon, maxLat, maxLon, zoom);
+        return ResponseEntity.ok(clusters);
+    }
+
     /**
      * Get current user's pick requests (requester's own requests).
      *
@@ -90,10 +154,9 @@ public class PickRequestController
      * Headers: Authorization: Bearer {jwt_token}
      */
     @GetMapping("/my")
-    public ResponseEntity<List<PickRequestResponse>> getMyPickRequests(
-            @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<List<PickRequestResponse>> getMyPickRequests() {
 
-        List<PickRequestResponse> myRequests = pickRequestService.getMyPickRequests(userDetails.getUsername());
+        List<PickRequestResponse> myRequests = pickRequestService.getMyPickRequests(currentUser.id());
         return ResponseEntity.ok(myRequests);
     }
 
@@ -105,10 +168,9 @@ public class PickRequestController
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> cancelPickRequest(
-            @PathVariable Long id,
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @PathVariable Long id) {
 
-        pickRequestService.cancelPickRequest(id, userDetails.getUsername());
+        pickRequestService.cancelPickRequest(id, currentUser.id());
         return ResponseEntity.noContent().build();
     }
 }
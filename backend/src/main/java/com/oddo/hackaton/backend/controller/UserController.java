@@ -1,20 +1,43 @@
 package com.oddo.hackaton.backend.controller;
 
+import com.oddo.hackaton.backend.model.dto.reponse.AuthResponse;
+import com.oddo.hackaton.backend.model.dto.reponse.ReputationResponse;
+import com.oddo.hackaton.backend.model.dto.reponse.SimilarUserResponse;
+import com.oddo.hackaton.backend.model.dto.reponse.UserProfileResponse;
+import com.oddo.hackaton.backend.model.dto.request.ChangePasswordRequest;
+import com.oddo.hackaton.backend.model.dto.request.UpdateProfileRequest;
+import com.oddo.hackaton.backend.security.CurrentUser;
+import com.oddo.hackaton.backend.service.ReviewService;
+import com.oddo.hackaton.backend.service.SimilarUserService;
+import com.oddo.hackaton.backend.service.UserService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/users")
+@RequiredArgsConstructor
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class UserController {
 
+    private final UserService userService;
+    private final ReviewService reviewService;
+    private final SimilarUserService similarUserService;
+    private final CurrentUser currentUser;
+
     /**
      * Get current authenticated user's profile.
      *
@@ -30,6 +53,36 @@ public class UserController {
         ));
     }
 
+    /**
+     * Edit the current user's profile; omitted fields keep their value.
+     *
+     * PUT /api/users/me
+     * Body: { "name": "...", "age": 27, "bio": "...", "interests": ["hiking", "coffee"] }
+     */
+    @PutMapping("/me")
+    public ResponseEntity<UserProfileResponse> updateProfile(
+            @Valid @RequestBody UpdateProfileRequest request) {
+
+        return ResponseEntity.ok(userService.updateProfile(currentUser.id(), request));
+    }
+
+    /**
+     * Users with interests like the current user's, most similar first. With latitude/longitude,
+     * only those with an ACTIVE pick request within radiusMeters.
+     *
+     * GET /api/users/me/similar?limit=20&latitude=45.50&longitude=-73.56&radiusMeters=5000
+     */
+    @GetMapping("/me/similar")
+    public ResponseEntity<List<SimilarUserResponse>> getSimilarUsers(
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) Double latitude,
+            @RequestParam(required = false) Double longitude,
+            @RequestParam(defaultValue = "5000") Double radiusMeters) {
+
+        return ResponseEntity.ok(similarUserService.findSimilarUsers(
+                currentUser.id(), limit, latitude, longitude, radiusMeters));
+    }
+
     /**
      * Example protected endpoint.
      *
@@ -40,4 +93,30 @@ public class UserController {
     public ResponseEntity<String> getProfile(@AuthenticationPrincipal UserDetails userDetails) {
         return ResponseEntity.ok("Hello " + userDetails.getUsername() + "! This is a protected endpoint.");
     }
+
+    /**
+     * Change the current user's password. Every previously issued token stops working;
+     * the response carries a new one.
+     *
+     * PUT /api/users/me/password
+     * Body: { "currentPassword": "...", "newPassword": "..." }
+     */
+    @PutMapping("/me/password")
+    public ResponseEntity<AuthResponse> changePassword(
+            @Valid @RequestBody ChangePasswordRequest request) {
+
+        AuthResponse response = userService.changePassword(currentUser.id(), request);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Review summary of a user: average rating, would-meet-again ratio, safety score and badges.
+     *
+     * GET /api/users/{userId}/reputation
+     */
+    @GetMapping("/{userId}/reputation")
+    public ResponseEntity<ReputationResponse> getReputation(@PathVariable Long userId) {
+
+        return ResponseEntity.ok(reviewService.getReputation(userId));
+    }
 }
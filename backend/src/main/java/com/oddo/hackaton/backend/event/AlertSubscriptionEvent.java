@@ -0,0 +1,29 @@
+package com.oddo.hackaton.backend.event;
+
+import com.oddo.hackaton.backend.geo.StandingAlert;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published when an alert subscription is created or deleted; keeps the AlertIndex in step with the table.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class AlertSubscriptionEvent
+{
+    private final Long subscriptionId;
+
+    // Only present on creation
+    private final StandingAlert alert;
+
+    public static AlertSubscriptionEvent created(StandingAlert alert)
+    {
+        return new AlertSubscriptionEvent(alert.getId(), alert);
+    }
+
+    public static AlertSubscriptionEvent deleted(Long subscriptionId)
+    {
+        return new AlertSubscriptionEvent(subscriptionId, null);
+    }
+}
@@ -0,0 +1,24 @@
+package com.oddo.hackaton.backend.event;
+
+import com.oddo.hackaton.backend.model.dto.reponse.MatchResponse;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published when a match is created or answered. The response is built inside the transaction,
+ * so listeners running after commit never touch lazy associations.
+ */
+@Getter
+@RequiredArgsConstructor
+public class MatchEvent
+{
+    private final MatchResponse match;
+
+    /**
+     * Users who should hear about this change (the picker and the requester).
+     */
+    public Long[] getRecipientIds()
+    {
+        return new Long[] { match.getPickerId(), match.getRequesterId() };
+    }
+}
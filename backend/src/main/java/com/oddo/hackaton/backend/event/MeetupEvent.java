@@ -0,0 +1,28 @@
+package com.oddo.hackaton.backend.event;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a meetup starts or stops running. Drives the safety timers.
+ */
+@Getter
+@Builder
+public class MeetupEvent
+{
+    public enum Type
+    {
+        STARTED,
+        COMPLETED,
+        CANCELLED
+    }
+
+    private final Type type;
+    private final Long meetupId;
+    private final Long pickerId;
+    private final Long requesterId;
+    private final LocalDateTime startedAt;
+    private final Integer durationMinutes;
+}
@@ -0,0 +1,27 @@
+package com.oddo.hackaton.backend.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fired by the meetup timers: a safety check-in is due, or the meetup has run past its grace period.
+ */
+@Getter
+@RequiredArgsConstructor
+public class MeetupTimerEvent
+{
+    public enum Type
+    {
+        CHECK_IN,   // Planned duration reached: "are you safe?"
+        OVERRUN     // Still running after the grace period: alert
+    }
+
+    private final Type type;
+    private final Long meetupId;
+    private final Long pickerId;
+    private final Long requesterId;
+    private final LocalDateTime startedAt;
+    private final LocalDateTime firedAt;
+}
@@ -0,0 +1,81 @@
+package com.oddo.hackaton.backend.event;
+
+import com.oddo.hackaton.backend.geo.PickRequestSummary;
+import com.oddo.hackaton.backend.model.entity.PickRequest;
+import com.oddo.hackaton.backend.model.projection.ExpiredPickRequestView;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published whenever a pick request enters or leaves the ACTIVE state, and when its meetup completes.
+ * Listeners use {@code @TransactionalEventListener}, so they only see committed changes.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class PickRequestEvent
+{
+    public enum Type
+    {
+        CREATED,      // New ACTIVE request
+        CANCELLED,    // Owner cancelled it
+        MATCHED,      // A picker claimed it
+        EXPIRED,      // expiresAt passed, swept by the expiry job
+        REACTIVATED,  // Match declined, request is ACTIVE again
+        COMPLETED     // Its meetup ended (already off the map since MATCHED)
+    }
+
+    private final Type type;
+    private final Long pickRequestId;
+    private final Double latitude;
+    private final Double longitude;
+
+    // Only present for CREATED and REACTIVATED (the request is visible again)
+    private final PickRequestSummary summary;
+
+    public boolean isActivation()
+    {
+        return summary != null;
+    }
+
+    public static PickRequestEvent created(PickRequestSummary summary)
+    {
+        return activation(Type.CREATED, summary);
+    }
+
+    public static PickRequestEvent reactivated(PickRequestSummary summary)
+    {
+        return activation(Type.REACTIVATED, summary);
+    }
+
+    public static PickRequestEvent cancelled(PickRequest pickRequest)
+    {
+        return removal(Type.CANCELLED, pickRequest.getId(), pickRequest.getLatitude(), pickRequest.getLongitude());
+    }
+
+    public static PickRequestEvent matched(PickRequest pickRequest)
+    {
+        return removal(Type.MATCHED, pickRequest.getId(), pickRequest.getLatitude(), pickRequest.getLongitude());
+    }
+
+    public static PickRequestEvent expired(ExpiredPickRequestView view)
+    {
+        return removal(Type.EXPIRED, view.getId(), view.getLatitude(), view.getLongitude());
+    }
+
+    public static PickRequestEvent completed(Long pickRequestId, Double latitude, Double longitude)
+    {
+        return removal(Type.COMPLETED, pickRequestId, latitude, longitude);
+    }
+
+    public static PickRequestEvent removal(Type type, Long pickRequestId, Double latitude, Double longitude)
+    {
+        return new PickRequestEvent(type, pickRequestId, latitude, longitude, null);
+    }
+
+    private static PickRequestEvent activation(Type type, PickRequestSummary summary)
+    {
+        return new PickRequestEvent(type, summary.getPickRequestId(),
+                summary.getLatitude(), summary.getLongitude(), summary);
+    }
+}
@@ -0,0 +1,16 @@
+package com.oddo.hackaton.backend.event;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Published when a user's safety score changes (new review or aggregate repair), so the cached
+ * requester cards on the map pick up the new score.
+ */
+@Getter
+@Builder
+public class ReputationChangedEvent
+{
+    private final Long userId;
+    private final Integer safetyScore;
+}
@@ -0,0 +1,14 @@
+package com.oddo.hackaton.backend.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The user's token version was bumped; tokens carrying an older version are no longer valid.
+ */
+@Getter
+@RequiredArgsConstructor
+public class TokenVersionChangedEvent
+{
+    private final Long userId;
+}
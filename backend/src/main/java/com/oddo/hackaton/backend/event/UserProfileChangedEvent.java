@@ -0,0 +1,20 @@
+package com.oddo.hackaton.backend.event;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Published when a user edits their profile, so every cached copy of the card (user directory,
+ * requester cards on the map, similar-user signatures) is refreshed after commit.
+ */
+@Getter
+@Builder
+public class UserProfileChangedEvent
+{
+    private final Long userId;
+    private final String email;
+    private final String name;
+    private final Integer age;
+    private final String bio;
+    private final String[] interests;
+}
@@ -0,0 +1,11 @@
+package com.oddo.hackaton.backend.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class AlertException extends RuntimeException
+{
+    public AlertException() { }
+    public AlertException(String message) { super(message); }
+}
@@ -0,0 +1,14 @@
+package com.oddo.hackaton.backend.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Registration with an email that already has an account (HTTP 409).
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class EmailInUseException extends RuntimeException
+{
+    public EmailInUseException() { }
+    public EmailInUseException(String message) { super(message); }
+}
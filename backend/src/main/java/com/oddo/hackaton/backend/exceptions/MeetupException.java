@@ -1,5 +1,9 @@
 package com.oddo.hackaton.backend.exceptions;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
 public class MeetupException extends RuntimeException{
     public MeetupException() { }
     public MeetupException(String message) { super(message); }
@@ -1,5 +1,9 @@
 package com.oddo.hackaton.backend.exceptions;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
 public class MessageException extends RuntimeException {
     public MessageException() { }
     public MessageException(String message) { super(message); }
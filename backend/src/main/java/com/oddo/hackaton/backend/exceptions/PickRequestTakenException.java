@@ -0,0 +1,14 @@
+package com.oddo.hackaton.backend.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Another picker claimed the pick request first (HTTP 409).
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class PickRequestTakenException extends RuntimeException
+{
+    public PickRequestTakenException() { }
+    public PickRequestTakenException(String message) { super(message); }
+}
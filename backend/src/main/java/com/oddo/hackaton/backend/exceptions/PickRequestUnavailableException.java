@@ -0,0 +1,14 @@
+package com.oddo.hackaton.backend.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The pick request was cancelled, expired or completed; nobody can pick it any more (HTTP 410).
+ */
+@ResponseStatus(HttpStatus.GONE)
+public class PickRequestUnavailableException extends RuntimeException
+{
+    public PickRequestUnavailableException() { }
+    public PickRequestUnavailableException(String message) { super(message); }
+}
@@ -0,0 +1,14 @@
+package com.oddo.hackaton.backend.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A bounded resource is saturated; the client should retry later (HTTP 503).
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceBusyException extends RuntimeException
+{
+    public ServiceBusyException() { }
+    public ServiceBusyException(String message) { super(message); }
+}
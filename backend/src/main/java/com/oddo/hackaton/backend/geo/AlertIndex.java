@@ -0,0 +1,266 @@
+package com.oddo.hackaton.backend.geo;
+
+import com.oddo.hackaton.backend.event.AlertSubscriptionEvent;
+import com.oddo.hackaton.backend.model.projection.AlertSubscriptionView;
+import com.oddo.hackaton.backend.repository.AlertSubscriptionRepository;
+import com.oddo.hackaton.backend.util.GeoUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.LongConsumer;
+
+/**
+ * Reverse spatial index of alert subscriptions ("standing queries").
+ *
+ * Instead of running every saved search against each new pick request, each subscription is registered
+ * in the tiles its circle touches, at the zoom level whose tiles are about as wide as the circle
+ * ({@link #zoomFor}): from a 100m alert around zoom 17 to a 10km one around zoom 10, so a circle's bounding box
+ * always covers at most 2x2 tiles. A new request probes one tile per occupied level and checks only the
+ * subscriptions registered there. Every such candidate has a circle comparable in size to that tile and
+ * overlapping it, so a steady share of them are real matches whatever the radius mix. The total number
+ * of subscriptions does not enter into it.
+ *
+ * Each tile holds a copy-on-write array: probes read it without locking, and adding or removing a
+ * subscription swaps the array inside {@link ConcurrentHashMap#compute}. Subscriptions change far less
+ * often than requests are created, so paying the copy on writes is the right trade.
+ *
+ * The table is the durable copy. At startup the index is reloaded from it in keyset-paged chunks into plain
+ * per-tile lists that are frozen into arrays once at the end. Subscription events committed meanwhile are
+ * held back and applied on top, in order, so the index follows committed {@link AlertSubscriptionEvent}s.
+ */
+@Slf4j
+@Component
+public class AlertIndex
+{
+    // A 10km alert at 70 degrees of latitude lands on MIN_ZOOM, a 100m one at the equator on MAX_ZOOM
+    static final int MIN_ZOOM = 8;
+    static final int MAX_ZOOM = 17;
+    private static final StandingAlert[] NONE = new StandingAlert[0];
+
+    private final AlertSubscriptionRepository alertSubscriptionRepository;
+    private final int loadChunkSize;
+
+    private final Map<Long, StandingAlert[]> tiles = new ConcurrentHashMap<>();
+    private final Map<Long, StandingAlert> byId = new ConcurrentHashMap<>();
+    // Subscriptions per zoom level, so a probe skips the levels nobody uses
+    private final AtomicIntegerArray perLevel = new AtomicIntegerArray(MAX_ZOOM + 1);
+
+    // Events committed while the startup load runs, applied once it is done
+    private final Object warmUpLock = new Object();
+    private final List<AlertSubscriptionEvent> heldBack = new ArrayList<>();
+    private volatile boolean warm = false;
+
+    public AlertIndex(AlertSubscriptionRepository alertSubscriptionRepository,
+                      @Value("${alerts.load-chunk-size:10000}") int loadChunkSize)
+    {
+        this.alertSubscriptionRepository = alertSubscriptionRepository;
+        this.loadChunkSize = loadChunkSize;
+    }
+
+    public boolean isWarm()
+    {
+        return warm;
+    }
+
+    public int size()
+    {
+        return byId.size();
+    }
+
+    /**
+     * Subscriptions the request satisfies, at most one per subscriber.
+     */
+    public List<StandingAlert> probe(PickRequestSummary summary, int minuteOfDay)
+    {
+        List<StandingAlert> matches = new ArrayList<>();
+        Set<Long> notified = null;
+        for (int zoom = MIN_ZOOM; zoom <= MAX_ZOOM; zoom++)
+        {
+            if (perLevel.get(zoom) == 0)
+            {
+                continue;
+            }
+            StandingAlert[] candidates =
+                    tiles.getOrDefault(GeoUtils.tileKey(summary.getLatitude(), summary.getLongitude(), zoom), NONE);
+            for (StandingAlert alert : candidates)
+            {
+                if (!alert.matches(summary, minuteOfDay))
+                {
+                    continue;
+                }
+                if (notified == null)
+                {
+                    notified = new HashSet<>();
+                }
+                if (notified.add(alert.getUserId()))
+                {
+                    matches.add(alert);
+                }
+            }
+        }
+        return matches;
+    }
+
+    public void add(StandingAlert alert)
+    {
+        // Tile updates for one id happen inside its byId bin, so add/remove of the same subscription never interleave
+        byId.compute(alert.getId(), (id, previous) -> {
+            if (previous != null)
+            {
+                unregister(previous);
+            }
+            forEachTile(alert, key -> tiles.merge(key, new StandingAlert[] {alert}, AlertIndex::concat));
+            perLevel.incrementAndGet(zoomFor(alert));
+            return alert;
+        });
+    }
+
+    public void remove(Long subscriptionId)
+    {
+        byId.computeIfPresent(subscriptionId, (id, previous) -> {
+            unregister(previous);
+            return null;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAlertSubscriptionEvent(AlertSubscriptionEvent event)
+    {
+        if (!warm)
+        {
+            synchronized (warmUpLock)
+            {
+                if (!warm)
+                {
+                    heldBack.add(event);
+                    return;
+                }
+            }
+        }
+        apply(event);
+    }
+
+    /**
+     * Startup load, {@code loadChunkSize} rows per query so a million subscriptions never sit in one result set.
+     * Rows are gathered per tile and each tile's array is built once, so the load is linear in the number of
+     * subscriptions.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp()
+    {
+        long start = System.currentTimeMillis();
+        Map<Long, List<StandingAlert>> loaded = new HashMap<>();
+        long afterId = 0;
+        List<AlertSubscriptionView> chunk;
+        do
+        {
+            chunk = alertSubscriptionRepository.findChunk(afterId, loadChunkSize);
+            for (AlertSubscriptionView view : chunk)
+            {
+                StandingAlert alert = StandingAlert.from(view);
+                byId.put(alert.getId(), alert);
+                perLevel.incrementAndGet(zoomFor(alert));
+                forEachTile(alert, key -> loaded.computeIfAbsent(key, k -> new ArrayList<>()).add(alert));
+                afterId = view.getId();
+            }
+        }
+        while (chunk.size() == loadChunkSize);
+
+        synchronized (warmUpLock)
+        {
+            loaded.forEach((key, alerts) -> tiles.merge(key, alerts.toArray(NONE), AlertIndex::concat));
+            // Committed after (or while) their rows were read: newer than what was loaded
+            heldBack.forEach(this::apply);
+            heldBack.clear();
+            warm = true;
+        }
+        log.info("Alert index loaded {} subscriptions into {} tiles in {}ms",
+                byId.size(), tiles.size(), System.currentTimeMillis() - start);
+    }
+
+    private void apply(AlertSubscriptionEvent event)
+    {
+        if (event.getAlert() != null)
+        {
+            add(event.getAlert());
+        }
+        else
+        {
+            remove(event.getSubscriptionId());
+        }
+    }
+
+    private void unregister(StandingAlert alert)
+    {
+        forEachTile(alert, key -> tiles.computeIfPresent(key, (k, bucket) -> without(bucket, alert.getId())));
+        perLevel.decrementAndGet(zoomFor(alert));
+    }
+
+    /**
+     * The finest zoom whose tiles are at least as wide as the alert's bounding box (so it spans at most
+     * two tiles each way). Mercator tiles are square, so the longitude span decides for both axes.
+     */
+    static int zoomFor(StandingAlert alert)
+    {
+        double span = 2 * GeoUtils.lonDelta(alert.getRadiusMeters(), alert.getLatitude());
+        int zoom = (int) Math.floor(Math.log(360.0 / span) / Math.log(2));
+        return Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom));
+    }
+
+    private static void forEachTile(StandingAlert alert, LongConsumer action)
+    {
+        int zoom = zoomFor(alert);
+        double dLat = GeoUtils.latDelta(alert.getRadiusMeters());
+        double dLon = GeoUtils.lonDelta(alert.getRadiusMeters(), alert.getLatitude());
+        int minX = GeoUtils.tileX(alert.getLongitude() - dLon, zoom);
+        int maxX = GeoUtils.tileX(alert.getLongitude() + dLon, zoom);
+        int minY = GeoUtils.tileY(alert.getLatitude() + dLat, zoom);
+        int maxY = GeoUtils.tileY(alert.getLatitude() - dLat, zoom);
+        for (int x = minX; x <= maxX; x++)
+        {
+            for (int y = minY; y <= maxY; y++)
+            {
+                action.accept(GeoUtils.tileKey(zoom, x, y));
+            }
+        }
+    }
+
+    private static StandingAlert[] concat(StandingAlert[] bucket, StandingAlert[] added)
+    {
+        StandingAlert[] grown = Arrays.copyOf(bucket, bucket.length + added.length);
+        System.arraycopy(added, 0, grown, bucket.length, added.length);
+        return grown;
+    }
+
+    private static StandingAlert[] without(StandingAlert[] bucket, long subscriptionId)
+    {
+        for (int i = 0; i < bucket.length; i++)
+        {
+            if (bucket[i].getId() == subscriptionId)
+            {
+                if (bucket.length == 1)
+                {
+                    return null;
+                }
+                StandingAlert[] shrunk = new StandingAlert[bucket.length - 1];
+                System.arraycopy(bucket, 0, shrunk, 0, i);
+                System.arraycopy(bucket, i + 1, shrunk, i, bucket.length - i - 1);
+                return shrunk;
+            }
+        }
+        return bucket;
+    }
+}
@@ -0,0 +1,159 @@
+package com.oddo.hackaton.backend.geo;
+
+import com.oddo.hackaton.backend.model.enums.ActivityType;
+import com.oddo.hackaton.backend.util.GeoUtils;
+import lombok.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-tile aggregates (count, centroid, activity breakdown) of ACTIVE pick requests
+ * for every zoom level from 0 to {@link #MAX_ZOOM}.
+ *
+ * Maintained incrementally by {@link SpatialIndex}: adding or removing one request touches
+ * exactly one cell per level, so a zoomed-out map costs O(visible cells), not O(requests).
+ */
+@Component
+public class ClusterIndex
+{
+    public static final int MAX_ZOOM = 16;
+
+    private static final int ACTIVITY_COUNT = ActivityType.values().length;
+
+    @SuppressWarnings("unchecked")
+    private final Map<Long, Cell>[] levels = new Map[MAX_ZOOM + 1];
+
+    public ClusterIndex()
+    {
+        for (int zoom = 0; zoom <= MAX_ZOOM; zoom++)
+        {
+            levels[zoom] = new ConcurrentHashMap<>();
+        }
+    }
+
+    void add(PickRequestSummary summary)
+    {
+        for (int zoom = 0; zoom <= MAX_ZOOM; zoom++)
+        {
+            levels[zoom].compute(GeoUtils.tileKey(summary.getLatitude(), summary.getLongitude(), zoom), (key, cell) -> {
+                Cell target = cell != null ? cell : new Cell();
+                target.apply(summary, 1);
+                return target;
+            });
+        }
+    }
+
+    void remove(PickRequestSummary summary)
+    {
+        for (int zoom = 0; zoom <= MAX_ZOOM; zoom++)
+        {
+            levels[zoom].computeIfPresent(GeoUtils.tileKey(summary.getLatitude(), summary.getLongitude(), zoom),
+                    (key, cell) -> cell.apply(summary, -1) > 0 ? cell : null);
+        }
+    }
+
+    /**
+     * Non-empty cells at {@code zoom} that intersect the bounding box.
+     */
+    public List<Cluster> findClusters(double minLat, double minLon, double maxLat, double maxLon, int zoom)
+    {
+        int level = Math.max(0, Math.min(zoom, MAX_ZOOM));
+        int minX = GeoUtils.tileX(minLon, level);
+        int maxX = GeoUtils.tileX(maxLon, level);
+        int minY = GeoUtils.tileY(maxLat, level);
+        int maxY = GeoUtils.tileY(minLat, level);
+
+        Map<Long, Cell> cells = levels[level];
+        List<Cluster> clusters = new ArrayList<>();
+        long tileCount = (long) (maxX - minX + 1) * (maxY - minY + 1);
+
+        if (tileCount > cells.size())
+        {
+            // Fewer non-empty cells than visible tiles: walk the cells instead of probing empty tiles
+            cells.forEach((key, cell) -> {
+                int x = GeoUtils.keyTileX(key);
+                int y = GeoUtils.keyTileY(key);
+                if (x >= minX && x <= maxX && y >= minY && y <= maxY)
+                {
+                    addSnapshot(clusters, level, x, y, cell);
+                }
+            });
+        }
+        else
+        {
+            for (int x = minX; x <= maxX; x++)
+            {
+                for (int y = minY; y <= maxY; y++)
+                {
+                    Cell cell = cells.get(GeoUtils.tileKey(level, x, y));
+                    if (cell != null)
+                    {
+                        addSnapshot(clusters, level, x, y, cell);
+                    }
+                }
+            }
+        }
+        return clusters;
+    }
+
+    private static void addSnapshot(List<Cluster> clusters, int zoom, int x, int y, Cell cell)
+    {
+        Cluster cluster = cell.snapshot(zoom + "/" + x + "/" + y);
+        if (cluster != null)
+        {
+            clusters.add(cluster);
+        }
+    }
+
+    @Value
+    public static class Cluster
+    {
+        String cellId;
+        int count;
+        double latitude;
+        double longitude;
+        Map<ActivityType, Integer> activityCounts;
+    }
+
+    private static final class Cell
+    {
+        private int count;
+        private double latitudeSum;
+        private double longitudeSum;
+        private final int[] activityCounts = new int[ACTIVITY_COUNT];
+
+        synchronized int apply(PickRequestSummary summary, int delta)
+        {
+            count += delta;
+            latitudeSum += delta * summary.getLatitude();
+            longitudeSum += delta * summary.getLongitude();
+            if (summary.getActivityType() != null)
+            {
+                activityCounts[summary.getActivityType().ordinal()] += delta;
+            }
+            return count;
+        }
+
+        synchronized Cluster snapshot(String cellId)
+        {
+            if (count <= 0)
+            {
+                return null;
+            }
+            Map<ActivityType, Integer> breakdown = new EnumMap<>(ActivityType.class);
+            for (ActivityType type : ActivityType.values())
+            {
+                if (activityCounts[type.ordinal()] > 0)
+                {
+                    breakdown.put(type, activityCounts[type.ordinal()]);
+                }
+            }
+            return new Cluster(cellId, count, latitudeSum / count, longitudeSum / count, breakdown);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.oddo.hackaton.backend.geo;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Interest string -> bit position. A user's interests become a {@code long[]} bitset, so the overlap of
+ * two users is a handful of {@link Long#bitCount} calls instead of comparing string arrays.
+ *
+ * Ids are handed out on first sight (case-insensitive, trimmed) and never reused; they only live as long
+ * as the process, which is fine because every bitset is derived from the interests kept next to it.
+ * Interests are free text, so the dictionary is capped: past {@code maxSize} entries, unseen interests
+ * are simply left out of the bitsets (they still show up in the card, they just do not rank).
+ */
+@Component
+public class InterestDictionary
+{
+    public static final long[] EMPTY = new long[0];
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final int maxSize;
+
+    public InterestDictionary(@Value("${ranking.interests.max-dictionary-size:4096}") int maxSize)
+    {
+        this.maxSize = maxSize;
+    }
+
+    public long[] encode(String[] interests)
+    {
+        if (interests == null || interests.length == 0)
+        {
+            return EMPTY;
+        }
+
+        long[] bits = EMPTY;
+        for (String interest : interests)
+        {
+            int id = idOf(interest);
+            if (id < 0)
+            {
+                continue;
+            }
+            int word = id >>> 6;
+            if (word >= bits.length)
+            {
+                long[] grown = new long[word + 1];
+                System.arraycopy(bits, 0, grown, 0, bits.length);
+                bits = grown;
+            }
+            bits[word] |= 1L << id;
+        }
+        return bits;
+    }
+
+    /**
+     * The summary with its interest bitset filled in (unchanged if it already has one).
+     */
+    public PickRequestSummary withInterestBits(PickRequestSummary summary)
+    {
+        if (summary.getInterestBits() != null)
+        {
+            return summary;
+        }
+        return summary.toBuilder()
+                .interestBits(encode(summary.getInterests()))
+                .build();
+    }
+
+    public int size()
+    {
+        return ids.size();
+    }
+
+    /**
+     * Number of interests two bitsets share.
+     */
+    public static int overlap(long[] a, long[] b)
+    {
+        int words = Math.min(a.length, b.length);
+        int shared = 0;
+        for (int i = 0; i < words; i++)
+        {
+            shared += Long.bitCount(a[i] & b[i]);
+        }
+        return shared;
+    }
+
+    public static int cardinality(long[] bits)
+    {
+        int count = 0;
+        for (long word : bits)
+        {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private int idOf(String interest)
+    {
+        if (interest == null || interest.isBlank())
+        {
+            return -1;
+        }
+        String key = interest.trim().toLowerCase(Locale.ROOT);
+        Integer id = ids.get(key);
+        if (id != null)
+        {
+            return id;
+        }
+        if (ids.size() >= maxSize)
+        {
+            return -1;
+        }
+        return ids.computeIfAbsent(key, k -> nextId.getAndIncrement());
+    }
+}
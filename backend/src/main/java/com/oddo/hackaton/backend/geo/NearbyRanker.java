@@ -0,0 +1,196 @@
+package com.oddo.hackaton.backend.geo;
+
+import com.oddo.hackaton.backend.model.enums.ActivityType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Relevance ranking for the picker's list: every candidate gets
+ *
+ *   score = wDistance * (1 - distance / radius)
+ *         + wSafety   * safetyScore / 100
+ *         + wInterest * sharedInterests / viewerInterests
+ *         + wActivity * (activity is one of the preferred ones ? 1 : 0)
+ *
+ * and only the best {@code k} are kept, in a min-heap of parallel arrays sized {@code k}. Scoring a
+ * candidate allocates nothing (interest overlap is a popcount over {@link InterestDictionary} bitsets),
+ * so the cost is one pass over the candidates plus O(n log k) heap work.
+ */
+@Component
+public class NearbyRanker
+{
+    private final double distanceWeight;
+    private final double safetyWeight;
+    private final double interestWeight;
+    private final double activityWeight;
+
+    public NearbyRanker(
+            @Value("${ranking.weight.distance:0.4}") double distanceWeight,
+            @Value("${ranking.weight.safety:0.2}") double safetyWeight,
+            @Value("${ranking.weight.interests:0.3}") double interestWeight,
+            @Value("${ranking.weight.activity:0.1}") double activityWeight)
+    {
+        this.distanceWeight = distanceWeight;
+        this.safetyWeight = safetyWeight;
+        this.interestWeight = interestWeight;
+        this.activityWeight = activityWeight;
+    }
+
+    /**
+     * Bit mask of the preferred activities (0 when the viewer has no preference).
+     */
+    public static int activityMask(Collection<ActivityType> activityTypes)
+    {
+        int mask = 0;
+        if (activityTypes != null)
+        {
+            for (ActivityType type : activityTypes)
+            {
+                mask |= 1 << type.ordinal();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * The {@code k} best-scoring candidates, best first.
+     *
+     * @param candidates      feeds every candidate (with its distance) to the visitor, e.g. an index scan
+     * @param radiusMeters    search radius; a candidate at the edge gets no distance credit
+     * @param viewerInterests the viewer's interest bitset ({@link InterestDictionary#EMPTY} if unknown)
+     * @param activityMask    from {@link #activityMask}
+     */
+    public List<RankedPickRequest> rank(Consumer<SpatialIndex.HitVisitor> candidates, double radiusMeters,
+                             long[] viewerInterests, int activityMask, int k)
+    {
+        TopK top = new TopK(k);
+        double inverseRadius = radiusMeters > 0 ? 1.0 / radiusMeters : 0;
+        int viewerInterestCount = InterestDictionary.cardinality(viewerInterests);
+        double interestScale = viewerInterestCount > 0 ? interestWeight / viewerInterestCount : 0;
+
+        candidates.accept((summary, distanceMeters) -> {
+            double score = distanceWeight * Math.max(0, 1 - distanceMeters * inverseRadius);
+
+            Integer safetyScore = summary.getSafetyScore();
+            score += safetyWeight * (safetyScore != null ? safetyScore : 50) / 100.0;
+
+            long[] interestBits = summary.getInterestBits();
+            if (interestScale > 0 && interestBits != null)
+            {
+                score += interestScale * InterestDictionary.overlap(viewerInterests, interestBits);
+            }
+
+            ActivityType activityType = summary.getActivityType();
+            if (activityType != null && (activityMask & (1 << activityType.ordinal())) != 0)
+            {
+                score += activityWeight;
+            }
+
+            top.offer(summary, distanceMeters, score);
+        });
+        return top.toSortedList();
+    }
+
+    /**
+     * Bounded min-heap on score: the root is the weakest of the current top {@code k}.
+     */
+    static final class TopK
+    {
+        private final PickRequestSummary[] summaries;
+        private final double[] distances;
+        private final double[] scores;
+        private int size;
+
+        TopK(int k)
+        {
+            summaries = new PickRequestSummary[k];
+            distances = new double[k];
+            scores = new double[k];
+        }
+
+        void offer(PickRequestSummary summary, double distance, double score)
+        {
+            if (size < scores.length)
+            {
+                set(size, summary, distance, score);
+                siftUp(size++);
+            }
+            else if (size > 0 && score > scores[0])
+            {
+                set(0, summary, distance, score);
+                siftDown(0);
+            }
+        }
+
+        /**
+         * Empties the heap, best first.
+         */
+        List<RankedPickRequest> toSortedList()
+        {
+            RankedPickRequest[] sorted = new RankedPickRequest[size];
+            while (size > 0)
+            {
+                sorted[size - 1] = new RankedPickRequest(summaries[0], distances[0], scores[0]);
+                size--;
+                set(0, summaries[size], distances[size], scores[size]);
+                summaries[size] = null;
+                siftDown(0);
+            }
+            return Arrays.asList(sorted);
+        }
+
+        private void siftUp(int index)
+        {
+            while (index > 0)
+            {
+                int parent = (index - 1) >>> 1;
+                if (scores[parent] <= scores[index])
+                {
+                    return;
+                }
+                swap(parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index)
+        {
+            while (true)
+            {
+                int left = 2 * index + 1;
+                if (left >= size)
+                {
+                    return;
+                }
+                int smallest = left + 1 < size && scores[left + 1] < scores[left] ? left + 1 : left;
+                if (scores[index] <= scores[smallest])
+                {
+                    return;
+                }
+                swap(index, smallest);
+                index = smallest;
+            }
+        }
+
+        private void set(int index, PickRequestSummary summary, double distance, double score)
+        {
+            summaries[index] = summary;
+            distances[index] = distance;
+            scores[index] = score;
+        }
+
+        private void swap(int a, int b)
+        {
+            PickRequestSummary summary = summaries[a];
+            double distance = distances[a];
+            double score = scores[a];
+            set(a, summaries[b], distances[b], scores[b]);
+            set(b, summary, distance, score);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.oddo.hackaton.backend.geo;
+
+import com.oddo.hackaton.backend.model.entity.PickRequest;
+import com.oddo.hackaton.backend.model.entity.User;
+import com.oddo.hackaton.backend.model.enums.ActivityType;
+import com.oddo.hackaton.backend.model.projection.NearbyPickRequestView;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable snapshot of an ACTIVE pick request plus its requester card.
+ * This is everything the map needs, so the spatial index never touches JPA entities.
+ */
+@Value
+@Builder(toBuilder = true)
+public class PickRequestSummary
+{
+    Long pickRequestId;
+    Long userId;
+    String userName;
+    Integer userAge;
+    String userBio;
+    String[] interests;
+    long[] interestBits; // interests encoded by InterestDictionary; set when the summary enters the index
+    Integer safetyScore;
+    ActivityType activityType;
+    String subject;
+    Integer durationMinutes;
+    double latitude;
+    double longitude;
+    LocalDateTime createdAt;
+    LocalDateTime expiresAt;
+
+    public boolean isExpired(LocalDateTime now)
+    {
+        return expiresAt != null && now.isAfter(expiresAt);
+    }
+
+    /**
+     * Build a summary from a managed entity (loads the requester if it is still a proxy).
+     */
+    public static PickRequestSummary from(PickRequest pickRequest)
+    {
+        User requester = pickRequest.getUser();
+
+        return PickRequestSummary.builder()
+                .pickRequestId(pickRequest.getId())
+                .userId(requester.getId())
+                .userName(requester.getName())
+                .userAge(requester.getAge())
+                .userBio(requester.getBio())
+                .interests(requester.getInterests())
+                .safetyScore(requester.getSafetyScore())
+                .activityType(pickRequest.getActivityType())
+                .subject(pickRequest.getSubject())
+                .durationMinutes(pickRequest.getDurationMinutes())
+                .latitude(pickRequest.getLatitude())
+                .longitude(pickRequest.getLongitude())
+                .createdAt(pickRequest.getCreatedAt())
+                .expiresAt(pickRequest.getExpiresAt())
+                .build();
+    }
+
+    /**
+     * Build a summary from a nearby projection row.
+     */
+    public static PickRequestSummary from(NearbyPickRequestView view)
+    {
+        return PickRequestSummary.builder()
+                .pickRequestId(view.getPickRequestId())
+                .userId(view.getUserId())
+                .userName(view.getUserName())
+                .userAge(view.getUserAge())
+                .userBio(view.getUserBio())
+                .interests(view.getInterestArray())
+                .safetyScore(view.getSafetyScore())
+                .activityType(ActivityType.valueOf(view.getActivityType()))
+                .subject(view.getSubject())
+                .durationMinutes(view.getDurationMinutes())
+                .latitude(view.getLatitude())
+                .longitude(view.getLongitude())
+                .createdAt(view.getCreatedAt())
+                .expiresAt(view.getExpiresAt())
+                .build();
+    }
+}
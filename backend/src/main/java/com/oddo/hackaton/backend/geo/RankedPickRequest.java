@@ -0,0 +1,14 @@
+package com.oddo.hackaton.backend.geo;
+
+import lombok.Value;
+
+/**
+ * A pick request picked by {@link NearbyRanker}, with the distance and score it was ranked on.
+ */
+@Value
+public class RankedPickRequest
+{
+    PickRequestSummary summary;
+    double distanceMeters;
+    double score;
+}
@@ -0,0 +1,360 @@
+package com.oddo.hackaton.backend.geo;
+
+import com.oddo.hackaton.backend.event.PickRequestEvent;
+import com.oddo.hackaton.backend.event.ReputationChangedEvent;
+import com.oddo.hackaton.backend.event.UserProfileChangedEvent;
+import com.oddo.hackaton.backend.repository.PickRequestRepository;
+import com.oddo.hackaton.backend.util.GeoUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory grid index of ACTIVE pick requests, bucketed by map tile.
+ *
+ * Reads never lock: each tile is a {@link ConcurrentHashMap} and summaries are immutable.
+ * Writes go through {@link ConcurrentHashMap#compute}, which only locks the bin of the
+ * touched tile, so create/cancel/match never wait on a nearby lookup (or on each other
+ * unless they hit the same tile).
+ *
+ * Every add/remove is mirrored into the {@link ClusterIndex} aggregates. Requester interests are
+ * encoded once on insert ({@link InterestDictionary}) so ranking never compares strings.
+ *
+ * The index is filled once from PostgreSQL at startup and then kept current from
+ * committed {@link PickRequestEvent}s. Until the warm-up finishes {@link #isWarm()} is
+ * false and callers should fall back to the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SpatialIndex
+{
+    // ~4.9km tiles at the equator: a 5km radius touches at most 9 tiles
+    static final int INDEX_ZOOM = 13;
+    public static final double INITIAL_KNN_RADIUS_METERS = 1000;
+
+    private final PickRequestRepository pickRequestRepository;
+    private final ClusterIndex clusterIndex;
+    private final InterestDictionary interestDictionary;
+
+    private final Map<Long, Map<Long, PickRequestSummary>> tiles = new ConcurrentHashMap<>();
+    private final Map<Long, PickRequestSummary> byId = new ConcurrentHashMap<>();
+
+    // Ids removed while the warm-up snapshot was loading; they must not be re-added from it
+    private final Set<Long> removedDuringWarmUp = ConcurrentHashMap.newKeySet();
+    private volatile boolean warm = false;
+
+    public boolean isWarm()
+    {
+        return warm;
+    }
+
+    public int size()
+    {
+        return byId.size();
+    }
+
+    public PickRequestSummary get(Long pickRequestId)
+    {
+        return byId.get(pickRequestId);
+    }
+
+    /**
+     * Active, non-expired requests within the radius, closest first.
+     *
+     * @param excludeUserId requester to skip (the caller's own requests), may be null
+     */
+    public List<Hit> findWithin(double latitude, double longitude, double radiusMeters, Long excludeUserId)
+    {
+        List<Hit> hits = new ArrayList<>();
+        forEachWithin(latitude, longitude, radiusMeters, excludeUserId,
+                (summary, distanceMeters) -> hits.add(new Hit(summary, distanceMeters)));
+        hits.sort(Comparator.comparingDouble(Hit::getDistanceMeters));
+        return hits;
+    }
+
+    /**
+     * Visit every active, non-expired request within the radius, in no particular order.
+     * Allocates nothing per candidate, so callers that only keep a few hits (ranking) stay garbage-free.
+     */
+    public void forEachWithin(double latitude, double longitude, double radiusMeters, Long excludeUserId,
+                              HitVisitor visitor)
+    {
+        LocalDateTime now = LocalDateTime.now();
+
+        double dLat = GeoUtils.latDelta(radiusMeters);
+        double dLon = GeoUtils.lonDelta(radiusMeters, latitude);
+        int minX = GeoUtils.tileX(longitude - dLon, INDEX_ZOOM);
+        int maxX = GeoUtils.tileX(longitude + dLon, INDEX_ZOOM);
+        int minY = GeoUtils.tileY(latitude + dLat, INDEX_ZOOM);
+        int maxY = GeoUtils.tileY(latitude - dLat, INDEX_ZOOM);
+
+        long tileCount = (long) (maxX - minX + 1) * (maxY - minY + 1);
+        if (tileCount > byId.size())
+        {
+            // Huge radius on a small index: a straight scan is cheaper than probing empty tiles
+            for (PickRequestSummary summary : byId.values())
+            {
+                visit(summary, latitude, longitude, radiusMeters, excludeUserId, now, visitor);
+            }
+            return;
+        }
+
+        for (int x = minX; x <= maxX; x++)
+        {
+            for (int y = minY; y <= maxY; y++)
+            {
+                Map<Long, PickRequestSummary> tile = tiles.get(GeoUtils.tileKey(INDEX_ZOOM, x, y));
+                if (tile != null)
+                {
+                    for (PickRequestSummary summary : tile.values())
+                    {
+                        visit(summary, latitude, longitude, radiusMeters, excludeUserId, now, visitor);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The {@code k} closest requests, widening the search radius (x4 per step) until
+     * {@code k} are found or {@code maxRadiusMeters} is reached.
+     */
+    public List<Hit> findNearest(double latitude, double longitude, int k, double maxRadiusMeters, Long excludeUserId)
+    {
+        double radius = Math.min(INITIAL_KNN_RADIUS_METERS, maxRadiusMeters);
+        List<Hit> hits = findWithin(latitude, longitude, radius, excludeUserId);
+        while (hits.size() < k && radius < maxRadiusMeters)
+        {
+            radius = Math.min(radius * 4, maxRadiusMeters);
+            hits = findWithin(latitude, longitude, radius, excludeUserId);
+        }
+        return hits.size() > k ? hits.subList(0, k) : hits;
+    }
+
+    /**
+     * Active, non-expired requests inside a bounding box, newest first, capped at {@code limit}.
+     */
+    public List<PickRequestSummary> findInBox(double minLat, double minLon, double maxLat, double maxLon,
+                                              Long excludeUserId, int limit)
+    {
+        LocalDateTime now = LocalDateTime.now();
+        List<PickRequestSummary> found = new ArrayList<>();
+
+        int minX = GeoUtils.tileX(minLon, INDEX_ZOOM);
+        int maxX = GeoUtils.tileX(maxLon, INDEX_ZOOM);
+        int minY = GeoUtils.tileY(maxLat, INDEX_ZOOM);
+        int maxY = GeoUtils.tileY(minLat, INDEX_ZOOM);
+
+        Consumer<PickRequestSummary> collector = summary -> {
+            if (!summary.getUserId().equals(excludeUserId) && !summary.isExpired(now)
+                    && summary.getLatitude() >= minLat && summary.getLatitude() <= maxLat
+                    && summary.getLongitude() >= minLon && summary.getLongitude() <= maxLon)
+            {
+                found.add(summary);
+            }
+        };
+
+        long tileCount = (long) (maxX - minX + 1) * (maxY - minY + 1);
+        if (tileCount > byId.size())
+        {
+            byId.values().forEach(collector);
+        }
+        else
+        {
+            for (int x = minX; x <= maxX; x++)
+            {
+                for (int y = minY; y <= maxY; y++)
+                {
+                    Map<Long, PickRequestSummary> tile = tiles.get(GeoUtils.tileKey(INDEX_ZOOM, x, y));
+                    if (tile != null)
+                    {
+                        tile.values().forEach(collector);
+                    }
+                }
+            }
+        }
+
+        found.sort(Comparator.comparing(PickRequestSummary::getCreatedAt).reversed());
+        return found.size() > limit ? found.subList(0, limit) : found;
+    }
+
+    public void put(PickRequestSummary incoming)
+    {
+        PickRequestSummary summary = interestDictionary.withInterestBits(incoming);
+        // All tile moves for one id happen inside its byId bin, so put/remove of the same request never interleave
+        byId.compute(summary.getPickRequestId(), (id, previous) -> {
+            if (previous != null)
+            {
+                removeFromTile(previous);
+            }
+            addToTile(summary);
+            return summary;
+        });
+    }
+
+    public void remove(Long pickRequestId)
+    {
+        if (!warm)
+        {
+            removedDuringWarmUp.add(pickRequestId);
+        }
+        byId.computeIfPresent(pickRequestId, (id, previous) -> {
+            removeFromTile(previous);
+            return null;
+        });
+    }
+
+    /**
+     * Rewrite the requester card of every indexed request of {@code userId}. The position must not change:
+     * the updated summary replaces the old one in the same tile and the cluster aggregates are untouched.
+     */
+    public void updateRequester(Long userId, UnaryOperator<PickRequestSummary> update)
+    {
+        for (PickRequestSummary summary : byId.values())
+        {
+            if (!summary.getUserId().equals(userId))
+            {
+                continue;
+            }
+            // computeIfPresent: a request removed in the meantime must not come back
+            byId.computeIfPresent(summary.getPickRequestId(), (id, previous) -> {
+                PickRequestSummary updated = update.apply(previous);
+                Map<Long, PickRequestSummary> tile =
+                        tiles.get(GeoUtils.tileKey(previous.getLatitude(), previous.getLongitude(), INDEX_ZOOM));
+                if (tile != null)
+                {
+                    tile.replace(id, updated);
+                }
+                return updated;
+            });
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReputationChanged(ReputationChangedEvent event)
+    {
+        if (event.getSafetyScore() != null)
+        {
+            updateRequester(event.getUserId(), summary -> summary.toBuilder()
+                    .safetyScore(event.getSafetyScore())
+                    .build());
+        }
+    }
+
+    /**
+     * A requester edited their profile: refresh the card on their requests and re-encode the interests.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProfileChanged(UserProfileChangedEvent event)
+    {
+        long[] interestBits = interestDictionary.encode(event.getInterests());
+        updateRequester(event.getUserId(), summary -> summary.toBuilder()
+                .userName(event.getName())
+                .userAge(event.getAge())
+                .userBio(event.getBio())
+                .interests(event.getInterests())
+                .interestBits(interestBits)
+                .build());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPickRequestEvent(PickRequestEvent event)
+    {
+        if (event.isActivation())
+        {
+            put(event.getSummary());
+        }
+        else
+        {
+            remove(event.getPickRequestId());
+        }
+    }
+
+    /**
+     * Cold start: load every ACTIVE request once. Lookups before this completes go to the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp()
+    {
+        long start = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+
+        pickRequestRepository.findAllActiveSummaries().stream()
+                .map(PickRequestSummary::from)
+                .map(interestDictionary::withInterestBits)
+                .filter(summary -> !summary.isExpired(now))
+                .filter(summary -> !removedDuringWarmUp.contains(summary.getPickRequestId()))
+                .forEach(summary -> byId.computeIfAbsent(summary.getPickRequestId(), id -> {
+                    addToTile(summary);
+                    return summary;
+                }));
+
+        warm = true;
+        removedDuringWarmUp.clear();
+        log.info("Spatial index warmed with {} active pick requests in {}ms",
+                byId.size(), System.currentTimeMillis() - start);
+    }
+
+    private static void visit(PickRequestSummary summary, double latitude, double longitude, double radiusMeters,
+                              Long excludeUserId, LocalDateTime now, HitVisitor visitor)
+    {
+        if (summary.getUserId().equals(excludeUserId) || summary.isExpired(now))
+        {
+            return;
+        }
+        double distance = GeoUtils.distanceMeters(latitude, longitude, summary.getLatitude(), summary.getLongitude());
+        if (distance <= radiusMeters)
+        {
+            visitor.visit(summary, distance);
+        }
+    }
+
+    private void addToTile(PickRequestSummary summary)
+    {
+        long key = GeoUtils.tileKey(summary.getLatitude(), summary.getLongitude(), INDEX_ZOOM);
+        tiles.compute(key, (k, tile) -> {
+            Map<Long, PickRequestSummary> target = tile != null ? tile : new ConcurrentHashMap<>();
+            target.put(summary.getPickRequestId(), summary);
+            return target;
+        });
+        clusterIndex.add(summary);
+    }
+
+    private void removeFromTile(PickRequestSummary summary)
+    {
+        long key = GeoUtils.tileKey(summary.getLatitude(), summary.getLongitude(), INDEX_ZOOM);
+        tiles.computeIfPresent(key, (k, tile) -> {
+            tile.remove(summary.getPickRequestId());
+            return tile.isEmpty() ? null : tile;
+        });
+        clusterIndex.remove(summary);
+    }
+
+    @Value
+    public static class Hit
+    {
+        PickRequestSummary summary;
+        double distanceMeters;
+    }
+
+    @FunctionalInterface
+    public interface HitVisitor
+    {
+        void visit(PickRequestSummary summary, double distanceMeters);
+    }
+}
@@ -0,0 +1,75 @@
+package com.oddo.hackaton.backend.geo;
+
+import com.oddo.hackaton.backend.model.entity.AlertSubscription;
+import com.oddo.hackaton.backend.model.projection.AlertSubscriptionView;
+import com.oddo.hackaton.backend.util.GeoUtils;
+import lombok.Value;
+
+/**
+ * In-memory form of an alert subscription. Primitives only, so a node can hold a million of them.
+ */
+@Value
+public class StandingAlert
+{
+    static final int NO_WINDOW = -1;
+
+    long id;
+    long userId;
+    double latitude;
+    double longitude;
+    double radiusMeters;
+    int activityMask;
+    int windowStartMinute;
+    int windowEndMinute;
+
+    /**
+     * Does a request created at {@code minuteOfDay} by someone else satisfy this subscription?
+     * The distance check comes last: it is the only non-trivial one.
+     */
+    boolean matches(PickRequestSummary summary, int minuteOfDay)
+    {
+        if (summary.getUserId() == userId)
+        {
+            return false;
+        }
+        if (activityMask != 0 && (summary.getActivityType() == null
+                || (activityMask & (1 << summary.getActivityType().ordinal())) == 0))
+        {
+            return false;
+        }
+        if (windowStartMinute != NO_WINDOW && !inWindow(minuteOfDay))
+        {
+            return false;
+        }
+        return GeoUtils.distanceMeters(latitude, longitude, summary.getLatitude(), summary.getLongitude())
+                <= radiusMeters;
+    }
+
+    private boolean inWindow(int minuteOfDay)
+    {
+        return windowStartMinute <= windowEndMinute
+                ? minuteOfDay >= windowStartMinute && minuteOfDay < windowEndMinute
+                : minuteOfDay >= windowStartMinute || minuteOfDay < windowEndMinute; // wraps past midnight
+    }
+
+    public static StandingAlert from(AlertSubscription subscription)
+    {
+        return new StandingAlert(subscription.getId(), subscription.getUser().getId(),
+                subscription.getLatitude(), subscription.getLongitude(), subscription.getRadiusMeters(),
+                subscription.getActivityMask(), minuteOrNone(subscription.getWindowStartMinute()),
+                minuteOrNone(subscription.getWindowEndMinute()));
+    }
+
+    public static StandingAlert from(AlertSubscriptionView view)
+    {
+        return new StandingAlert(view.getId(), view.getUserId(),
+                view.getLatitude(), view.getLongitude(), view.getRadiusMeters(),
+                view.getActivityMask(), minuteOrNone(view.getWindowStartMinute()),
+                minuteOrNone(view.getWindowEndMinute()));
+    }
+
+    private static int minuteOrNone(Integer minute)
+    {
+        return minute != null ? minute : NO_WINDOW;
+    }
+}
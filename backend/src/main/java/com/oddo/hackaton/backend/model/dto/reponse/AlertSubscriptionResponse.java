@@ -0,0 +1,24 @@
+package com.oddo.hackaton.backend.model.dto.reponse;
+
+import com.oddo.hackaton.backend.model.enums.ActivityType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertSubscriptionResponse {
+    private Long subscriptionId;
+    private Double latitude;
+    private Double longitude;
+    private Integer radiusMeters;
+    private List<ActivityType> activityTypes; // Empty = any activity
+    private String windowStart;               // "HH:mm", null = all day
+    private String windowEnd;
+    private String createdAt;
+}
@@ -0,0 +1,19 @@
+package com.oddo.hackaton.backend.model.dto.reponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatMessageResponse {
+    private Long messageId;
+    private Long matchId;
+    private Long senderId;
+    private String content;
+    private String clientId; // Only on live delivery, null in history
+    private String createdAt;
+}
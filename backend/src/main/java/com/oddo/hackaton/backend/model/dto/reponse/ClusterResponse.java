@@ -0,0 +1,21 @@
+package com.oddo.hackaton.backend.model.dto.reponse;
+
+import com.oddo.hackaton.backend.model.enums.ActivityType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterResponse {
+    private String cellId; // "zoom/x/y" map tile
+    private Integer count;
+    private Double latitude; // Centroid of the requests in the cell
+    private Double longitude;
+    private Map<ActivityType, Integer> activityCounts;
+}
@@ -0,0 +1,21 @@
+package com.oddo.hackaton.backend.model.dto.reponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationSummaryResponse {
+    private Long matchId;
+    private Long otherUserId;
+    private String otherUserName;
+    private int unreadCount;
+    private Long lastMessageId;      // null until someone writes
+    private Long lastMessageSenderId;
+    private String lastMessagePreview;
+    private String lastMessageAt;
+}
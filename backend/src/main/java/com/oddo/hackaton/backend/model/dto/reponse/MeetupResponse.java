@@ -0,0 +1,23 @@
+package com.oddo.hackaton.backend.model.dto.reponse;
+
+import com.oddo.hackaton.backend.model.enums.MeetupStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MeetupResponse {
+    private Long meetupId;
+    private Long matchId;
+    private MeetupStatus status;
+    private boolean pickerConfirmedStart;
+    private boolean requesterConfirmedStart;
+    private boolean pickerConfirmedEnd;
+    private boolean requesterConfirmedEnd;
+    private String startedAt;
+    private String endedAt;
+}
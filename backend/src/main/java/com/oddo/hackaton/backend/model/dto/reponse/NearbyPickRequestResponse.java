@@ -24,5 +24,6 @@ public class NearbyPickRequestResponse {
     private Double latitude;
     private Double longitude;
     private Double distanceMeters; // Distance from picker
+    private Double score;          // Relevance, only set by the ranked endpoint
     private String createdAt;
 }
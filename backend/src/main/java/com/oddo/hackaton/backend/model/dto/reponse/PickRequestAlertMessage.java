@@ -0,0 +1,18 @@
+package com.oddo.hackaton.backend.model.dto.reponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pushed to {@code /user/queue/alerts} when a new pick request matches one of the user's alerts.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PickRequestAlertMessage {
+    private Long subscriptionId;
+    private NearbyPickRequestResponse pickRequest; // distanceMeters = distance from the alert's center
+}
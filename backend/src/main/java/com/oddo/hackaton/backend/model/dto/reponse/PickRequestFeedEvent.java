@@ -0,0 +1,19 @@
+package com.oddo.hackaton.backend.model.dto.reponse;
+
+import com.oddo.hackaton.backend.event.PickRequestEvent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PickRequestFeedEvent {
+    private PickRequestEvent.Type type;
+    private Long pickRequestId;
+    private Double latitude;
+    private Double longitude;
+    private NearbyPickRequestResponse pickRequest; // Only for CREATED / REACTIVATED
+}
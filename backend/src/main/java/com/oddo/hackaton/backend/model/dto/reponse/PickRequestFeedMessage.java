@@ -0,0 +1,18 @@
+package com.oddo.hackaton.backend.model.dto.reponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PickRequestFeedMessage {
+    private String cellId; // "zoom/x/y" map tile
+    private Boolean resync; // Too many changes were coalesced away: refetch this cell over REST
+    private List<PickRequestFeedEvent> events; // Latest event per pick request, in arrival order
+}
@@ -0,0 +1,19 @@
+package com.oddo.hackaton.backend.model.dto.reponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuickMatchStatusResponse {
+    private boolean waiting;           // false once matched, expired or left
+    private Double latitude;
+    private Double longitude;
+    private Double maxDistanceMeters;
+    private String joinedAt;
+    private String expiresAt;
+}
@@ -0,0 +1,22 @@
+package com.oddo.hackaton.backend.model.dto.reponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReputationResponse {
+    private Long userId;
+    private Double averageRating;        // null until the first review
+    private Integer reviewCount;
+    private Double wouldMeetAgainRatio;  // null until someone answers
+    private Integer safetyScore;
+    private Integer completedMeetups;
+    private Map<String, Integer> badges; // badge -> times given, most frequent first
+}
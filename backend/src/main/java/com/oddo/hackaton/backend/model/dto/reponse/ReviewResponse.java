@@ -0,0 +1,23 @@
+package com.oddo.hackaton.backend.model.dto.reponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewResponse {
+    private Long reviewId;
+    private Long meetupId;
+    private Long reviewedUserId;
+    private Integer rating;
+    private List<String> badges;
+    private Boolean wouldMeetAgain;
+    private String comment;
+    private String createdAt;
+}
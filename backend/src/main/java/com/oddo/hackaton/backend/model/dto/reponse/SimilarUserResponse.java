@@ -0,0 +1,22 @@
+package com.oddo.hackaton.backend.model.dto.reponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimilarUserResponse {
+    private Long userId;
+    private String name;
+    private Integer age;
+    private String bio;
+    private String[] interests;
+    private Integer safetyScore;
+    private Double similarity;      // Estimated share of interests in common, 0..1
+    private Long pickRequestId;     // Closest ACTIVE request nearby, only when filtering by location
+    private Double distanceMeters;
+}
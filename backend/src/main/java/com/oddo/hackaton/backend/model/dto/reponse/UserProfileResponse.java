@@ -0,0 +1,20 @@
+package com.oddo.hackaton.backend.model.dto.reponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProfileResponse {
+    private Long userId;
+    private String email;
+    private String name;
+    private Integer age;
+    private String bio;
+    private String[] interests;
+    private Integer safetyScore;
+}
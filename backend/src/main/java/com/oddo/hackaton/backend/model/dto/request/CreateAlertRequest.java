@@ -0,0 +1,41 @@
+package com.oddo.hackaton.backend.model.dto.request;
+
+import com.oddo.hackaton.backend.model.enums.ActivityType;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateAlertRequest
+{
+    @NotNull(message = "Latitude is required")
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+
+    @NotNull(message = "Longitude is required")
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+
+    @NotNull(message = "Radius is required")
+    @Min(value = 100, message = "Radius must be between 100 and 10000 meters")
+    @Max(value = 10000, message = "Radius must be between 100 and 10000 meters")
+    private Integer radiusMeters;
+
+    private List<ActivityType> activityTypes; // Empty or missing = any activity
+
+    // Optional, both or neither ("08:00" - "18:00"); may wrap past midnight
+    private LocalTime windowStart;
+    private LocalTime windowEnd;
+}
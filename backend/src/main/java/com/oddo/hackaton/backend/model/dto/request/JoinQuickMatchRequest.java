@@ -0,0 +1,35 @@
+package com.oddo.hackaton.backend.model.dto.request;
+
+import com.oddo.hackaton.backend.model.enums.ActivityType;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JoinQuickMatchRequest
+{
+    @NotNull(message = "Latitude is required")
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+
+    @NotNull(message = "Longitude is required")
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+
+    @Min(value = 100, message = "Max distance must be between 100 and 5000 meters")
+    @Max(value = 5000, message = "Max distance must be between 100 and 5000 meters")
+    private Integer maxDistanceMeters; // Default 2000
+
+    private List<ActivityType> activityTypes; // Preferred, not required
+}
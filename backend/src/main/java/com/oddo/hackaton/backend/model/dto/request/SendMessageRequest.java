@@ -0,0 +1,20 @@
+package com.oddo.hackaton.backend.model.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SendMessageRequest
+{
+    @NotBlank(message = "Message content is required")
+    @Size(max = 2000, message = "Message is too long (max 2000 characters)")
+    private String content;
+
+    @Size(max = 64)
+    private String clientId; // Echoed back so the sender can match its optimistic bubble
+}
@@ -0,0 +1,30 @@
+package com.oddo.hackaton.backend.model.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmitReviewRequest
+{
+    @NotNull(message = "Rating is required")
+    @Min(value = 1, message = "Rating must be between 1 and 5")
+    @Max(value = 5, message = "Rating must be between 1 and 5")
+    private Integer rating;
+
+    @Size(max = 10, message = "At most 10 badges")
+    private List<@Size(max = 50, message = "Badge is too long (max 50 characters)") String> badges;
+
+    private Boolean wouldMeetAgain; // Optional: null means "no answer"
+
+    @Size(max = 1000, message = "Comment is too long (max 1000 characters)")
+    private String comment;
+}
@@ -0,0 +1,30 @@
+package com.oddo.hackaton.backend.model.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Profile edit. Every field is optional: null keeps the current value, an empty interest list clears it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateProfileRequest
+{
+    @Size(min = 2, max = 100, message = "Name must be between 2 and 100 characters")
+    private String name;
+
+    @Min(value = 18, message = "Age must be between 18 and 120")
+    @Max(value = 120, message = "Age must be between 18 and 120")
+    private Integer age;
+
+    @Size(max = 500, message = "Bio must be at most 500 characters")
+    private String bio;
+
+    @Size(max = 20, message = "At most 20 interests")
+    private String[] interests;
+}
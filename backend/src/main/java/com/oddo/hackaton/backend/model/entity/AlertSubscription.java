@@ -0,0 +1,56 @@
+package com.oddo.hackaton.backend.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A saved search: "tell me when a matching pick request appears within radius of this point".
+ * Evaluated in memory by AlertIndex whenever a request is created; this table is only the durable copy.
+ */
+@Entity
+@Table(name = "alert_subscriptions", indexes = {
+        @Index(name = "idx_alert_subscription_user", columnList = "user_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlertSubscription {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false)
+    private Double latitude;
+
+    @Column(nullable = false)
+    private Double longitude;
+
+    @Column(name = "radius_meters", nullable = false)
+    private Integer radiusMeters;
+
+    // Bit i set = ActivityType.values()[i] wanted; 0 = any activity
+    @Column(name = "activity_mask", nullable = false)
+    @Builder.Default
+    private Integer activityMask = 0;
+
+    // Optional time-of-day window in minutes since midnight (server time); may wrap past midnight
+    @Column(name = "window_start_minute")
+    private Integer windowStartMinute;
+
+    @Column(name = "window_end_minute")
+    private Integer windowEndMinute;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -13,8 +13,9 @@ import java.time.LocalDateTime;
                 @UniqueConstraint(columnNames = {"pick_request_id", "picker_user_id"})
         },
         indexes = {
-                @Index(name = "idx_match_picker", columnList = "picker_user_id"),
-                @Index(name = "idx_match_requester", columnList = "requester_user_id"),
+                // (user, id) so an inbox page is a backward range scan from the cursor
+                @Index(name = "idx_match_picker_id", columnList = "picker_user_id, id"),
+                @Index(name = "idx_match_requester_id", columnList = "requester_user_id, id"),
                 @Index(name = "idx_match_status", columnList = "status")
         }
 )
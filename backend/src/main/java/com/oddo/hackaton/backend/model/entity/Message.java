@@ -9,6 +9,7 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "messages", indexes = {
         @Index(name = "idx_message_match", columnList = "match_id"),
+        @Index(name = "idx_message_match_id", columnList = "match_id, id"),
         @Index(name = "idx_message_created", columnList = "created_at")
 })
 @Getter
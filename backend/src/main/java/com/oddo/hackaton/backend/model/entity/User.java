@@ -47,11 +47,59 @@ public class User
     @Builder.Default
     private Integer completedMeetups = 0;
 
+    // Running review aggregates, updated in the same transaction as each review insert
+    @Column(name = "rating_sum", nullable = false, columnDefinition = "integer default 0")
+    @Builder.Default
+    private Integer ratingSum = 0;
+
+    @Column(name = "rating_count", nullable = false, columnDefinition = "integer default 0")
+    @Builder.Default
+    private Integer ratingCount = 0;
+
+    @Column(name = "would_meet_again_yes", nullable = false, columnDefinition = "integer default 0")
+    @Builder.Default
+    private Integer wouldMeetAgainYes = 0;
+
+    @Column(name = "would_meet_again_answers", nullable = false, columnDefinition = "integer default 0")
+    @Builder.Default
+    private Integer wouldMeetAgainAnswers = 0;
+
     @Column(name = "is_verified")
     @Builder.Default
     private Boolean isVerified = false;
 
+    // Bumped on password change; JWTs carrying an older version are rejected
+    @Column(name = "token_version", nullable = false, columnDefinition = "integer default 0")
+    @Builder.Default
+    private Integer tokenVersion = 0;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
+
+    // @Builder.Default does not cover new User(); never insert nulls into the NOT NULL counters
+    @PrePersist
+    void applyDefaults()
+    {
+        if (tokenVersion == null)
+        {
+            tokenVersion = 0;
+        }
+        if (ratingSum == null)
+        {
+            ratingSum = 0;
+        }
+        if (ratingCount == null)
+        {
+            ratingCount = 0;
+        }
+        if (wouldMeetAgainYes == null)
+        {
+            wouldMeetAgainYes = 0;
+        }
+        if (wouldMeetAgainAnswers == null)
+        {
+            wouldMeetAgainAnswers = 0;
+        }
+    }
 }
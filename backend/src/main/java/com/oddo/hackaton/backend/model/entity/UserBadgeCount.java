@@ -0,0 +1,41 @@
+package com.oddo.hackaton.backend.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * How many reviews gave a user a badge ("Friendly", "Punctual", ...). One row per (user, badge),
+ * incremented with an upsert whenever a review is submitted.
+ */
+@Entity
+@Table(name = "user_badge_counts")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserBadgeCount
+{
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false)
+    private Integer count;
+
+    @Embeddable
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable
+    {
+        @Column(name = "user_id")
+        private Long userId;
+
+        @Column(name = "badge", length = 50)
+        private String badge;
+    }
+}
@@ -0,0 +1,44 @@
+package com.oddo.hackaton.backend.model.mapper;
+
+import com.oddo.hackaton.backend.geo.PickRequestSummary;
+import com.oddo.hackaton.backend.geo.RankedPickRequest;
+import com.oddo.hackaton.backend.model.dto.reponse.NearbyPickRequestResponse;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Summary to DTO conversion shared by the REST endpoints and the realtime feed.
+ */
+public final class PickRequestMapper
+{
+    private PickRequestMapper() { }
+
+    public static NearbyPickRequestResponse toNearbyResponse(PickRequestSummary summary, Double distance)
+    {
+        DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+        return NearbyPickRequestResponse.builder()
+                .pickRequestId(summary.getPickRequestId())
+                .userId(summary.getUserId())
+                .userName(summary.getUserName())
+                .userAge(summary.getUserAge())
+                .userBio(summary.getUserBio())
+                .interests(summary.getInterests())
+                .safetyScore(summary.getSafetyScore())
+                .activityType(summary.getActivityType())
+                .subject(summary.getSubject())
+                .durationMinutes(summary.getDurationMinutes())
+                .latitude(summary.getLatitude())
+                .longitude(summary.getLongitude())
+                .distanceMeters(distance)
+                .createdAt(summary.getCreatedAt().format(formatter))
+                .build();
+    }
+
+    public static NearbyPickRequestResponse toNearbyResponse(RankedPickRequest ranked)
+    {
+        NearbyPickRequestResponse response = toNearbyResponse(ranked.getSummary(), ranked.getDistanceMeters());
+        response.setScore(ranked.getScore());
+        return response;
+    }
+}
@@ -0,0 +1,16 @@
+package com.oddo.hackaton.backend.model.projection;
+
+/**
+ * The columns of an alert subscription that the in-memory AlertIndex needs.
+ */
+public interface AlertSubscriptionView
+{
+    Long getId();
+    Long getUserId();
+    Double getLatitude();
+    Double getLongitude();
+    Integer getRadiusMeters();
+    Integer getActivityMask();
+    Integer getWindowStartMinute();
+    Integer getWindowEndMinute();
+}
@@ -0,0 +1,15 @@
+package com.oddo.hackaton.backend.model.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * One persisted chat message, as returned by the keyset history query in MessageRepository.
+ */
+public interface ChatMessageView
+{
+    Long getMessageId();
+    Long getMatchId();
+    Long getSenderId();
+    String getContent();
+    LocalDateTime getCreatedAt();
+}
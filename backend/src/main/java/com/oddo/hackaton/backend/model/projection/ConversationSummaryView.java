@@ -0,0 +1,22 @@
+package com.oddo.hackaton.backend.model.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Database truth for one conversation (an ACCEPTED or COMPLETED match): participants, last message
+ * and unread count per side. Only read by the periodic reconcile, never per request.
+ */
+public interface ConversationSummaryView
+{
+    Long getMatchId();
+    Long getPickerId();
+    String getPickerName();
+    Long getRequesterId();
+    String getRequesterName();
+    Long getLastMessageId();
+    Long getLastSenderId();
+    String getLastPreview();
+    LocalDateTime getLastMessageAt();
+    Long getPickerUnread();
+    Long getRequesterUnread();
+}
@@ -0,0 +1,11 @@
+package com.oddo.hackaton.backend.model.projection;
+
+/**
+ * Row returned by the expiry sweep's UPDATE ... RETURNING.
+ */
+public interface ExpiredPickRequestView
+{
+    Long getId();
+    Double getLatitude();
+    Double getLongitude();
+}
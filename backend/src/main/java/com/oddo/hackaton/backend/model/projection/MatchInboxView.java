@@ -0,0 +1,20 @@
+package com.oddo.hackaton.backend.model.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of a user's match inbox with both participants' names already joined,
+ * as returned by MatchRepository.findInboxPage (a whole page in one query, no entity loading).
+ */
+public interface MatchInboxView
+{
+    Long getMatchId();
+    Long getPickRequestId();
+    Long getPickerId();
+    String getPickerName();
+    Long getRequesterId();
+    String getRequesterName();
+    String getStatus();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getApprovedAt();
+}
@@ -0,0 +1,14 @@
+package com.oddo.hackaton.backend.model.projection;
+
+import com.oddo.hackaton.backend.model.enums.MatchStatus;
+
+/**
+ * Who is in a match and where it stands; all a conversation needs to authorize a message.
+ */
+public interface MatchParticipantsView
+{
+    Long getMatchId();
+    Long getPickerId();
+    Long getRequesterId();
+    MatchStatus getStatus();
+}
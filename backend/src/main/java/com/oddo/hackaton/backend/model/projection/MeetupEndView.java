@@ -0,0 +1,19 @@
+package com.oddo.hackaton.backend.model.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * {@link MeetupStateView} plus what the completion cascade of MeetupRepository.confirmEnd changed.
+ * The extra columns are null unless this statement moved the meetup to COMPLETED.
+ */
+public interface MeetupEndView extends MeetupStateView
+{
+    Long getCompletedMatchId();
+    LocalDateTime getMatchCreatedAt();
+    LocalDateTime getMatchApprovedAt();
+    String getPickerName();
+    String getRequesterName();
+    Long getCompletedPickRequestId();
+    Double getPickRequestLatitude();
+    Double getPickRequestLongitude();
+}
@@ -0,0 +1,23 @@
+package com.oddo.hackaton.backend.model.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * A meetup row with its match's participants and planned duration, as returned (or RETURNING'd)
+ * by the meetup state queries in MeetupRepository.
+ */
+public interface MeetupStateView
+{
+    Long getMeetupId();
+    Long getMatchId();
+    String getStatus();
+    Long getPickerId();
+    Long getRequesterId();
+    Boolean getPickerConfirmedStart();
+    Boolean getRequesterConfirmedStart();
+    Boolean getPickerConfirmedEnd();
+    Boolean getRequesterConfirmedEnd();
+    LocalDateTime getStartedAt();
+    LocalDateTime getEndedAt();
+    Integer getDurationMinutes();
+}
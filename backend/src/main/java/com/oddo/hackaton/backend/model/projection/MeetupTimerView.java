@@ -0,0 +1,15 @@
+package com.oddo.hackaton.backend.model.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * What the meetup timers need about an IN_PROGRESS meetup, without loading the entity graph.
+ */
+public interface MeetupTimerView
+{
+    Long getMeetupId();
+    LocalDateTime getStartedAt();
+    Integer getDurationMinutes();
+    Long getPickerId();
+    Long getRequesterId();
+}
@@ -0,0 +1,39 @@
+package com.oddo.hackaton.backend.model.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat row of a pick request joined with its requester's card, as returned by the
+ * native nearby/viewport queries in PickRequestRepository (one round trip, no entity loading).
+ */
+public interface NearbyPickRequestView
+{
+    // Separator used by array_to_string() for the TEXT[] interests column
+    String INTEREST_SEPARATOR = "\u001F";
+
+    Long getPickRequestId();
+    Long getUserId();
+    String getUserName();
+    Integer getUserAge();
+    String getUserBio();
+    String getInterests();
+    Integer getSafetyScore();
+    String getActivityType();
+    String getSubject();
+    Integer getDurationMinutes();
+    Double getLatitude();
+    Double getLongitude();
+    Double getDistanceMeters();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getExpiresAt();
+
+    default String[] getInterestArray()
+    {
+        String interests = getInterests();
+        if (interests == null)
+        {
+            return null;
+        }
+        return interests.isEmpty() ? new String[0] : interests.split(INTEREST_SEPARATOR, -1);
+    }
+}
@@ -0,0 +1,15 @@
+package com.oddo.hackaton.backend.model.projection;
+
+/**
+ * A user's running review aggregates, read straight from the users row.
+ */
+public interface ReputationView
+{
+    Long getUserId();
+    Integer getRatingSum();
+    Integer getRatingCount();
+    Integer getWouldMeetAgainYes();
+    Integer getWouldMeetAgainAnswers();
+    Integer getSafetyScore();
+    Integer getCompletedMeetups();
+}
@@ -0,0 +1,22 @@
+package com.oddo.hackaton.backend.model.projection;
+
+/**
+ * A user id with their interests, as streamed by UserRepository.findInterestsChunk.
+ */
+public interface UserInterestsView
+{
+    Long getId();
+    String getInterests(); // array_to_string() with NearbyPickRequestView.INTEREST_SEPARATOR
+
+    default String[] getInterestArray()
+    {
+        String interests = getInterests();
+        if (interests == null)
+        {
+            return null;
+        }
+        return interests.isEmpty()
+                ? new String[0]
+                : interests.split(NearbyPickRequestView.INTEREST_SEPARATOR, -1);
+    }
+}
@@ -0,0 +1,76 @@
+package com.oddo.hackaton.backend.quickmatch;
+
+import com.oddo.hackaton.backend.geo.NearbyRanker;
+import com.oddo.hackaton.backend.geo.RankedPickRequest;
+import com.oddo.hackaton.backend.geo.SpatialIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Pairs waiting pickers with ACTIVE pick requests.
+ *
+ * 1. Shortlist: for every picker, the {@code shortlistSize} best requests within their max distance,
+ *    scored by {@link NearbyRanker} (closeness, safety, shared interests, preferred activity). Pickers
+ *    are independent, so this runs in parallel; it is the expensive part.
+ * 2. Greedy: all shortlisted (picker, request) edges sorted by score, best first; an edge is taken
+ *    when neither side is taken yet.
+ *
+ * Greedy on a sorted edge list is within a factor of two of the optimal total score, and in practice
+ * much closer; an exact assignment (Hungarian, O(n^3)) would not fit a 10k x 10k round.
+ */
+@Component
+@RequiredArgsConstructor
+public class GreedyMatcher
+{
+    private final SpatialIndex spatialIndex;
+    private final NearbyRanker nearbyRanker;
+
+    public List<QuickMatchAssignment> match(List<QuickMatchEntry> pickers, int shortlistSize)
+    {
+        RankedPickRequest[][] shortlists = new RankedPickRequest[pickers.size()][];
+        IntStream.range(0, pickers.size()).parallel().forEach(i -> {
+            QuickMatchEntry picker = pickers.get(i);
+            shortlists[i] = nearbyRanker.rank(
+                    visitor -> spatialIndex.forEachWithin(picker.getLatitude(), picker.getLongitude(),
+                            picker.getMaxDistanceMeters(), picker.getUserId(), (summary, distanceMeters) -> {
+                                if (!picker.isExcluded(summary.getPickRequestId()))
+                                {
+                                    visitor.visit(summary, distanceMeters);
+                                }
+                            }),
+                    picker.getMaxDistanceMeters(), picker.getInterestBits(), picker.getActivityMask(), shortlistSize)
+                    .toArray(new RankedPickRequest[0]);
+        });
+
+        List<QuickMatchAssignment> edges = new ArrayList<>();
+        for (int i = 0; i < shortlists.length; i++)
+        {
+            for (RankedPickRequest request : shortlists[i])
+            {
+                edges.add(new QuickMatchAssignment(pickers.get(i), request));
+            }
+        }
+        edges.sort(Comparator.comparingDouble((QuickMatchAssignment edge) -> edge.getRequest().getScore()).reversed());
+
+        Set<Long> pickerTaken = new HashSet<>();
+        Set<Long> requestTaken = new HashSet<>();
+        List<QuickMatchAssignment> assignments = new ArrayList<>();
+        for (QuickMatchAssignment edge : edges)
+        {
+            if (!pickerTaken.contains(edge.getPicker().getUserId())
+                    && requestTaken.add(edge.getRequest().getSummary().getPickRequestId()))
+            {
+                pickerTaken.add(edge.getPicker().getUserId());
+                assignments.add(edge);
+            }
+        }
+        return assignments;
+    }
+}
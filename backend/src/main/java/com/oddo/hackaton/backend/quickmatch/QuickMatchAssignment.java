@@ -0,0 +1,14 @@
+package com.oddo.hackaton.backend.quickmatch;
+
+import com.oddo.hackaton.backend.geo.RankedPickRequest;
+import lombok.Value;
+
+/**
+ * One (picker, pick request) pair chosen by {@link GreedyMatcher}.
+ */
+@Value
+public class QuickMatchAssignment
+{
+    QuickMatchEntry picker;
+    RankedPickRequest request;
+}
@@ -0,0 +1,45 @@
+package com.oddo.hackaton.backend.quickmatch;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A picker waiting in the quick-match pool. Immutable apart from the requests that already failed
+ * for this picker (taken by someone else in the same round, declined before), which later rounds skip.
+ */
+@Getter
+@RequiredArgsConstructor
+public class QuickMatchEntry
+{
+    private final Long userId;
+    private final double latitude;
+    private final double longitude;
+    private final double maxDistanceMeters;
+    private final int activityMask;
+    private final long[] interestBits;
+    private final LocalDateTime joinedAt;
+    private final LocalDateTime expiresAt;
+
+    @Getter(AccessLevel.NONE)
+    private final Set<Long> excludedRequests = ConcurrentHashMap.newKeySet();
+
+    public boolean isExpired(LocalDateTime now)
+    {
+        return now.isAfter(expiresAt);
+    }
+
+    public boolean isExcluded(Long pickRequestId)
+    {
+        return excludedRequests.contains(pickRequestId);
+    }
+
+    public void exclude(Long pickRequestId)
+    {
+        excludedRequests.add(pickRequestId);
+    }
+}
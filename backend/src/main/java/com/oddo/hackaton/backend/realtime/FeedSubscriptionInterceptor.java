@@ -0,0 +1,77 @@
+package com.oddo.hackaton.backend.realtime;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Guards pick request feed subscriptions: only valid {@code zoom/x/y} cells at the feed zoom,
+ * and at most {@link #MAX_CELLS_PER_SESSION} cells per session (a full phone screen needs ~6-12).
+ */
+@Component
+public class FeedSubscriptionInterceptor implements ChannelInterceptor
+{
+    static final int MAX_CELLS_PER_SESSION = 64;
+
+    private static final Pattern CELL_DESTINATION = Pattern.compile(
+            Pattern.quote(PickRequestFeedPublisher.TOPIC_PREFIX + PickRequestFeedPublisher.FEED_ZOOM) + "/\\d+/\\d+");
+
+    // sessionId -> feed subscription ids
+    private final Map<String, Set<String>> feedSubscriptions = new ConcurrentHashMap<>();
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel)
+    {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null || accessor.getSessionId() == null)
+        {
+            return message;
+        }
+
+        String sessionId = accessor.getSessionId();
+        StompCommand command = accessor.getCommand();
+
+        if (StompCommand.SUBSCRIBE.equals(command) && isFeedDestination(accessor.getDestination()))
+        {
+            if (!CELL_DESTINATION.matcher(accessor.getDestination()).matches())
+            {
+                throw new MessageDeliveryException("Invalid feed cell: " + accessor.getDestination());
+            }
+            Set<String> subscriptions =
+                    feedSubscriptions.computeIfAbsent(sessionId, id -> ConcurrentHashMap.newKeySet());
+            if (subscriptions.size() >= MAX_CELLS_PER_SESSION)
+            {
+                throw new MessageDeliveryException("Too many feed cells (max " + MAX_CELLS_PER_SESSION + ")");
+            }
+            subscriptions.add(accessor.getSubscriptionId());
+        }
+        else if (StompCommand.UNSUBSCRIBE.equals(command))
+        {
+            Set<String> subscriptions = feedSubscriptions.get(sessionId);
+            if (subscriptions != null)
+            {
+                subscriptions.remove(accessor.getSubscriptionId());
+            }
+        }
+        else if (StompCommand.DISCONNECT.equals(command))
+        {
+            feedSubscriptions.remove(sessionId);
+        }
+        return message;
+    }
+
+    private static boolean isFeedDestination(String destination)
+    {
+        return destination != null && destination.startsWith(PickRequestFeedPublisher.TOPIC_PREFIX);
+    }
+}
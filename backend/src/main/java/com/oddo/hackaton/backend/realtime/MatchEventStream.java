@@ -0,0 +1,309 @@
+package com.oddo.hackaton.backend.realtime;
+
+import com.oddo.hackaton.backend.event.MatchEvent;
+import com.oddo.hackaton.backend.model.dto.reponse.MatchResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Server-Sent Events fan-out of committed {@link MatchEvent}s to the picker and the requester.
+ *
+ * An idle stream is just an async {@link SseEmitter} parked in a map: no request thread is held,
+ * so a node can keep tens of thousands open. Sends run on virtual threads after commit, so a slow
+ * client never blocks the transaction that produced the event.
+ *
+ * Every event gets an increasing id and is kept in a fixed-size ring. Ids are numbered, stored in the
+ * ring and queued to the open streams under one short lock, so every stream receives them in id order.
+ * Each stream writes through its own serial queue (one drain task at a time), so frames never overtake
+ * each other. A client reconnecting with {@code Last-Event-ID} is attached under the same lock, and
+ * the replay of what it missed is the first task on its queue: live events follow it with no gap and
+ * no duplicate. If the id is older than the ring, or not from this node's current run (a restart or
+ * another node), the client gets a single {@code resync} event and should reload {@code /api/matches/my}.
+ */
+@Slf4j
+@Component
+public class MatchEventStream
+{
+    static final int REPLAY_CAPACITY = 8192;
+    private static final long STREAM_TIMEOUT_MS = 30 * 60 * 1000L;
+    // A stream this far behind is closed; the client reconnects and replays (or resyncs)
+    private static final int MAX_PENDING_FRAMES = 1024;
+
+    private final Map<Long, List<StreamEmitter>> emitters = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<Entry> replay = new AtomicReferenceArray<>(REPLAY_CAPACITY);
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+    private final ReentrantLock publishLock = new ReentrantLock();
+
+    // Ids start at the boot time (in microseconds), so ids from before a restart fall below firstId
+    private final long firstId = System.currentTimeMillis() * 1000;
+    private volatile long lastId = firstId;
+
+    /**
+     * Open a stream for the user, replaying everything after {@code lastEventId} if given.
+     */
+    public SseEmitter open(Long userId, Long lastEventId)
+    {
+        StreamEmitter emitter = new StreamEmitter(STREAM_TIMEOUT_MS, sender);
+
+        publishLock.lock();
+        try
+        {
+            emitters.compute(userId, (id, userEmitters) -> {
+                List<StreamEmitter> target = userEmitters != null ? userEmitters : new CopyOnWriteArrayList<>();
+                target.add(emitter);
+                return target;
+            });
+            if (lastEventId != null)
+            {
+                // Everything after `latest` reaches this stream live, queued behind the replay
+                long latest = lastId;
+                emitter.submit(() -> replay(userId, lastEventId, latest, emitter));
+            }
+        }
+        finally
+        {
+            publishLock.unlock();
+        }
+
+        Runnable cleanup = () -> detach(userId, emitter);
+        emitter.onCompletion(cleanup);
+        emitter.onTimeout(cleanup);
+        emitter.onError(error -> cleanup.run());
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMatchEvent(MatchEvent event)
+    {
+        publishLock.lock();
+        try
+        {
+            long id = lastId + 1;
+            // The slot is written before the id becomes visible, so a replay never reads a stale slot
+            replay.set((int) (id % REPLAY_CAPACITY), new Entry(id, event));
+            lastId = id;
+
+            for (Long recipientId : event.getRecipientIds())
+            {
+                List<StreamEmitter> userEmitters = emitters.get(recipientId);
+                if (userEmitters != null)
+                {
+                    userEmitters.forEach(emitter -> deliver(recipientId, emitter, id, event.getMatch()));
+                }
+            }
+        }
+        finally
+        {
+            publishLock.unlock();
+        }
+    }
+
+    /**
+     * Keeps proxies and mobile networks from closing idle streams, and flushes out dead ones.
+     */
+    @Scheduled(fixedRate = 25_000)
+    public void heartbeat()
+    {
+        emitters.forEach((userId, userEmitters) -> userEmitters.forEach(emitter -> emitter.submit(() -> {
+            try
+            {
+                emitter.send(SseEmitter.event().comment("ping"));
+            }
+            catch (IOException | IllegalStateException e)
+            {
+                detach(userId, emitter);
+            }
+        })));
+    }
+
+    public int connectionCount()
+    {
+        return emitters.values().stream().mapToInt(List::size).sum();
+    }
+
+    @PreDestroy
+    void shutdown()
+    {
+        sender.shutdown();
+        emitters.values().forEach(userEmitters -> userEmitters.forEach(SseEmitter::complete));
+        emitters.clear();
+    }
+
+    private void deliver(Long userId, StreamEmitter emitter, long id, MatchResponse match)
+    {
+        if (emitter.pending() >= MAX_PENDING_FRAMES)
+        {
+            log.debug("Match stream of user {} is {} frames behind; closing it", userId, emitter.pending());
+            detach(userId, emitter);
+            emitter.close();
+            return;
+        }
+        emitter.submit(() -> send(userId, emitter, id, match));
+    }
+
+    /**
+     * Runs on the stream's serial queue, before any live event newer than {@code latest}.
+     */
+    private void replay(Long userId, long lastEventId, long latest, StreamEmitter emitter)
+    {
+        if (lastEventId < firstId || lastEventId > latest || latest - lastEventId >= REPLAY_CAPACITY)
+        {
+            // From another run or node, or older than the ring: we cannot tell what was missed
+            sendResync(userId, emitter, latest);
+            return;
+        }
+
+        for (long id = lastEventId + 1; id <= latest; id++)
+        {
+            Entry entry = replay.get((int) (id % REPLAY_CAPACITY));
+            if (entry == null || entry.id != id)
+            {
+                // Overwritten by newer events while we were replaying
+                sendResync(userId, emitter, latest);
+                return;
+            }
+            if (entry.isFor(userId) && !send(userId, emitter, id, entry.event.getMatch()))
+            {
+                return;
+            }
+        }
+    }
+
+    private boolean send(Long userId, StreamEmitter emitter, long id, MatchResponse match)
+    {
+        try
+        {
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(id))
+                    .name("match")
+                    .data(match, MediaType.APPLICATION_JSON));
+            return true;
+        }
+        catch (IOException | IllegalStateException e)
+        {
+            log.debug("Dropping match stream of user {}: {}", userId, e.getMessage());
+            detach(userId, emitter);
+            return false;
+        }
+    }
+
+    private void sendResync(Long userId, StreamEmitter emitter, long latestId)
+    {
+        try
+        {
+            emitter.send(SseEmitter.event().id(Long.toString(latestId)).name("resync").data(""));
+        }
+        catch (IOException | IllegalStateException e)
+        {
+            detach(userId, emitter);
+        }
+    }
+
+    private void detach(Long userId, StreamEmitter emitter)
+    {
+        emitters.computeIfPresent(userId, (id, userEmitters) -> {
+            userEmitters.remove(emitter);
+            return userEmitters.isEmpty() ? null : userEmitters;
+        });
+    }
+
+    /**
+     * An emitter with its own serial queue: tasks run one at a time, in submission order, on the shared
+     * virtual-thread executor. Only the drain task writes to the stream, so frames never interleave or
+     * overtake each other, and no lock is held while a slow socket blocks.
+     */
+    private static final class StreamEmitter extends SseEmitter
+    {
+        private final Executor executor;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private volatile boolean closed;
+
+        StreamEmitter(long timeoutMs, Executor executor)
+        {
+            super(timeoutMs);
+            this.executor = executor;
+        }
+
+        void submit(Runnable task)
+        {
+            tasks.add(task);
+            // The first task after an idle period starts the drain; the others are picked up by it
+            if (queued.getAndIncrement() == 0)
+            {
+                executor.execute(this::drain);
+            }
+        }
+
+        int pending()
+        {
+            return queued.get();
+        }
+
+        void close()
+        {
+            closed = true;
+            complete();
+        }
+
+        private void drain()
+        {
+            do
+            {
+                Runnable task = tasks.poll();
+                if (!closed)
+                {
+                    try
+                    {
+                        task.run();
+                    }
+                    catch (RuntimeException e)
+                    {
+                        // Never let one failed write stall the queue
+                        log.warn("Match stream task failed", e);
+                    }
+                }
+            }
+            while (queued.decrementAndGet() > 0);
+        }
+    }
+
+    @Value
+    private static class Entry
+    {
+        long id;
+        MatchEvent event;
+
+        boolean isFor(Long userId)
+        {
+            for (Long recipientId : event.getRecipientIds())
+            {
+                if (userId.equals(recipientId))
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
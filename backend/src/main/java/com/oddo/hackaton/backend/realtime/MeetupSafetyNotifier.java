@@ -0,0 +1,26 @@
+package com.oddo.hackaton.backend.realtime;
+
+import com.oddo.hackaton.backend.event.MeetupTimerEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Delivers meetup check-ins and overrun alerts to both participants on {@code /user/queue/safety}.
+ */
+@Component
+@RequiredArgsConstructor
+public class MeetupSafetyNotifier
+{
+    public static final String SAFETY_QUEUE = "/queue/safety";
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @EventListener
+    public void onMeetupTimer(MeetupTimerEvent event)
+    {
+        messagingTemplate.convertAndSendToUser(event.getPickerId().toString(), SAFETY_QUEUE, event);
+        messagingTemplate.convertAndSendToUser(event.getRequesterId().toString(), SAFETY_QUEUE, event);
+    }
+}
@@ -0,0 +1,108 @@
+package com.oddo.hackaton.backend.realtime;
+
+import com.oddo.hackaton.backend.event.PickRequestEvent;
+import com.oddo.hackaton.backend.geo.AlertIndex;
+import com.oddo.hackaton.backend.geo.PickRequestSummary;
+import com.oddo.hackaton.backend.geo.StandingAlert;
+import com.oddo.hackaton.backend.model.dto.reponse.PickRequestAlertMessage;
+import com.oddo.hackaton.backend.model.mapper.PickRequestMapper;
+import com.oddo.hackaton.backend.util.GeoUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Matches every newly created pick request against the alert subscriptions and pushes one
+ * {@link PickRequestAlertMessage} per matching subscriber to {@code /user/queue/alerts}.
+ *
+ * The probe runs after commit on the creating thread (one tile lookup per level in {@link AlertIndex});
+ * the sends run on a virtual thread, so a request that matches thousands of subscribers never
+ * delays the create call.
+ */
+@Slf4j
+@Component
+public class PickRequestAlertNotifier
+{
+    public static final String ALERT_QUEUE = "/queue/alerts";
+
+    private final AlertIndex alertIndex;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+    private final Timer probeTimer;
+    private final Counter deliveredCounter;
+
+    public PickRequestAlertNotifier(AlertIndex alertIndex, SimpMessagingTemplate messagingTemplate,
+                                    MeterRegistry meterRegistry)
+    {
+        this.alertIndex = alertIndex;
+        this.messagingTemplate = messagingTemplate;
+        this.probeTimer = Timer.builder("pikme.alerts.probe")
+                .description("Matching one new pick request against the alert subscriptions")
+                .register(meterRegistry);
+        this.deliveredCounter = Counter.builder("pikme.alerts.delivered")
+                .description("Alerts pushed to subscribers")
+                .register(meterRegistry);
+        Gauge.builder("pikme.alerts.subscriptions", alertIndex, AlertIndex::size)
+                .description("Alert subscriptions held in memory")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPickRequestEvent(PickRequestEvent event)
+    {
+        if (event.getType() != PickRequestEvent.Type.CREATED)
+        {
+            return;
+        }
+
+        PickRequestSummary summary = event.getSummary();
+        LocalTime now = LocalTime.now();
+        List<StandingAlert> matches = probeTimer.record(
+                () -> alertIndex.probe(summary, now.getHour() * 60 + now.getMinute()));
+        if (matches == null || matches.isEmpty())
+        {
+            return;
+        }
+
+        sender.execute(() -> deliver(summary, matches));
+    }
+
+    private void deliver(PickRequestSummary summary, List<StandingAlert> matches)
+    {
+        for (StandingAlert alert : matches)
+        {
+            double distance = GeoUtils.distanceMeters(alert.getLatitude(), alert.getLongitude(),
+                    summary.getLatitude(), summary.getLongitude());
+            PickRequestAlertMessage message = PickRequestAlertMessage.builder()
+                    .subscriptionId(alert.getId())
+                    .pickRequest(PickRequestMapper.toNearbyResponse(summary, distance))
+                    .build();
+            try
+            {
+                messagingTemplate.convertAndSendToUser(Long.toString(alert.getUserId()), ALERT_QUEUE, message);
+                deliveredCounter.increment();
+            }
+            catch (RuntimeException e)
+            {
+                log.warn("Could not deliver alert {} to user {}", alert.getId(), alert.getUserId(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown()
+    {
+        sender.shutdown();
+    }
+}
@@ -0,0 +1,122 @@
+package com.oddo.hackaton.backend.realtime;
+
+import com.oddo.hackaton.backend.event.PickRequestEvent;
+import com.oddo.hackaton.backend.model.dto.reponse.PickRequestFeedEvent;
+import com.oddo.hackaton.backend.model.dto.reponse.PickRequestFeedMessage;
+import com.oddo.hackaton.backend.model.mapper.PickRequestMapper;
+import com.oddo.hackaton.backend.util.GeoUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes committed pick request changes to STOMP subscribers of the affected map tile:
+ * {@code /topic/pick-requests/{zoom}/{x}/{y}} at {@link #FEED_ZOOM}.
+ *
+ * Events are not sent one by one. They are buffered per cell and coalesced (latest event
+ * per pick request wins), then flushed as one message per dirty cell every flush interval.
+ * A cell that changes more than {@link #MAX_EVENTS_PER_CELL} times in one interval drops its
+ * buffer and sends a single {@code resync} flag instead, telling clients to refetch over REST.
+ * A hot cell therefore costs at most one small message per interval.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PickRequestFeedPublisher
+{
+    public static final int FEED_ZOOM = 13;
+    public static final String TOPIC_PREFIX = "/topic/pick-requests/";
+    static final int MAX_EVENTS_PER_CELL = 200;
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final Map<Long, CellBuffer> pending = new ConcurrentHashMap<>();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPickRequestEvent(PickRequestEvent event)
+    {
+        if (event.getLatitude() == null || event.getLongitude() == null)
+        {
+            return;
+        }
+
+        PickRequestFeedEvent feedEvent = PickRequestFeedEvent.builder()
+                .type(event.getType())
+                .pickRequestId(event.getPickRequestId())
+                .latitude(event.getLatitude())
+                .longitude(event.getLongitude())
+                .pickRequest(event.isActivation() ? PickRequestMapper.toNearbyResponse(event.getSummary(), null) : null)
+                .build();
+
+        long cell = GeoUtils.tileKey(event.getLatitude(), event.getLongitude(), FEED_ZOOM);
+        pending.compute(cell, (key, buffer) -> {
+            CellBuffer target = buffer != null ? buffer : new CellBuffer();
+            target.offer(feedEvent);
+            return target;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${feed.flush-interval-ms:250}")
+    public void flush()
+    {
+        for (Long cell : pending.keySet())
+        {
+            CellBuffer buffer = pending.remove(cell);
+            if (buffer == null)
+            {
+                continue;
+            }
+
+            String cellId = GeoUtils.tileId(cell);
+            try
+            {
+                messagingTemplate.convertAndSend(TOPIC_PREFIX + cellId, buffer.toMessage(cellId));
+            }
+            catch (Exception e)
+            {
+                log.warn("Failed to publish pick request feed for cell {}: {}", cellId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Only touched inside {@code pending.compute} or after being removed from the map,
+     * so it never needs its own lock.
+     */
+    private static final class CellBuffer
+    {
+        private final LinkedHashMap<Long, PickRequestFeedEvent> events = new LinkedHashMap<>();
+        private boolean overflowed = false;
+
+        void offer(PickRequestFeedEvent event)
+        {
+            if (overflowed)
+            {
+                return;
+            }
+            events.remove(event.getPickRequestId());
+            events.put(event.getPickRequestId(), event);
+            if (events.size() > MAX_EVENTS_PER_CELL)
+            {
+                overflowed = true;
+                events.clear();
+            }
+        }
+
+        PickRequestFeedMessage toMessage(String cellId)
+        {
+            return PickRequestFeedMessage.builder()
+                    .cellId(cellId)
+                    .resync(overflowed)
+                    .events(new ArrayList<>(events.values()))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.oddo.hackaton.backend.repository;
+
+import com.oddo.hackaton.backend.model.entity.AlertSubscription;
+import com.oddo.hackaton.backend.model.projection.AlertSubscriptionView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AlertSubscriptionRepository extends JpaRepository<AlertSubscription, Long>
+{
+    List<AlertSubscription> findByUserIdOrderByIdDesc(Long userId);
+
+    Optional<AlertSubscription> findByIdAndUserId(Long id, Long userId);
+
+    long countByUserId(Long userId);
+
+    /**
+     * Keyset page of all subscriptions by id, for loading the in-memory index in chunks.
+     */
+    @Query(value = """
+        SELECT id AS "id",
+               user_id AS "userId",
+               latitude AS "latitude",
+               longitude AS "longitude",
+               radius_meters AS "radiusMeters",
+               activity_mask AS "activityMask",
+               window_start_minute AS "windowStartMinute",
+               window_end_minute AS "windowEndMinute"
+        FROM alert_subscriptions
+        WHERE id > :afterId
+        ORDER BY id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<AlertSubscriptionView> findChunk(@Param("afterId") Long afterId, @Param("limit") int limit);
+}
@@ -2,24 +2,237 @@ package com.oddo.hackaton.backend.repository;
 
 import com.oddo.hackaton.backend.model.entity.Match;
 import com.oddo.hackaton.backend.model.enums.MatchStatus;
+import com.oddo.hackaton.backend.model.projection.ConversationSummaryView;
+import com.oddo.hackaton.backend.model.projection.MatchInboxView;
+import com.oddo.hackaton.backend.model.projection.MatchParticipantsView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface MatchRepository extends JpaRepository<Match, Long>
 {
+    /**
+     * Maps the rows of a {@code changed} CTE (a match write with RETURNING) onto {@link MatchInboxView}.
+     */
+    String CHANGED_MATCHES = """
+            SELECT c.id AS "matchId",
+                   c.pick_request_id AS "pickRequestId",
+                   c.picker_user_id AS "pickerId",
+                   pu.name AS "pickerName",
+                   c.requester_user_id AS "requesterId",
+                   ru.name AS "requesterName",
+                   c.status AS "status",
+                   c.created_at AS "createdAt",
+                   c.approved_at AS "approvedAt"
+            FROM changed c
+            JOIN users pu ON pu.id = c.picker_user_id
+            JOIN users ru ON ru.id = c.requester_user_id
+            ORDER BY c.id
+            """;
+
     @Query("SELECT m FROM Match m WHERE m.pickerUser.id = :userId OR m.requesterUser.id = :userId")
     List<Match> findByUserId(@Param("userId") Long userId);
 
     @Query("SELECT m FROM Match m WHERE (m.pickerUser.id = :userId OR m.requesterUser.id = :userId) AND m.status = :status")
     List<Match> findByUserIdAndStatus(@Param("userId") Long userId, @Param("status") MatchStatus status);
 
+    /**
+     * One page of a user's matches (as picker or requester), newest first, ids strictly below {@code before}.
+     *
+     * The OR is split into a UNION ALL so each branch walks its own (user, id) index (idx_match_picker_id /
+     * idx_match_requester_id) backwards from {@code before} and stops once it has {@code limit} rows that
+     * pass its filters; names are joined in the same round trip. {@code status} may be null for "any status";
+     * when set it is checked on each row read, so a user with many matches in other states reads past them.
+     */
+    @Query(value = """
+            SELECT m.id AS "matchId",
+                   m.pick_request_id AS "pickRequestId",
+                   m.picker_user_id AS "pickerId",
+                   pu.name AS "pickerName",
+                   m.requester_user_id AS "requesterId",
+                   ru.name AS "requesterName",
+                   m.status AS "status",
+                   m.created_at AS "createdAt",
+                   m.approved_at AS "approvedAt"
+            FROM (
+                (SELECT * FROM matches
+                 WHERE picker_user_id = :userId
+                   AND id < :before
+                   AND (CAST(:status AS varchar) IS NULL OR status = CAST(:status AS varchar))
+                 ORDER BY id DESC
+                 LIMIT :limit)
+                UNION ALL
+                (SELECT * FROM matches
+                 WHERE requester_user_id = :userId
+                   AND picker_user_id <> :userId
+                   AND id < :before
+                   AND (CAST(:status AS varchar) IS NULL OR status = CAST(:status AS varchar))
+                 ORDER BY id DESC
+                 LIMIT :limit)
+            ) m
+            JOIN users pu ON pu.id = m.picker_user_id
+            JOIN users ru ON ru.id = m.requester_user_id
+            ORDER BY m.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<MatchInboxView> findInboxPage(
+            @Param("userId") Long userId,
+            @Param("before") Long before,
+            @Param("status") String status,
+            @Param("limit") int limit
+    );
+
+    @Query("""
+            SELECT m.id AS matchId, m.pickerUser.id AS pickerId, m.requesterUser.id AS requesterId, m.status AS status
+            FROM Match m
+            WHERE m.id = :matchId
+            """)
+    Optional<MatchParticipantsView> findParticipants(@Param("matchId") Long matchId);
+
+    /**
+     * Conversation summaries of ACCEPTED/COMPLETED matches with id above {@code afterId}, in id order
+     * (chunked reload for ConversationSummaries; each match costs two index probes into messages).
+     */
+    @Query(value = """
+            SELECT m.id AS "matchId",
+                   m.picker_user_id AS "pickerId",
+                   pu.name AS "pickerName",
+                   m.requester_user_id AS "requesterId",
+                   ru.name AS "requesterName",
+                   lm.id AS "lastMessageId",
+                   lm.sender_id AS "lastSenderId",
+                   lm.preview AS "lastPreview",
+                   lm.created_at AS "lastMessageAt",
+                   COALESCE(u.picker_unread, 0) AS "pickerUnread",
+                   COALESCE(u.requester_unread, 0) AS "requesterUnread"
+            FROM matches m
+            JOIN users pu ON pu.id = m.picker_user_id
+            JOIN users ru ON ru.id = m.requester_user_id
+            LEFT JOIN LATERAL (
+                SELECT id, sender_id, LEFT(content, :previewLength) AS preview, created_at
+                FROM messages
+                WHERE match_id = m.id
+                ORDER BY id DESC
+                LIMIT 1
+            ) lm ON true
+            LEFT JOIN LATERAL (
+                SELECT COUNT(*) FILTER (WHERE sender_id <> m.picker_user_id) AS picker_unread,
+                       COUNT(*) FILTER (WHERE sender_id <> m.requester_user_id) AS requester_unread
+                FROM messages
+                WHERE match_id = m.id AND is_read IS NOT TRUE
+            ) u ON true
+            WHERE m.status IN ('ACCEPTED', 'COMPLETED')
+              AND m.id > :afterId
+            ORDER BY m.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<ConversationSummaryView> findConversationSummaries(
+            @Param("afterId") Long afterId,
+            @Param("previewLength") int previewLength,
+            @Param("limit") int limit
+    );
+
     List<Match> findByPickRequestIdAndStatus(Long pickRequestId, MatchStatus status);
 
     Optional<Match> findByPickRequestIdAndPickerUserId(Long pickRequestId, Long pickerUserId);
+
+    boolean existsByPickRequestIdAndPickerUserId(Long pickRequestId, Long pickerUserId);
+
+    /**
+     * Queue PENDING matches for many (pick request, picker) pairs in one statement. A request takes any
+     * number of pending pickers while it is ACTIVE; it only leaves ACTIVE when its owner accepts one
+     * ({@link #accept}). Pairs whose request is no longer ACTIVE, that target the picker's own request,
+     * or that already have a match (pending or declined) are silently dropped, so compare the result
+     * with the input.
+     *
+     * The request rows are read FOR SHARE: pickers queueing on the same request never wait on each other,
+     * while the owner's accept/cancel (an UPDATE of that row) waits for them and vice versa, so no match
+     * is ever queued on a request that has just been closed.
+     *
+     * The arrays are parallel: {@code pickRequestIds[i]} goes to {@code pickerIds[i]}.
+     */
+    @Query(value = """
+            WITH pairs AS (
+                SELECT *
+                FROM unnest(CAST(:pickRequestIds AS bigint[]), CAST(:pickerIds AS bigint[]))
+                     AS p(pick_request_id, picker_id)
+            ),
+            open AS (
+                SELECT pr.id, pr.user_id, p.picker_id
+                FROM pairs p
+                JOIN pick_requests pr ON pr.id = p.pick_request_id
+                WHERE pr.status = 'ACTIVE'
+                  AND pr.user_id <> p.picker_id
+                FOR SHARE OF pr
+            ),
+            changed AS (
+                INSERT INTO matches (pick_request_id, picker_user_id, requester_user_id, status, created_at)
+                SELECT o.id, o.picker_id, o.user_id, 'PENDING', :now
+                FROM open o
+                ON CONFLICT (pick_request_id, picker_user_id) DO NOTHING
+                RETURNING id, pick_request_id, picker_user_id, requester_user_id, status, created_at, approved_at
+            )
+            """ + CHANGED_MATCHES, nativeQuery = true)
+    List<MatchInboxView> createMatches(
+            @Param("pickRequestIds") Long[] pickRequestIds,
+            @Param("pickerIds") Long[] pickerIds,
+            @Param("now") LocalDateTime now
+    );
+
+    /**
+     * PENDING -> ACCEPTED for one match. 0 if it was declined (or accepted) in the meantime.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        UPDATE Match m SET m.status = :accepted, m.approvedAt = :now
+        WHERE m.id = :id AND m.status = :expected
+        """)
+    int accept(
+            @Param("id") Long id,
+            @Param("expected") MatchStatus expected,
+            @Param("accepted") MatchStatus accepted,
+            @Param("now") LocalDateTime now
+    );
+
+    /**
+     * PENDING -> DECLINED for one match. 0 if it was accepted (or declined) in the meantime.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        UPDATE Match m SET m.status = :declined
+        WHERE m.id = :id AND m.status = :expected
+        """)
+    int decline(
+            @Param("id") Long id,
+            @Param("expected") MatchStatus expected,
+            @Param("declined") MatchStatus declined
+    );
+
+    /**
+     * Decline every PENDING match still queued on the given requests, in one set-based UPDATE (the
+     * (pick_request_id, picker_user_id) unique index covers the lookup). Call it after the requests left
+     * ACTIVE, in its own statement: pickers that were queueing at that moment have committed by then and
+     * are included, later ones see the new status and are turned away by {@link #createMatches}.
+     *
+     * Not @Modifying: that only allows an int/void result, and the declined rows are needed for the match
+     * stream. The persistence context is therefore not cleared here; callers go through
+     * MatchService.declineWaitlist, which clears it.
+     */
+    @Query(value = """
+            WITH changed AS (
+                UPDATE matches
+                SET status = 'DECLINED'
+                WHERE pick_request_id = ANY(CAST(:pickRequestIds AS bigint[]))
+                  AND status = 'PENDING'
+                RETURNING id, pick_request_id, picker_user_id, requester_user_id, status, created_at, approved_at
+            )
+            """ + CHANGED_MATCHES, nativeQuery = true)
+    List<MatchInboxView> declinePending(@Param("pickRequestIds") Long[] pickRequestIds);
 }
@@ -1,13 +1,202 @@
 package com.oddo.hackaton.backend.repository;
 
 import com.oddo.hackaton.backend.model.entity.Meetup;
+import com.oddo.hackaton.backend.model.enums.MeetupStatus;
+import com.oddo.hackaton.backend.model.projection.MeetupEndView;
+import com.oddo.hackaton.backend.model.projection.MeetupStateView;
+import com.oddo.hackaton.backend.model.projection.MeetupTimerView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
+/**
+ * Meetup state changes are single statements: the caller's flag, the status transition (when the other
+ * side already confirmed) and any cascade are decided by the database on the row it has locked, so two
+ * phones tapping at the same moment cannot both miss the transition or both apply it.
+ */
 @Repository
 public interface MeetupRepository extends JpaRepository<Meetup, Long>
 {
+    /**
+     * The match, if {@code :userId} is one of its two participants.
+     */
+    String PARTICIPANTS = """
+        WITH mt AS (
+            SELECT m.id, m.status AS match_status, m.picker_user_id, m.requester_user_id,
+                   m.pick_request_id, pr.duration_minutes
+            FROM matches m
+            JOIN pick_requests pr ON pr.id = m.pick_request_id
+            WHERE m.id = :matchId AND :userId IN (m.picker_user_id, m.requester_user_id)
+        )
+        """;
+
+    String CHANGED_COLUMNS =
+            " mu.*, mt.picker_user_id, mt.requester_user_id, mt.pick_request_id, mt.duration_minutes\n";
+
+    /**
+     * The {@link MeetupStateView} columns of a {@code changed c} row.
+     */
+    String STATE_COLUMNS = """
+         c.id AS "meetupId", c.match_id AS "matchId", c.status AS "status",
+               c.picker_user_id AS "pickerId", c.requester_user_id AS "requesterId",
+               c.picker_confirmed_start AS "pickerConfirmedStart",
+               c.requester_confirmed_start AS "requesterConfirmedStart",
+               c.picker_confirmed_end AS "pickerConfirmedEnd",
+               c.requester_confirmed_end AS "requesterConfirmedEnd",
+               c.started_at AS "startedAt", c.ended_at AS "endedAt", c.duration_minutes AS "durationMinutes"
+        """;
+
+    /**
+     * Closes the {@code changed} CTE and maps its rows onto {@link MeetupStateView}.
+     */
+    String SELECT_STATE = """
+        )
+        SELECT""" + STATE_COLUMNS + """
+        FROM changed c
+        """;
+
     Optional<Meetup> findByMatchId(Long matchId);
+
+    @Query(value = PARTICIPANTS + """
+        , changed AS (
+            SELECT""" + CHANGED_COLUMNS + """
+            FROM meetups mu
+            JOIN mt ON mt.id = mu.match_id
+        """ + SELECT_STATE, nativeQuery = true)
+    Optional<MeetupStateView> findState(@Param("matchId") Long matchId, @Param("userId") Long userId);
+
+    /**
+     * Record the caller's start confirmation; if the other side already confirmed, the meetup goes
+     * IN_PROGRESS with {@code started_at = :now} in the same statement. Empty if nothing changed
+     * (not a participant, match not ACCEPTED, or meetup no longer NOT_STARTED).
+     */
+    @Query(value = PARTICIPANTS + """
+        , changed AS (
+            UPDATE meetups mu
+            SET picker_confirmed_start = mu.picker_confirmed_start IS TRUE OR mt.picker_user_id = :userId,
+                requester_confirmed_start = mu.requester_confirmed_start IS TRUE OR mt.requester_user_id = :userId,
+                status = CASE
+                    WHEN (mu.picker_confirmed_start IS TRUE OR mt.picker_user_id = :userId)
+                     AND (mu.requester_confirmed_start IS TRUE OR mt.requester_user_id = :userId)
+                    THEN 'IN_PROGRESS' ELSE mu.status END,
+                started_at = CASE
+                    WHEN (mu.picker_confirmed_start IS TRUE OR mt.picker_user_id = :userId)
+                     AND (mu.requester_confirmed_start IS TRUE OR mt.requester_user_id = :userId)
+                    THEN :now ELSE mu.started_at END
+            FROM mt
+            WHERE mu.match_id = mt.id AND mt.match_status = 'ACCEPTED' AND mu.status = 'NOT_STARTED'
+            RETURNING""" + CHANGED_COLUMNS + SELECT_STATE, nativeQuery = true)
+    Optional<MeetupStateView> confirmStart(
+            @Param("matchId") Long matchId,
+            @Param("userId") Long userId,
+            @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Record the caller's end confirmation; if the other side already confirmed, the meetup goes
+     * COMPLETED and, in the same statement, its match and pick request go COMPLETED and both users'
+     * completed_meetups is incremented. The cascade's RETURNING rows come back on the same row, so the
+     * caller can publish the match and pick request changes without reading them again.
+     */
+    @Query(value = PARTICIPANTS + """
+        , changed AS (
+            UPDATE meetups mu
+            SET picker_confirmed_end = mu.picker_confirmed_end IS TRUE OR mt.picker_user_id = :userId,
+                requester_confirmed_end = mu.requester_confirmed_end IS TRUE OR mt.requester_user_id = :userId,
+                status = CASE
+                    WHEN (mu.picker_confirmed_end IS TRUE OR mt.picker_user_id = :userId)
+                     AND (mu.requester_confirmed_end IS TRUE OR mt.requester_user_id = :userId)
+                    THEN 'COMPLETED' ELSE mu.status END,
+                ended_at = CASE
+                    WHEN (mu.picker_confirmed_end IS TRUE OR mt.picker_user_id = :userId)
+                     AND (mu.requester_confirmed_end IS TRUE OR mt.requester_user_id = :userId)
+                    THEN :now ELSE mu.ended_at END
+            FROM mt
+            WHERE mu.match_id = mt.id AND mt.match_status = 'ACCEPTED' AND mu.status = 'IN_PROGRESS'
+            RETURNING""" + CHANGED_COLUMNS + """
+        ),
+        completed_match AS (
+            UPDATE matches SET status = 'COMPLETED'
+            WHERE id IN (SELECT match_id FROM changed WHERE status = 'COMPLETED')
+            RETURNING id, created_at, approved_at
+        ),
+        completed_pick_request AS (
+            UPDATE pick_requests SET status = 'COMPLETED'
+            WHERE id IN (SELECT pick_request_id FROM changed WHERE status = 'COMPLETED')
+            RETURNING id, latitude, longitude
+        ),
+        completed_users AS (
+            UPDATE users SET completed_meetups = COALESCE(completed_meetups, 0) + 1
+            WHERE id IN (SELECT picker_user_id FROM changed WHERE status = 'COMPLETED'
+                         UNION ALL
+                         SELECT requester_user_id FROM changed WHERE status = 'COMPLETED')
+            RETURNING id, name
+        )
+        SELECT""" + STATE_COLUMNS + """
+             , cm.id AS "completedMatchId", cm.created_at AS "matchCreatedAt", cm.approved_at AS "matchApprovedAt",
+               pu.name AS "pickerName", ru.name AS "requesterName",
+               cp.id AS "completedPickRequestId", cp.latitude AS "pickRequestLatitude",
+               cp.longitude AS "pickRequestLongitude"
+        FROM changed c
+        LEFT JOIN completed_match cm ON cm.id = c.match_id
+        LEFT JOIN completed_pick_request cp ON cp.id = c.pick_request_id
+        LEFT JOIN completed_users pu ON pu.id = c.picker_user_id
+        LEFT JOIN completed_users ru ON ru.id = c.requester_user_id
+        """, nativeQuery = true)
+    Optional<MeetupEndView> confirmEnd(
+            @Param("matchId") Long matchId,
+            @Param("userId") Long userId,
+            @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Either participant can call off a meetup that has not finished.
+     */
+    @Query(value = PARTICIPANTS + """
+        , changed AS (
+            UPDATE meetups mu
+            SET status = 'CANCELLED', ended_at = :now
+            FROM mt
+            WHERE mu.match_id = mt.id AND mu.status IN ('NOT_STARTED', 'IN_PROGRESS')
+            RETURNING""" + CHANGED_COLUMNS + SELECT_STATE, nativeQuery = true)
+    Optional<MeetupStateView> cancel(
+            @Param("matchId") Long matchId,
+            @Param("userId") Long userId,
+            @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Create the NOT_STARTED meetup of an ACCEPTED match if it does not exist yet
+     * (matches accepted before meetups were created alongside them).
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO meetups (match_id, status, picker_confirmed_start, requester_confirmed_start,
+                             picker_confirmed_end, requester_confirmed_end, created_at)
+        SELECT m.id, 'NOT_STARTED', false, false, false, false, :now
+        FROM matches m
+        WHERE m.id = :matchId AND m.status = 'ACCEPTED' AND :userId IN (m.picker_user_id, m.requester_user_id)
+        ON CONFLICT (match_id) DO NOTHING
+        """, nativeQuery = true)
+    int createIfMissing(
+            @Param("matchId") Long matchId,
+            @Param("userId") Long userId,
+            @Param("now") LocalDateTime now
+    );
+
+    @Query("""
+        SELECT m.id AS meetupId, m.startedAt AS startedAt, pr.durationMinutes AS durationMinutes,
+               mt.pickerUser.id AS pickerId, mt.requesterUser.id AS requesterId
+        FROM Meetup m
+        JOIN m.match mt
+        JOIN mt.pickRequest pr
+        WHERE m.status = :status AND m.startedAt IS NOT NULL
+        """)
+    List<MeetupTimerView> findTimersByStatus(@Param("status") MeetupStatus status);
 }
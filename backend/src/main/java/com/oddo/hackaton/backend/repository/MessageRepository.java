@@ -1,7 +1,10 @@
 package com.oddo.hackaton.backend.repository;
 
 import com.oddo.hackaton.backend.model.entity.Message;
+import com.oddo.hackaton.backend.model.projection.ChatMessageView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +15,26 @@ public interface MessageRepository extends JpaRepository<Message, Long>
     List<Message> findByMatchIdOrderByCreatedAtAsc(Long matchId);
 
     long countByMatchIdAndIsReadFalse(Long matchId);
+
+    /**
+     * One page of a conversation, newest first, ids strictly below {@code before}
+     * (walks idx_message_match_id backwards and stops after {@code limit} rows).
+     */
+    @Query(value = """
+            SELECT id AS "messageId",
+                   match_id AS "matchId",
+                   sender_id AS "senderId",
+                   content AS "content",
+                   created_at AS "createdAt"
+            FROM messages
+            WHERE match_id = :matchId
+              AND id < :before
+            ORDER BY id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<ChatMessageView> findPage(
+            @Param("matchId") Long matchId,
+            @Param("before") Long before,
+            @Param("limit") int limit
+    );
 }
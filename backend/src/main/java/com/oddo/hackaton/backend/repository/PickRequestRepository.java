@@ -2,11 +2,15 @@ package com.oddo.hackaton.backend.repository;
 
 import com.oddo.hackaton.backend.model.entity.PickRequest;
 import com.oddo.hackaton.backend.model.enums.PickStatus;
+import com.oddo.hackaton.backend.model.projection.ExpiredPickRequestView;
+import com.oddo.hackaton.backend.model.projection.NearbyPickRequestView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -16,22 +20,152 @@ public interface PickRequestRepository extends JpaRepository<PickRequest, Long>
 
     List<PickRequest> findByUserIdAndStatus(Long userId, PickStatus status);
 
-    @Query(value = """
-        SELECT pr.* FROM pick_requests pr
+    /**
+     * Requester card columns shared by the nearby/nearest/viewport projections.
+     * The requester row is joined in the same statement, so there is no lazy load per result.
+     */
+    String NEARBY_COLUMNS = """
+        SELECT pr.id AS "pickRequestId", u.id AS "userId", u.name AS "userName", u.age AS "userAge",
+               u.bio AS "userBio", array_to_string(u.interests, chr(31)) AS "interests",
+               u.safety_score AS "safetyScore", pr.activity_type AS "activityType", pr.subject AS "subject",
+               pr.duration_minutes AS "durationMinutes", pr.latitude AS "latitude", pr.longitude AS "longitude",
+               pr.created_at AS "createdAt", pr.expires_at AS "expiresAt",
+        """;
+
+    /**
+     * ACTIVE requests within the radius, closest first, excluding the caller's own
+     * (a null user id excludes nothing). The distance is the one PostGIS computed for the ordering.
+     */
+    @Query(value = NEARBY_COLUMNS + """
+               ST_Distance(pr.location, ST_SetSRID(ST_MakePoint(:longitude, :latitude), 4326)::geography)
+                   AS "distanceMeters"
+        FROM pick_requests pr
+        JOIN users u ON u.id = pr.user_id
         WHERE pr.status = 'ACTIVE'
+        AND pr.user_id IS DISTINCT FROM CAST(:currentUserId AS bigint)
         AND ST_DWithin(
-            pr.location::geography,
+            pr.location,
             ST_SetSRID(ST_MakePoint(:longitude, :latitude), 4326)::geography,
             :radiusMeters
         )
-        ORDER BY ST_Distance(
-            pr.location::geography,
-            ST_SetSRID(ST_MakePoint(:longitude, :latitude), 4326)::geography
+        ORDER BY "distanceMeters"
+        """, nativeQuery = true)
+    List<NearbyPickRequestView> findNearbyPickRequests(
+            @Param("latitude") double latitude,
+            @Param("longitude") double longitude,
+            @Param("radiusMeters") double radiusMeters,
+            @Param("currentUserId") Long currentUserId
+    );
+
+    /**
+     * Every ACTIVE request with its requester card, used to warm the in-memory spatial index.
+     */
+    @Query(value = NEARBY_COLUMNS + """
+               CAST(NULL AS double precision) AS "distanceMeters"
+        FROM pick_requests pr
+        JOIN users u ON u.id = pr.user_id
+        WHERE pr.status = 'ACTIVE'
+        AND pr.latitude IS NOT NULL AND pr.longitude IS NOT NULL
+        """, nativeQuery = true)
+    List<NearbyPickRequestView> findAllActiveSummaries();
+
+    /**
+     * K nearest ACTIVE requests within the radius. The {@code <->} ordering plus LIMIT lets
+     * PostgreSQL walk the GiST index on {@code location} (idx_pick_location) instead of
+     * sorting every row inside the radius.
+     */
+    @Query(value = NEARBY_COLUMNS + """
+               ST_Distance(pr.location, ST_SetSRID(ST_MakePoint(:longitude, :latitude), 4326)::geography)
+                   AS "distanceMeters"
+        FROM pick_requests pr
+        JOIN users u ON u.id = pr.user_id
+        WHERE pr.status = 'ACTIVE'
+        AND pr.user_id IS DISTINCT FROM CAST(:currentUserId AS bigint)
+        AND ST_DWithin(
+            pr.location,
+            ST_SetSRID(ST_MakePoint(:longitude, :latitude), 4326)::geography,
+            :radiusMeters
         )
+        ORDER BY pr.location <-> ST_SetSRID(ST_MakePoint(:longitude, :latitude), 4326)::geography
+        LIMIT :limit
         """, nativeQuery = true)
-    List<PickRequest> findNearbyPickRequests(
+    List<NearbyPickRequestView> findNearestPickRequests(
             @Param("latitude") double latitude,
             @Param("longitude") double longitude,
-            @Param("radiusMeters") double radiusMeters
+            @Param("radiusMeters") double radiusMeters,
+            @Param("currentUserId") Long currentUserId,
+            @Param("limit") int limit
     );
+
+    /**
+     * ACTIVE requests inside a map viewport, newest first. Uses the {@code &&} bounding-box
+     * operator on {@code location::geometry}, which is served by the idx_pick_location_geom
+     * expression index (no spheroid math, no per-row geography cast of the search area).
+     */
+    @Query(value = NEARBY_COLUMNS + """
+               CAST(NULL AS double precision) AS "distanceMeters"
+        FROM pick_requests pr
+        JOIN users u ON u.id = pr.user_id
+        WHERE pr.status = 'ACTIVE'
+        AND pr.user_id IS DISTINCT FROM CAST(:currentUserId AS bigint)
+        AND pr.location::geometry && ST_MakeEnvelope(:minLon, :minLat, :maxLon, :maxLat, 4326)
+        ORDER BY pr.created_at DESC
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<NearbyPickRequestView> findInViewport(
+            @Param("minLat") double minLat,
+            @Param("minLon") double minLon,
+            @Param("maxLat") double maxLat,
+            @Param("maxLon") double maxLon,
+            @Param("currentUserId") Long currentUserId,
+            @Param("limit") int limit
+    );
+
+    /**
+     * Flip up to {@code batchSize} overdue ACTIVE requests to EXPIRED in one statement and return them.
+     * SKIP LOCKED leaves rows that a concurrent match/cancel is holding for the next sweep.
+     *
+     * Not @Modifying: that only allows an int/void result, and the RETURNING rows feed the events. The
+     * persistence context is therefore not cleared here; the expiry sweep clears it right after.
+     */
+    @Query(value = """
+        UPDATE pick_requests
+        SET status = 'EXPIRED'
+        WHERE id IN (
+            SELECT id FROM pick_requests
+            WHERE status = 'ACTIVE' AND expires_at < :now
+            ORDER BY expires_at
+            LIMIT :batchSize
+            FOR UPDATE SKIP LOCKED
+        )
+        RETURNING id AS "id", latitude AS "latitude", longitude AS "longitude"
+        """, nativeQuery = true)
+    List<ExpiredPickRequestView> expireOverdue(
+            @Param("now") LocalDateTime now,
+            @Param("batchSize") int batchSize
+    );
+
+    /**
+     * Owner moves their request out of ACTIVE (cancel, or MATCHED when accepting a picker).
+     * Conditional, so a cancel racing an accept (or an expiry) can never overwrite the other: exactly one wins.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        UPDATE PickRequest p SET p.status = :target
+        WHERE p.id = :id AND p.user.id = :userId AND p.status = :expected
+        """)
+    int updateStatusForOwner(
+            @Param("id") Long id,
+            @Param("userId") Long userId,
+            @Param("expected") PickStatus expected,
+            @Param("target") PickStatus target
+    );
+
+    long countByStatusAndExpiresAtBefore(PickStatus status, LocalDateTime now);
+
+    /**
+     * Transaction-scoped advisory lock, released automatically on commit/rollback.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryXactLock(@Param("key") long key);
 }
@@ -15,6 +15,62 @@ public interface ReviewRepository extends JpaRepository<Review, Long>
 
     Optional<Review> findByMeetupIdAndReviewerId(Long meetupId, Long reviewerId);
 
+    boolean existsByMeetupIdAndReviewerId(Long meetupId, Long reviewerId);
+
+    /**
+     * Upper bound of the next chunk of user ids after {@code afterId} (null when there are none left).
+     */
+    @Query(value = """
+        SELECT MAX(id) FROM (
+            SELECT id FROM users WHERE id > :afterId ORDER BY id LIMIT :limit
+        ) chunk
+        """, nativeQuery = true)
+    Long findUserChunkEnd(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    /**
+     * Users in {@code (afterId, upToId]} whose running aggregates or badge histogram disagree with
+     * their raw reviews. Every lateral probe goes through idx_review_reviewed_user or the histogram's
+     * primary key, so a chunk costs O(reviews of the users in it).
+     */
+    @Query(value = """
+        SELECT u.id
+        FROM users u
+        CROSS JOIN LATERAL (
+            SELECT COALESCE(SUM(r.rating), 0) AS rating_sum,
+                   COUNT(*) AS rating_count,
+                   COUNT(*) FILTER (WHERE r.would_meet_again) AS yes,
+                   COUNT(r.would_meet_again) AS answered
+            FROM reviews r
+            WHERE r.reviewed_user_id = u.id
+        ) t
+        CROSS JOIN LATERAL (
+            SELECT string_agg(x.badge || '=' || x.n, ',' ORDER BY x.badge) AS histogram
+            FROM (
+                SELECT b.badge, COUNT(*) AS n
+                FROM reviews r
+                CROSS JOIN LATERAL unnest(r.badges) AS b(badge)
+                WHERE r.reviewed_user_id = u.id
+                GROUP BY b.badge
+            ) x
+        ) raw_badges
+        CROSS JOIN LATERAL (
+            SELECT string_agg(c.badge || '=' || c.count, ',' ORDER BY c.badge) AS histogram
+            FROM user_badge_counts c
+            WHERE c.user_id = u.id
+        ) stored_badges
+        WHERE u.id > :afterId AND u.id <= :upToId
+          AND (u.rating_sum <> t.rating_sum
+               OR u.rating_count <> t.rating_count
+               OR u.would_meet_again_yes <> t.yes
+               OR u.would_meet_again_answers <> t.answered
+               OR raw_badges.histogram IS DISTINCT FROM stored_badges.histogram)
+        ORDER BY u.id
+        """, nativeQuery = true)
+    List<Long> findUsersWithStaleAggregates(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    /**
+     * Full scan of the user's reviews; use the running aggregates on User for reads.
+     */
     @Query("SELECT AVG(r.rating) FROM Review r WHERE r.reviewedUser.id = :userId")
     Double calculateAverageRating(@Param("userId") Long userId);
 }
@@ -0,0 +1,45 @@
+package com.oddo.hackaton.backend.repository;
+
+import com.oddo.hackaton.backend.model.entity.UserBadgeCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserBadgeCountRepository extends JpaRepository<UserBadgeCount, UserBadgeCount.Key>
+{
+    List<UserBadgeCount> findByIdUserIdOrderByCountDesc(Long userId);
+
+    /**
+     * +1 for each badge (badges must be distinct, or the upsert would hit the same row twice).
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO user_badge_counts (user_id, badge, count)
+        SELECT :userId, badge, 1 FROM unnest(CAST(:badges AS text[])) AS badge
+        ON CONFLICT (user_id, badge) DO UPDATE SET count = user_badge_counts.count + 1
+        """, nativeQuery = true)
+    int increment(@Param("userId") Long userId, @Param("badges") String[] badges);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_badge_counts WHERE user_id = :userId", nativeQuery = true)
+    int deleteByUserId(@Param("userId") Long userId);
+
+    /**
+     * Rebuild a user's histogram from the raw reviews (used by the nightly verification).
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO user_badge_counts (user_id, badge, count)
+        SELECT r.reviewed_user_id, b.badge, COUNT(*)
+        FROM reviews r
+        CROSS JOIN LATERAL unnest(r.badges) AS b(badge)
+        WHERE r.reviewed_user_id = :userId
+        GROUP BY r.reviewed_user_id, b.badge
+        """, nativeQuery = true)
+    int rebuildFromReviews(@Param("userId") Long userId);
+}
@@ -1,9 +1,16 @@
 package com.oddo.hackaton.backend.repository;
 
 import com.oddo.hackaton.backend.model.entity.User;
+import com.oddo.hackaton.backend.model.projection.ReputationView;
+import com.oddo.hackaton.backend.model.projection.UserInterestsView;
+import com.oddo.hackaton.backend.security.UserCard;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +19,108 @@ public interface UserRepository extends JpaRepository<User, Long>
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    @Query("SELECT new com.oddo.hackaton.backend.security.UserCard(u.id, u.email, u.name) "
+            + "FROM User u WHERE u.email = :email")
+    Optional<UserCard> findCardByEmail(@Param("email") String email);
+
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.email = :email")
+    int updatePasswordByEmail(@Param("email") String email, @Param("password") String password);
+
+    /**
+     * Swap the password hash and bump the token version, only while the stored hash is still
+     * {@code currentHash}: 0 rows means another password change got there first.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE User u SET u.password = :newHash, u.tokenVersion = u.tokenVersion + 1 "
+            + "WHERE u.id = :id AND u.password = :currentHash")
+    int replacePassword(@Param("id") Long id,
+                        @Param("currentHash") String currentHash,
+                        @Param("newHash") String newHash);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    @Query("SELECT u.interests FROM User u WHERE u.id = :id")
+    Optional<String[]> findInterestsById(@Param("id") Long id);
+
+    /**
+     * Next {@code limit} users with at least one interest, ids strictly above {@code afterId} (keyset paging
+     * on the primary key, so every chunk is an index range scan however far the walk has gone).
+     */
+    @Query(value = """
+        SELECT id AS "id", array_to_string(interests, chr(31)) AS "interests"
+        FROM users
+        WHERE id > :afterId AND cardinality(interests) > 0
+        ORDER BY id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<UserInterestsView> findInterestsChunk(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    /*
+     * Safety score = average rating mapped to 0..100 (1 star = 0, 5 stars = 100), smoothed with
+     * five virtual 50-point reviews so a single rating cannot swing a new account to 0 or 100:
+     *   (5 * 50 + (rating_sum - rating_count) * 25) / (rating_count + 5)
+     * Both statements below must use the same formula.
+     */
+
+    /**
+     * Fold one review into the reviewed user's running aggregates. Postgres evaluates every SET
+     * expression against the old row, hence the "+ :rating" / "+ 1" inside the score.
+     * Returns the new safety score (empty if the user does not exist).
+     */
+    @Query(value = """
+        UPDATE users
+        SET rating_sum = rating_sum + :rating,
+            rating_count = rating_count + 1,
+            would_meet_again_yes = would_meet_again_yes + :yes,
+            would_meet_again_answers = would_meet_again_answers + :answered,
+            safety_score = (250 + (rating_sum + :rating - rating_count - 1) * 25) / (rating_count + 6)
+        WHERE id = :userId
+        RETURNING safety_score
+        """, nativeQuery = true)
+    Optional<Integer> applyReview(
+            @Param("userId") Long userId,
+            @Param("rating") int rating,
+            @Param("yes") int yes,
+            @Param("answered") int answered
+    );
+
+    /**
+     * Overwrite a user's aggregates with the values recomputed from the reviews table.
+     * Returns the recomputed safety score.
+     */
+    @Query(value = """
+        UPDATE users u
+        SET rating_sum = t.rating_sum,
+            rating_count = t.rating_count,
+            would_meet_again_yes = t.yes,
+            would_meet_again_answers = t.answered,
+            safety_score = (250 + (t.rating_sum - t.rating_count) * 25) / (t.rating_count + 5)
+        FROM (
+            SELECT COALESCE(SUM(rating), 0) AS rating_sum,
+                   COUNT(*) AS rating_count,
+                   COUNT(*) FILTER (WHERE would_meet_again) AS yes,
+                   COUNT(would_meet_again) AS answered
+            FROM reviews
+            WHERE reviewed_user_id = :userId
+        ) t
+        WHERE u.id = :userId
+        RETURNING u.safety_score
+        """, nativeQuery = true)
+    Optional<Integer> recomputeReviewAggregates(@Param("userId") Long userId);
+
+    /**
+     * Row lock on the user, taken before recomputing so that a review being submitted concurrently
+     * either commits before the recompute reads the reviews table or applies its increment after it.
+     */
+    @Query(value = "SELECT id FROM users WHERE id = :userId FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("userId") Long userId);
+
+    @Query("SELECT u.id AS userId, u.ratingSum AS ratingSum, u.ratingCount AS ratingCount, "
+            + "u.wouldMeetAgainYes AS wouldMeetAgainYes, u.wouldMeetAgainAnswers AS wouldMeetAgainAnswers, "
+            + "u.safetyScore AS safetyScore, u.completedMeetups AS completedMeetups "
+            + "FROM User u WHERE u.id = :userId")
+    Optional<ReputationView> findReputation(@Param("userId") Long userId);
 }
@@ -0,0 +1,49 @@
+package com.oddo.hackaton.backend.security;
+
+import com.oddo.hackaton.backend.model.entity.User;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Principal for authenticated requests. Built straight from JWT claims (no name, no password) on
+ * every API call, or from the users row (with the password hash) when logging in.
+ */
+@Getter
+@RequiredArgsConstructor
+public class AuthenticatedUser implements UserDetails
+{
+    private final Long id;
+    private final String email;
+    private final String name;
+    private final String password;
+    private final int tokenVersion;
+
+    public static AuthenticatedUser from(User user)
+    {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getName(), user.getPassword(),
+                user.getTokenVersion());
+    }
+
+    public static AuthenticatedUser from(JwtPrincipal principal)
+    {
+        return new AuthenticatedUser(principal.getUserId(), principal.getSubject(), null, null,
+                principal.getTokenVersion());
+    }
+
+    @Override
+    public String getUsername()
+    {
+        return email;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities()
+    {
+        return Collections.emptyList();
+    }
+}
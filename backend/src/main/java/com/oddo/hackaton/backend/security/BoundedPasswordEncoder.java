@@ -0,0 +1,138 @@
+package com.oddo.hackaton.backend.security;
+
+import com.oddo.hackaton.backend.exceptions.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a CPU-heavy {@link PasswordEncoder} (BCrypt) on its own small, bounded pool.
+ *
+ * At most {@code threads} hashes run at once and at most {@code queueCapacity} wait; anything beyond
+ * that fails immediately with {@link ServiceBusyException} (503). A login storm therefore costs
+ * a fixed number of cores and never pins every request thread, so the rest of the API keeps serving.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable
+{
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long waitTimeoutMs;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long waitTimeoutMs,
+                                  MeterRegistry meterRegistry)
+    {
+        this.delegate = delegate;
+        this.waitTimeoutMs = waitTimeoutMs;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("pikme.auth.password_hash")
+                .tag("operation", "encode")
+                .description("Time spent hashing passwords, excluding queueing")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("pikme.auth.password_hash")
+                .tag("operation", "matches")
+                .description("Time spent hashing passwords, excluding queueing")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("pikme.auth.password_hash.rejected")
+                .description("Hash requests rejected because the pool was saturated")
+                .register(meterRegistry);
+        Gauge.builder("pikme.auth.password_hash.queue", executor, pool -> pool.getQueue().size())
+                .description("Hash requests waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("pikme.auth.password_hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashes currently running")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword)
+    {
+        return run(() -> encodeTimer.record(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword)
+    {
+        return run(() -> matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Cheap (parses the stored hash only), so it stays on the caller's thread.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword)
+    {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close()
+    {
+        executor.shutdown();
+    }
+
+    private <T> T run(Callable<T> hash)
+    {
+        Future<T> future;
+        try
+        {
+            future = executor.submit(hash);
+        }
+        catch (RejectedExecutionException e)
+        {
+            rejected.increment();
+            throw new ServiceBusyException("Too many sign-in attempts right now, please retry shortly");
+        }
+
+        try
+        {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        }
+        catch (TimeoutException e)
+        {
+            future.cancel(true);
+            rejected.increment();
+            throw new ServiceBusyException("Too many sign-in attempts right now, please retry shortly");
+        }
+        catch (InterruptedException e)
+        {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Password hashing interrupted");
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof RuntimeException runtimeException)
+            {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
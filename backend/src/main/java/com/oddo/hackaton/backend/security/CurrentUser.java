@@ -0,0 +1,78 @@
+package com.oddo.hackaton.backend.security;
+
+import com.oddo.hackaton.backend.exceptions.UserException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.Optional;
+
+/**
+ * The caller of the current HTTP request, resolved at most once per request.
+ *
+ * Requests authenticated with a JWT already carry the user id in their {@link AuthenticatedUser}
+ * principal, so this costs nothing. Any other {@link UserDetails} principal is resolved through
+ * the cached {@link UserDirectory}. Services take the resulting id instead of an email.
+ */
+@Component
+@RequestScope
+@RequiredArgsConstructor
+public class CurrentUser
+{
+    private final UserDirectory userDirectory;
+
+    private boolean resolved;
+    private AuthenticatedUser user;
+
+    public Optional<AuthenticatedUser> find()
+    {
+        if (!resolved)
+        {
+            user = resolve();
+            resolved = true;
+        }
+        return Optional.ofNullable(user);
+    }
+
+    /**
+     * Id of the authenticated caller; fails if the request is anonymous.
+     */
+    public Long id()
+    {
+        return find().map(AuthenticatedUser::getId)
+                .orElseThrow(() -> new UserException("User not found"));
+    }
+
+    /**
+     * Id of the caller, or null on public endpoints called without a token.
+     */
+    public Long idOrNull()
+    {
+        return find().map(AuthenticatedUser::getId).orElse(null);
+    }
+
+    private AuthenticatedUser resolve()
+    {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null)
+        {
+            return null;
+        }
+
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof AuthenticatedUser authenticatedUser)
+        {
+            return authenticatedUser;
+        }
+        if (principal instanceof UserDetails userDetails)
+        {
+            return userDirectory.findByEmail(userDetails.getUsername())
+                    .map(card -> new AuthenticatedUser(card.getId(), card.getEmail(), card.getName(), null, 0))
+                    .orElse(null);
+        }
+        return null;
+    }
+}
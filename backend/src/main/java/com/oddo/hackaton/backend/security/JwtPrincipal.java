@@ -0,0 +1,23 @@
+package com.oddo.hackaton.backend.security;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Identity carried by a verified JWT: email (subject), user id ({@code uid}) and the
+ * user's token version at issue time ({@code ver}).
+ */
+@Value
+public class JwtPrincipal
+{
+    String subject;
+    Long userId;
+    int tokenVersion;
+    Instant expiresAt;
+
+    public boolean isExpired(Instant now)
+    {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
@@ -1,26 +1,40 @@
 package com.oddo.hackaton.backend.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 
 /**
  * Utility class for JWT token generation and validation.
  * Uses JJWT library with HS512 algorithm.
+ *
+ * The signing key and parser are built once (both are immutable and thread-safe), and tokens that
+ * already verified are remembered by SHA-256 digest until they expire, so a client sending the same
+ * token on every request pays for one hash instead of a parse + HMAC check.
  */
 
 @Slf4j
 @Component
 public class JwtUtils
 {
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_TOKEN_VERSION = "ver";
 
     @Value("${jwt.secret}")
     private String jwtSecret;
@@ -28,27 +42,51 @@ public class JwtUtils
     @Value("${jwt.expiration}")
     private long jwtExpirationMs;
 
+    @Value("${jwt.verified-cache-size:100000}")
+    private long verifiedCacheSize;
+
+    private SecretKey key;
+    private JwtParser parser;
+    private Cache<String, JwtPrincipal> verifiedTokens;
+
+    @PostConstruct
+    void init()
+    {
+        key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .verifyWith(key)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new TokenExpiry())
+                .build();
+    }
+
     /**
      * Generate JWT token from authentication.
      */
     public String generateJwtToken(Authentication authentication)
     {
-        UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
-        return generateTokenFromUsername(userPrincipal.getUsername());
+        return generateToken((AuthenticatedUser) authentication.getPrincipal());
     }
 
     /**
-     * Generate JWT token from username (email).
+     * Generate JWT token carrying the user's email (subject), id and token version.
      */
-    public String generateTokenFromUsername(String username)
+    public String generateToken(AuthenticatedUser user)
+    {
+        return generateToken(user.getId(), user.getEmail(), user.getTokenVersion());
+    }
+
+    public String generateToken(Long userId, String email, int tokenVersion)
     {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
 
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-
         return Jwts.builder()
-                .subject(username)
+                .subject(email)
+                .claim(CLAIM_USER_ID, userId)
+                .claim(CLAIM_TOKEN_VERSION, tokenVersion)
                 .issuedAt(now)
                 .expiration(expiryDate)
                 .signWith(key, Jwts.SIG.HS512)
@@ -56,32 +94,51 @@ public class JwtUtils
     }
 
     /**
-     * Extract username (email) from JWT token.
+     * Verify the token once and return who it belongs to, or null if it is invalid or expired.
      */
-    public String getUsernameFromJwtToken(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    public JwtPrincipal verify(String token)
+    {
+        if (token == null || token.isBlank())
+        {
+            return null;
+        }
 
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        String digest = digest(token);
+        JwtPrincipal cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null)
+        {
+            // The cache expiry is best effort; never hand out a token past its exp
+            return cached.isExpired(Instant.now()) ? null : cached;
+        }
+
+        JwtPrincipal principal = parse(token);
+        if (principal != null)
+        {
+            verifiedTokens.put(digest, principal);
+        }
+        return principal;
     }
 
     /**
-     * Validate JWT token.
+     * Parse and verify without the cache.
      */
-    public boolean validateJwtToken(String authToken)
+    JwtPrincipal parse(String token)
     {
         try
         {
-            SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(authToken);
-            return true;
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            Number userId = claims.get(CLAIM_USER_ID, Number.class);
+            Number tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+            if (userId == null || tokenVersion == null)
+            {
+                log.error("JWT token has no {}/{} claims", CLAIM_USER_ID, CLAIM_TOKEN_VERSION);
+                return null;
+            }
+            return new JwtPrincipal(
+                    claims.getSubject(),
+                    userId.longValue(),
+                    tokenVersion.intValue(),
+                    claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
         } catch (MalformedJwtException e)
         {
             log.error("Invalid JWT token: {}", e.getMessage());
@@ -94,7 +151,70 @@ public class JwtUtils
         } catch (IllegalArgumentException e)
         {
             log.error("JWT claims string is empty: {}", e.getMessage());
+        } catch (JwtException e)
+        {
+            log.error("JWT verification failed: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Extract username (email) from JWT token.
+     */
+    public String getUsernameFromJwtToken(String token) {
+        return parser.parseSignedClaims(token)
+                .getPayload()
+                .getSubject();
+    }
+
+    /**
+     * Validate JWT token.
+     */
+    public boolean validateJwtToken(String authToken)
+    {
+        return verify(authToken) != null;
+    }
+
+    private static String digest(String token)
+    {
+        try
+        {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Cached entries live until the token's own exp (capped at one hour for tokens without one).
+     */
+    private static final class TokenExpiry implements Expiry<String, JwtPrincipal>
+    {
+        private static final long MAX_TTL_NANOS = Duration.ofHours(1).toNanos();
+
+        @Override
+        public long expireAfterCreate(String key, JwtPrincipal principal, long currentTime)
+        {
+            if (principal.getExpiresAt() == null)
+            {
+                return MAX_TTL_NANOS;
+            }
+            long nanos = Duration.between(Instant.now(), principal.getExpiresAt()).toNanos();
+            return Math.max(0, nanos);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtPrincipal principal, long currentTime, long currentDuration)
+        {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtPrincipal principal, long currentTime, long currentDuration)
+        {
+            return currentDuration;
         }
-        return false;
     }
 }
@@ -0,0 +1,74 @@
+package com.oddo.hackaton.backend.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Authenticates STOMP sessions from the {@code Authorization: Bearer <jwt>} header of the CONNECT frame.
+ *
+ * Connecting without a token is allowed (the public map feed needs none), but such a session has no
+ * user: it cannot send chat messages and its {@code /user/queue/...} subscriptions never receive anything.
+ * Subscribing straight to a resolved {@code /queue/...} destination is refused, so another user's
+ * private queue cannot be tapped by guessing its name.
+ */
+@Component
+@RequiredArgsConstructor
+public class StompAuthenticationInterceptor implements ChannelInterceptor
+{
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtUtils jwtUtils;
+    private final TokenVersionCache tokenVersionCache;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel)
+    {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null)
+        {
+            return message;
+        }
+
+        if (StompCommand.CONNECT.equals(accessor.getCommand()))
+        {
+            String header = accessor.getFirstNativeHeader("Authorization");
+            if (header != null)
+            {
+                accessor.setUser(authenticate(header));
+            }
+        }
+        else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())
+                && accessor.getDestination() != null
+                && accessor.getDestination().startsWith("/queue/"))
+        {
+            throw new MessageDeliveryException("Subscribe to /user" + accessor.getDestination() + " instead");
+        }
+        return message;
+    }
+
+    private StompPrincipal authenticate(String header)
+    {
+        String token = header.startsWith(BEARER_PREFIX) ? header.substring(BEARER_PREFIX.length()) : header;
+        JwtPrincipal principal = jwtUtils.verify(token);
+        if (principal == null)
+        {
+            throw new MessageDeliveryException("Invalid or expired token");
+        }
+
+        Optional<Integer> current = tokenVersionCache.currentVersion(principal.getUserId());
+        if (current.isEmpty() || current.get() != principal.getTokenVersion())
+        {
+            throw new MessageDeliveryException("Token has been revoked");
+        }
+        return new StompPrincipal(principal.getUserId());
+    }
+}
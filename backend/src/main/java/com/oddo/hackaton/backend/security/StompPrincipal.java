@@ -0,0 +1,21 @@
+package com.oddo.hackaton.backend.security;
+
+import lombok.Value;
+
+import java.security.Principal;
+
+/**
+ * WebSocket session user. The name is the user id, which is what {@code convertAndSendToUser}
+ * is called with, so {@code /user/queue/...} destinations resolve without a lookup.
+ */
+@Value
+public class StompPrincipal implements Principal
+{
+    Long userId;
+
+    @Override
+    public String getName()
+    {
+        return String.valueOf(userId);
+    }
+}
@@ -0,0 +1,53 @@
+package com.oddo.hackaton.backend.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.oddo.hackaton.backend.event.TokenVersionChangedEvent;
+import com.oddo.hackaton.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Current token version per user. A JWT is only accepted while its {@code ver} claim matches,
+ * so bumping the version (password change) revokes every token issued before it.
+ *
+ * Misses load one integer by primary key. Entries are dropped as soon as a version change commits
+ * on this node; other nodes pick it up within {@code jwt.token-version-ttl-seconds}.
+ */
+@Component
+public class TokenVersionCache
+{
+    private final LoadingCache<Long, Optional<Integer>> versions;
+
+    public TokenVersionCache(UserRepository userRepository,
+                             @Value("${jwt.token-version-ttl-seconds:60}") long ttlSeconds)
+    {
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build(userRepository::findTokenVersionById);
+    }
+
+    /**
+     * @return the user's current version, or empty if the user no longer exists
+     */
+    public Optional<Integer> currentVersion(Long userId)
+    {
+        return versions.get(userId);
+    }
+
+    public void invalidate(Long userId)
+    {
+        versions.invalidate(userId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTokenVersionChanged(TokenVersionChangedEvent event)
+    {
+        invalidate(event.getUserId());
+    }
+}
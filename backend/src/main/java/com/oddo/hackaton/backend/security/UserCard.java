@@ -0,0 +1,14 @@
+package com.oddo.hackaton.backend.security;
+
+import lombok.Value;
+
+/**
+ * Minimal identity of a user: enough to resolve an email without loading the users row.
+ */
+@Value
+public class UserCard
+{
+    Long id;
+    String email;
+    String name;
+}
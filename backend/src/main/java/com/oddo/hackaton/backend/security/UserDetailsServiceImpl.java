@@ -4,21 +4,21 @@ import com.oddo.hackaton.backend.model.entity.User;
 import com.oddo.hackaton.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 
-import java.util.Collections;
-
 /**
  * Implementation of Spring Security's UserDetailsService.
  * Loads user details from database for authentication.
  */
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService
 {
     private final UserRepository userRepository;
 
@@ -29,14 +29,21 @@ public class UserDetailsServiceImpl implements UserDetailsService
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getEmail())
-                .password(user.getPassword())
-                .authorities(Collections.emptyList())
-                .accountExpired(false)
-                .accountLocked(false)
-                .credentialsExpired(false)
-                .disabled(false)
-                .build();
+        return AuthenticatedUser.from(user);
+    }
+
+    /**
+     * Called by DaoAuthenticationProvider after a successful login when the stored hash is weaker
+     * than the configured BCrypt strength. Own transaction: login itself runs without one.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public UserDetails updatePassword(UserDetails user, String newPassword)
+    {
+        userRepository.updatePasswordByEmail(user.getUsername(), newPassword);
+
+        AuthenticatedUser current = (AuthenticatedUser) user;
+        return new AuthenticatedUser(current.getId(), current.getEmail(), current.getName(), newPassword,
+                current.getTokenVersion());
     }
 }
@@ -0,0 +1,47 @@
+package com.oddo.hackaton.backend.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.oddo.hackaton.backend.event.UserProfileChangedEvent;
+import com.oddo.hackaton.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded email -> {@link UserCard} cache. Emails never change today, so the TTL only bounds how
+ * long a deleted user lingers; a profile edit drops the card after commit ({@link UserProfileChangedEvent}).
+ */
+@Component
+public class UserDirectory
+{
+    private final LoadingCache<String, Optional<UserCard>> cardsByEmail;
+
+    public UserDirectory(UserRepository userRepository,
+                         @Value("${users.card-cache-ttl-seconds:600}") long ttlSeconds)
+    {
+        this.cardsByEmail = Caffeine.newBuilder()
+                .maximumSize(50_000)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build(userRepository::findCardByEmail);
+    }
+
+    public Optional<UserCard> findByEmail(String email)
+    {
+        return email == null ? Optional.empty() : cardsByEmail.get(email);
+    }
+
+    public void invalidate(String email)
+    {
+        cardsByEmail.invalidate(email);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProfileChanged(UserProfileChangedEvent event)
+    {
+        invalidate(event.getEmail());
+    }
+}
@@ -0,0 +1,122 @@
+package com.oddo.hackaton.backend.service;
+
+import com.oddo.hackaton.backend.event.AlertSubscriptionEvent;
+import com.oddo.hackaton.backend.exceptions.AlertException;
+import com.oddo.hackaton.backend.geo.NearbyRanker;
+import com.oddo.hackaton.backend.geo.StandingAlert;
+import com.oddo.hackaton.backend.model.dto.reponse.AlertSubscriptionResponse;
+import com.oddo.hackaton.backend.model.dto.request.CreateAlertRequest;
+import com.oddo.hackaton.backend.model.entity.AlertSubscription;
+import com.oddo.hackaton.backend.model.enums.ActivityType;
+import com.oddo.hackaton.backend.repository.AlertSubscriptionRepository;
+import com.oddo.hackaton.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CRUD for alert subscriptions. Matching happens in AlertIndex / PickRequestAlertNotifier; this service
+ * only keeps the table and, through {@link AlertSubscriptionEvent}s, the index up to date.
+ */
+@Service
+@RequiredArgsConstructor
+public class AlertService
+{
+    private static final DateTimeFormatter WINDOW_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final AlertSubscriptionRepository alertSubscriptionRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${alerts.max-per-user:10}")
+    private int maxPerUser;
+
+    @Transactional
+    public AlertSubscriptionResponse createAlert(Long userId, CreateAlertRequest request)
+    {
+        if ((request.getWindowStart() == null) != (request.getWindowEnd() == null))
+        {
+            throw new AlertException("Give both windowStart and windowEnd, or neither");
+        }
+        if (request.getWindowStart() != null && request.getWindowStart().equals(request.getWindowEnd()))
+        {
+            throw new AlertException("The time window is empty");
+        }
+        if (alertSubscriptionRepository.countByUserId(userId) >= maxPerUser)
+        {
+            throw new AlertException("You can have at most " + maxPerUser + " alerts");
+        }
+
+        AlertSubscription subscription = alertSubscriptionRepository.save(AlertSubscription.builder()
+                .user(userRepository.getReferenceById(userId))
+                .latitude(request.getLatitude())
+                .longitude(request.getLongitude())
+                .radiusMeters(request.getRadiusMeters())
+                .activityMask(NearbyRanker.activityMask(request.getActivityTypes()))
+                .windowStartMinute(minuteOfDay(request.getWindowStart()))
+                .windowEndMinute(minuteOfDay(request.getWindowEnd()))
+                .build());
+
+        eventPublisher.publishEvent(AlertSubscriptionEvent.created(StandingAlert.from(subscription)));
+        return toResponse(subscription);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AlertSubscriptionResponse> getMyAlerts(Long userId)
+    {
+        return alertSubscriptionRepository.findByUserIdOrderByIdDesc(userId).stream()
+                .map(AlertService::toResponse)
+                .toList();
+    }
+
+    @Transactional
+    public void deleteAlert(Long subscriptionId, Long userId)
+    {
+        AlertSubscription subscription = alertSubscriptionRepository.findByIdAndUserId(subscriptionId, userId)
+                .orElseThrow(() -> new AlertException("Alert not found"));
+        alertSubscriptionRepository.delete(subscription);
+        eventPublisher.publishEvent(AlertSubscriptionEvent.deleted(subscriptionId));
+    }
+
+    private static Integer minuteOfDay(LocalTime time)
+    {
+        return time != null ? time.getHour() * 60 + time.getMinute() : null;
+    }
+
+    private static String formatMinute(Integer minute)
+    {
+        return minute != null ? LocalTime.of(minute / 60, minute % 60).format(WINDOW_FORMAT) : null;
+    }
+
+    private static AlertSubscriptionResponse toResponse(AlertSubscription subscription)
+    {
+        List<ActivityType> activityTypes = new ArrayList<>();
+        for (ActivityType type : ActivityType.values())
+        {
+            if ((subscription.getActivityMask() & (1 << type.ordinal())) != 0)
+            {
+                activityTypes.add(type);
+            }
+        }
+
+        return AlertSubscriptionResponse.builder()
+                .subscriptionId(subscription.getId())
+                .latitude(subscription.getLatitude())
+                .longitude(subscription.getLongitude())
+                .radiusMeters(subscription.getRadiusMeters())
+                .activityTypes(activityTypes)
+                .windowStart(formatMinute(subscription.getWindowStartMinute()))
+                .windowEnd(formatMinute(subscription.getWindowEndMinute()))
+                .createdAt(subscription.getCreatedAt() != null
+                        ? subscription.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+                        : null)
+                .build();
+    }
+}
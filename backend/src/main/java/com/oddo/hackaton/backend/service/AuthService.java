@@ -1,19 +1,21 @@
 package com.oddo.hackaton.backend.service;
 
 
+import com.oddo.hackaton.backend.exceptions.EmailInUseException;
 import com.oddo.hackaton.backend.model.dto.reponse.AuthResponse;
 import com.oddo.hackaton.backend.model.dto.request.LoginRequest;
 import com.oddo.hackaton.backend.model.dto.request.RegisterRequest;
 import com.oddo.hackaton.backend.model.entity.User;
 import com.oddo.hackaton.backend.repository.UserRepository;
+import com.oddo.hackaton.backend.security.AuthenticatedUser;
 import com.oddo.hackaton.backend.security.JwtUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 
@@ -35,13 +37,17 @@ public class AuthService {
      *
      * @param request Registration details
      * @return AuthResponse with JWT token
-     * @throws RuntimeException if email already exists
+     * @throws EmailInUseException if email already exists (409)
+     *
+     * Not @Transactional on purpose: hashing takes ~100ms and must not hold a DB connection.
+     * With open-in-view off, the email check and the save each borrow a connection only for their
+     * own statement, so none is held while hashing. The unique constraint on email rejects a
+     * concurrent duplicate that got past the check, and that is reported as the same 409.
      */
-    @Transactional
     public AuthResponse register(RegisterRequest request) {
         // Check if email already exists
         if (userRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("Email already in use");
+            throw new EmailInUseException("Email already in use");
         }
 
         // Create new user
@@ -52,12 +58,18 @@ public class AuthService {
         user.setSafetyScore(50); // Default safety score
         user.setCompletedMeetups(0);
         user.setIsVerified(false);
+        user.setTokenVersion(0);
         user.setCreatedAt(LocalDateTime.now());
 
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new EmailInUseException("Email already in use");
+        }
 
         // Generate JWT token
-        String token = jwtUtils.generateTokenFromUsername(savedUser.getEmail());
+        String token = jwtUtils.generateToken(AuthenticatedUser.from(savedUser));
 
         return AuthResponse.builder()
                 .token(token)
@@ -73,8 +85,10 @@ public class AuthService {
      *
      * @param request Login credentials
      * @return AuthResponse with JWT token
+     *
+     * The user lookup in UserDetailsServiceImpl returns its connection before the password is
+     * checked (open-in-view is off), so BCrypt runs without holding one.
      */
-    @Transactional(readOnly = true)
     public AuthResponse login(LoginRequest request) {
         // Authenticate user
         Authentication authentication = authenticationManager.authenticate(
@@ -84,12 +98,9 @@ public class AuthService {
                 )
         );
 
-        // Generate JWT token
-        String token = jwtUtils.generateJwtToken(authentication);
-
-        // Get user details
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        // The authenticated principal was loaded by UserDetailsServiceImpl; no second lookup
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
+        String token = jwtUtils.generateToken(user);
 
         return AuthResponse.builder()
                 .token(token)
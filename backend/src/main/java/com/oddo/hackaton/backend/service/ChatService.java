@@ -0,0 +1,172 @@
+package com.oddo.hackaton.backend.service;
+
+import com.oddo.hackaton.backend.chat.ChatMessage;
+import com.oddo.hackaton.backend.chat.Conversation;
+import com.oddo.hackaton.backend.chat.ConversationRegistry;
+import com.oddo.hackaton.backend.chat.ConversationSummaries;
+import com.oddo.hackaton.backend.chat.MessageIdAllocator;
+import com.oddo.hackaton.backend.chat.MessageWriteBehind;
+import com.oddo.hackaton.backend.exceptions.MessageException;
+import com.oddo.hackaton.backend.exceptions.ServiceBusyException;
+import com.oddo.hackaton.backend.model.dto.reponse.ChatMessageResponse;
+import com.oddo.hackaton.backend.model.dto.reponse.ConversationSummaryResponse;
+import com.oddo.hackaton.backend.model.dto.request.SendMessageRequest;
+import com.oddo.hackaton.backend.model.projection.ChatMessageView;
+import com.oddo.hackaton.backend.repository.MessageRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chat between the two users of an ACCEPTED match.
+ *
+ * A message is delivered to both participants on {@code /user/queue/chat} as soon as it has an id;
+ * the database write happens afterwards in {@link MessageWriteBehind}, so delivery latency does not
+ * include a commit. Recent messages stay in the conversation ring, which serves the newest history
+ * page; older messages that are delivered but not yet written are read back from the write-behind.
+ *
+ * Unread counts and last-message previews come from {@link ConversationSummaries}, never from a
+ * COUNT over {@code messages}.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChatService
+{
+    public static final String CHAT_QUEUE = "/queue/chat";
+    static final int MAX_CONTENT_LENGTH = 2000;
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
+    private final ConversationRegistry conversationRegistry;
+    private final ConversationSummaries conversationSummaries;
+    private final MessageIdAllocator idAllocator;
+    private final MessageWriteBehind writeBehind;
+    private final MessageRepository messageRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public ChatMessageResponse send(Long matchId, Long senderId, SendMessageRequest request)
+    {
+        Conversation conversation = requireParticipant(matchId, senderId);
+        if (!conversation.isOpen())
+        {
+            throw new MessageException("Chat is only available for accepted matches");
+        }
+
+        String content = request.getContent() != null ? request.getContent().strip() : "";
+        if (content.isEmpty() || content.length() > MAX_CONTENT_LENGTH)
+        {
+            throw new MessageException("Message must be 1 to " + MAX_CONTENT_LENGTH + " characters");
+        }
+
+        // Id, ring and fan-out under the conversation lock so both phones see the same order as history
+        return conversation.withLock(() -> {
+            ChatMessage message = new ChatMessage(idAllocator.next(), matchId, senderId, content,
+                    request.getClientId(), LocalDateTime.now());
+            if (!writeBehind.offer(message))
+            {
+                throw new ServiceBusyException("Chat is busy, please retry in a moment");
+            }
+            conversation.append(message);
+            conversationSummaries.onMessage(conversation, message);
+
+            ChatMessageResponse response = toResponse(message);
+            response.setClientId(message.getClientId());
+            messagingTemplate.convertAndSendToUser(conversation.getPickerId().toString(), CHAT_QUEUE, response);
+            messagingTemplate.convertAndSendToUser(conversation.getRequesterId().toString(), CHAT_QUEUE, response);
+            return response;
+        });
+    }
+
+    /**
+     * One page of a conversation, newest first. Pass the last messageId of the previous page as
+     * {@code before} (null for the newest page).
+     */
+    public List<ChatMessageResponse> getHistory(Long matchId, Long userId, Long before, int limit)
+    {
+        Conversation conversation = requireParticipant(matchId, userId);
+        int pageSize = Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_SIZE));
+        long cursor = before != null ? before : Long.MAX_VALUE;
+
+        List<ChatMessageResponse> page = new ArrayList<>(pageSize);
+        List<ChatMessage> buffered = conversation.recentBefore(cursor, pageSize);
+        buffered.forEach(message -> page.add(toResponse(message)));
+        if (page.size() == pageSize)
+        {
+            return page;
+        }
+
+        // Everything the ring had below the cursor is on the page. Older messages can have left the
+        // ring before their row was written, so the write-behind's unwritten ones come next
+        long olderThan = buffered.isEmpty() ? cursor : buffered.getLast().getId();
+        List<ChatMessage> unwritten = writeBehind.unwrittenBefore(matchId, olderThan, pageSize - page.size());
+        unwritten.forEach(message -> page.add(toResponse(message)));
+        if (page.size() == pageSize)
+        {
+            return page;
+        }
+
+        // Below the oldest unwritten message everything of this match is in the database
+        if (!unwritten.isEmpty())
+        {
+            olderThan = unwritten.getLast().getId();
+        }
+        messageRepository.findPage(matchId, olderThan, pageSize - page.size())
+                .forEach(view -> page.add(toResponse(view)));
+        return page;
+    }
+
+    /**
+     * Mark the conversation read for the user up to {@code upToId} (null = up to the latest message).
+     */
+    public ConversationSummaryResponse markRead(Long matchId, Long userId, Long upToId)
+    {
+        Conversation conversation = requireParticipant(matchId, userId);
+        return conversationSummaries.markRead(conversation, userId, upToId);
+    }
+
+    /**
+     * All of the user's conversations with unread counts, most recent activity first.
+     */
+    public List<ConversationSummaryResponse> getConversations(Long userId)
+    {
+        if (!conversationSummaries.isWarm())
+        {
+            throw new ServiceBusyException("Conversations are still loading, please retry in a moment");
+        }
+        return conversationSummaries.forUser(userId);
+    }
+
+    private Conversation requireParticipant(Long matchId, Long userId)
+    {
+        return conversationRegistry.find(matchId)
+                .filter(conversation -> conversation.hasParticipant(userId))
+                .orElseThrow(() -> new AccessDeniedException("You are not part of this match"));
+    }
+
+    private static ChatMessageResponse toResponse(ChatMessage message)
+    {
+        return ChatMessageResponse.builder()
+                .messageId(message.getId())
+                .matchId(message.getMatchId())
+                .senderId(message.getSenderId())
+                .content(message.getContent())
+                .createdAt(message.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
+                .build();
+    }
+
+    private static ChatMessageResponse toResponse(ChatMessageView view)
+    {
+        return ChatMessageResponse.builder()
+                .messageId(view.getMessageId())
+                .matchId(view.getMatchId())
+                .senderId(view.getSenderId())
+                .content(view.getContent())
+                .createdAt(view.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
+                .build();
+    }
+}
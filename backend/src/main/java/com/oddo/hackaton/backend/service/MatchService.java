@@ -1,20 +1,31 @@
 package com.oddo.hackaton.backend.service;
 
+import com.oddo.hackaton.backend.event.MatchEvent;
+import com.oddo.hackaton.backend.event.PickRequestEvent;
+import com.oddo.hackaton.backend.exceptions.PickRequestTakenException;
+import com.oddo.hackaton.backend.exceptions.PickRequestUnavailableException;
 import com.oddo.hackaton.backend.model.dto.reponse.MatchResponse;
 import com.oddo.hackaton.backend.model.entity.Match;
+import com.oddo.hackaton.backend.model.entity.Meetup;
 import com.oddo.hackaton.backend.model.entity.PickRequest;
-import com.oddo.hackaton.backend.model.entity.User;
 import com.oddo.hackaton.backend.model.enums.MatchStatus;
 import com.oddo.hackaton.backend.model.enums.PickStatus;
+import com.oddo.hackaton.backend.model.projection.MatchInboxView;
+import com.oddo.hackaton.backend.realtime.MatchEventStream;
 import com.oddo.hackaton.backend.repository.MatchRepository;
+import com.oddo.hackaton.backend.repository.MeetupRepository;
 import com.oddo.hackaton.backend.repository.PickRequestRepository;
-import com.oddo.hackaton.backend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 
 
@@ -23,64 +34,85 @@ import java.util.List;
 public class MatchService {
 
     private final MatchRepository matchRepository;
+    private final MeetupRepository meetupRepository;
     private final PickRequestRepository pickRequestRepository;
-    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MatchEventStream matchEventStream;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final int MAX_INBOX_PAGE_SIZE = 100;
 
     /**
-     * Picker sends a pick request - creates a PENDING match.
+     * Picker sends a pick request - queues a PENDING match.
+     *
+     * A request takes any number of pending pickers while it is ACTIVE (the waitlist); the requester
+     * accepts one of them later. Queueing is a single INSERT that only reads the request row
+     * (see {@link MatchRepository#createMatches}), so pickers tapping the same request at once do not
+     * wait on each other. Once the requester has accepted someone, pickers get a 409 "already taken";
+     * a request that was cancelled or expired gets a 410 "no longer available".
      */
     @Transactional
-    public MatchResponse createMatch(Long pickRequestId, String pickerEmail) {
-        User picker = userRepository.findByEmail(pickerEmail)
-                .orElseThrow(() -> new RuntimeException("Picker user not found"));
-
-        PickRequest pickRequest = pickRequestRepository.findById(pickRequestId)
-                .orElseThrow(() -> new RuntimeException("Pick request not found"));
-
-        // Validation
-        if (pickRequest.getStatus() != PickStatus.ACTIVE) {
-            throw new RuntimeException("Pick request is not active");
+    public MatchResponse createMatch(Long pickRequestId, Long pickerId) {
+        List<MatchInboxView> created = matchRepository.createMatches(
+                new Long[]{pickRequestId}, new Long[]{pickerId}, LocalDateTime.now());
+
+        if (created.isEmpty()) {
+            // Nothing inserted: find out why (cheap, and only on the failure path)
+            if (matchRepository.existsByPickRequestIdAndPickerUserId(pickRequestId, pickerId)) {
+                throw new RuntimeException("You already sent a pick request for this");
+            }
+            PickRequest pickRequest = pickRequestRepository.findById(pickRequestId)
+                    .orElseThrow(() -> new RuntimeException("Pick request not found"));
+            if (pickRequest.getUser().getId().equals(pickerId)) {
+                throw new RuntimeException("Cannot pick your own request");
+            }
+            if (pickRequest.getStatus() == PickStatus.MATCHED) {
+                throw new PickRequestTakenException("Pick request is already taken");
+            }
+            throw new PickRequestUnavailableException("Pick request is no longer available");
         }
 
-        if (pickRequest.getUser().getId().equals(picker.getId())) {
-            throw new RuntimeException("Cannot pick your own request");
-        }
+        MatchResponse response = mapToResponse(created.get(0));
+        eventPublisher.publishEvent(new MatchEvent(response));
+        return response;
+    }
 
-        // Check if match already exists
-        if (matchRepository.findByPickRequestIdAndPickerUserId(pickRequestId, picker.getId()).isPresent()) {
-            throw new RuntimeException("You already sent a pick request for this");
+    /**
+     * Batch form of {@link #createMatch} for the quick-match engine: one statement queues every pair
+     * (see {@link MatchRepository#createMatches}). Only the pairs that were actually created are
+     * returned; the rest lost to a concurrent accept, cancel or expiry, or were already queued.
+     */
+    @Transactional
+    public List<MatchResponse> createMatches(Long[] pickRequestIds, Long[] pickerIds) {
+        if (pickRequestIds.length == 0) {
+            return List.of();
         }
 
-        // Create match
-        Match match = Match.builder()
-                .pickRequest(pickRequest)
-                .pickerUser(picker)
-                .requesterUser(pickRequest.getUser())
-                .status(MatchStatus.PENDING)
-                .build();
-
-        Match savedMatch = matchRepository.save(match);
-
-        // Update pick request status
-        pickRequest.setStatus(PickStatus.MATCHED);
-        pickRequestRepository.save(pickRequest);
-
-        return mapToResponse(savedMatch);
+        List<MatchResponse> created = new ArrayList<>();
+        for (MatchInboxView view : matchRepository.createMatches(pickRequestIds, pickerIds, LocalDateTime.now())) {
+            MatchResponse response = mapToResponse(view);
+            eventPublisher.publishEvent(new MatchEvent(response));
+            created.add(response);
+        }
+        return created;
     }
 
     /**
      * Requester approves or declines the match.
+     *
+     * Approving takes the request ACTIVE -> MATCHED first, accepts this match, then declines every other
+     * pending picker in one set-based UPDATE. Declining only closes this match: the request stays ACTIVE
+     * and the rest of the waitlist is untouched.
      */
     @Transactional
-    public MatchResponse respondToMatch(Long matchId, Boolean approved, String requesterEmail) {
+    public MatchResponse respondToMatch(Long matchId, Boolean approved, Long requesterId) {
         Match match = matchRepository.findById(matchId)
                 .orElseThrow(() -> new RuntimeException("Match not found"));
 
-        User requester = userRepository.findByEmail(requesterEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
         // Validation
-        if (!match.getRequesterUser().getId().equals(requester.getId())) {
+        if (!match.getRequesterUser().getId().equals(requesterId)) {
             throw new RuntimeException("Only the requester can respond to this match");
         }
 
@@ -88,38 +120,93 @@ public class MatchService {
             throw new RuntimeException("Match is not pending");
         }
 
-        // Update match status
+        Long pickRequestId = match.getPickRequest().getId();
+        List<MatchInboxView> declined = List.of();
+
         if (approved) {
-            match.setStatus(MatchStatus.ACCEPTED);
-            match.setApprovedAt(LocalDateTime.now());
-        } else {
-            match.setStatus(MatchStatus.DECLINED);
-            // Reset pick request to ACTIVE so others can pick
-            PickRequest pickRequest = match.getPickRequest();
-            pickRequest.setStatus(PickStatus.ACTIVE);
-            pickRequestRepository.save(pickRequest);
+            // Waits for pickers still queueing on the row; anyone after this sees MATCHED
+            int claimed = pickRequestRepository.updateStatusForOwner(
+                    pickRequestId, requesterId, PickStatus.ACTIVE, PickStatus.MATCHED);
+            if (claimed == 0) {
+                throw new RuntimeException("Pick request is no longer active");
+            }
+            if (matchRepository.accept(matchId, MatchStatus.PENDING, MatchStatus.ACCEPTED, LocalDateTime.now()) == 0) {
+                // Rolls the claim back with it
+                throw new RuntimeException("Match is not pending");
+            }
+
+            // The meetup both users will confirm (see MeetupService)
+            meetupRepository.save(Meetup.builder().match(matchRepository.getReferenceById(matchId)).build());
+            declined = declineWaitlist(new Long[]{pickRequestId});
+
+            PickRequest pickRequest = pickRequestRepository.findById(pickRequestId)
+                    .orElseThrow(() -> new RuntimeException("Pick request not found"));
+            eventPublisher.publishEvent(PickRequestEvent.matched(pickRequest));
+        } else if (matchRepository.decline(matchId, MatchStatus.PENDING, MatchStatus.DECLINED) == 0) {
+            throw new RuntimeException("Match is not pending");
         }
 
-        Match updatedMatch = matchRepository.save(match);
-        return mapToResponse(updatedMatch);
+        // Re-read: the conditional updates cleared the persistence context
+        Match updatedMatch = matchRepository.findById(matchId)
+                .orElseThrow(() -> new RuntimeException("Match not found"));
+        MatchResponse response = mapToResponse(updatedMatch);
+        eventPublisher.publishEvent(new MatchEvent(response));
+        publishAll(declined);
+        return response;
     }
 
     /**
-     * Get all matches for the current user (as picker or requester).
+     * Decline the whole waitlist of requests that just left ACTIVE (cancelled or expired) and tell
+     * each picker. Must run after, and in the same transaction as, the status change.
      */
-    @Transactional(readOnly = true)
-    public List<MatchResponse> getMyMatches(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    @Transactional
+    public void declinePending(Long[] pickRequestIds) {
+        if (pickRequestIds.length > 0) {
+            publishAll(declineWaitlist(pickRequestIds));
+        }
+    }
 
-        List<Match> matches = matchRepository.findByUserId(user.getId());
-        DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    /**
+     * {@link MatchRepository#declinePending} returns rows, so it cannot be @Modifying and nothing clears the
+     * persistence context behind it: do it here, like clearAutomatically does for the other conditional
+     * updates. The statement has already flushed pending changes (Hibernate flushes before native queries).
+     */
+    private List<MatchInboxView> declineWaitlist(Long[] pickRequestIds) {
+        List<MatchInboxView> declined = matchRepository.declinePending(pickRequestIds);
+        entityManager.clear();
+        return declined;
+    }
 
-        return matches.stream()
+    /**
+     * One page of the current user's matches (as picker or requester), newest first.
+     *
+     * Keyset pagination: pass the last matchId of the previous page as {@code before} (null for the
+     * first page). A page is a single query, whatever its size.
+     *
+     * @param status only matches in this status, or null for all
+     */
+    @Transactional(readOnly = true)
+    public List<MatchResponse> getMyMatches(Long userId, Long before, int limit, MatchStatus status) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_INBOX_PAGE_SIZE));
+        long cursor = before != null ? before : Long.MAX_VALUE;
+
+        return matchRepository.findInboxPage(userId, cursor, status != null ? status.name() : null, pageSize)
+                .stream()
                 .map(this::mapToResponse)
                 .toList();
     }
 
+    /**
+     * Open a live stream of the user's match changes (see {@link MatchEventStream}).
+     */
+    public SseEmitter openMatchStream(Long userId, Long lastEventId) {
+        return matchEventStream.open(userId, lastEventId);
+    }
+
+    private void publishAll(List<MatchInboxView> changed) {
+        changed.forEach(view -> eventPublisher.publishEvent(new MatchEvent(mapToResponse(view))));
+    }
+
     private MatchResponse mapToResponse(Match match) {
         DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
@@ -135,4 +222,20 @@ public class MatchService {
                 .approvedAt(match.getApprovedAt() != null ? match.getApprovedAt().format(formatter) : null)
                 .build();
     }
+
+    private MatchResponse mapToResponse(MatchInboxView view) {
+        DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+        return MatchResponse.builder()
+                .matchId(view.getMatchId())
+                .pickRequestId(view.getPickRequestId())
+                .pickerId(view.getPickerId())
+                .pickerName(view.getPickerName())
+                .requesterId(view.getRequesterId())
+                .requesterName(view.getRequesterName())
+                .status(MatchStatus.valueOf(view.getStatus()))
+                .createdAt(view.getCreatedAt().format(formatter))
+                .approvedAt(view.getApprovedAt() != null ? view.getApprovedAt().format(formatter) : null)
+                .build();
+    }
 }
@@ -0,0 +1,174 @@
+package com.oddo.hackaton.backend.service;
+
+import com.oddo.hackaton.backend.event.MatchEvent;
+import com.oddo.hackaton.backend.event.MeetupEvent;
+import com.oddo.hackaton.backend.event.PickRequestEvent;
+import com.oddo.hackaton.backend.exceptions.MeetupException;
+import com.oddo.hackaton.backend.model.dto.reponse.MatchResponse;
+import com.oddo.hackaton.backend.model.dto.reponse.MeetupResponse;
+import com.oddo.hackaton.backend.model.enums.MatchStatus;
+import com.oddo.hackaton.backend.model.enums.MeetupStatus;
+import com.oddo.hackaton.backend.model.projection.MeetupEndView;
+import com.oddo.hackaton.backend.model.projection.MeetupStateView;
+import com.oddo.hackaton.backend.repository.MeetupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Meetup state machine: NOT_STARTED -> IN_PROGRESS (both confirmed start) -> COMPLETED (both confirmed end),
+ * or CANCELLED by either side before it completes.
+ *
+ * Each tap is one conditional UPDATE in MeetupRepository that sets the caller's flag and, if the other side
+ * has already confirmed, performs the transition (and on completion the Match/PickRequest cascade) in the
+ * same statement. Nothing is read first, so simultaneous taps from both phones serialize on the row lock
+ * and exactly one of them observes the transition. A repeated tap returns the current state unchanged.
+ * The tap that completes the meetup also publishes the cascaded Match and PickRequest changes, so the
+ * match stream and the map hear about them like any other status change.
+ */
+@Service
+@RequiredArgsConstructor
+public class MeetupService
+{
+    private final MeetupRepository meetupRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional(readOnly = true)
+    public MeetupResponse getMeetup(Long matchId, Long userId)
+    {
+        return meetupRepository.findState(matchId, userId)
+                .map(MeetupService::toResponse)
+                .orElseThrow(() -> new MeetupException("Meetup not found"));
+    }
+
+    @Transactional
+    public MeetupResponse confirmStart(Long matchId, Long userId)
+    {
+        LocalDateTime now = LocalDateTime.now();
+        Optional<MeetupStateView> changed = meetupRepository.confirmStart(matchId, userId, now);
+        if (changed.isEmpty() && meetupRepository.createIfMissing(matchId, userId, now) > 0)
+        {
+            changed = meetupRepository.confirmStart(matchId, userId, now);
+        }
+
+        if (changed.isEmpty())
+        {
+            return currentState(matchId, userId, Set.of(MeetupStatus.IN_PROGRESS, MeetupStatus.COMPLETED),
+                    "Meetup cannot be started");
+        }
+
+        MeetupStateView state = changed.get();
+        if (MeetupStatus.IN_PROGRESS.name().equals(state.getStatus()))
+        {
+            eventPublisher.publishEvent(event(MeetupEvent.Type.STARTED, state));
+        }
+        return toResponse(state);
+    }
+
+    @Transactional
+    public MeetupResponse confirmEnd(Long matchId, Long userId)
+    {
+        Optional<MeetupEndView> changed = meetupRepository.confirmEnd(matchId, userId, LocalDateTime.now());
+        if (changed.isEmpty())
+        {
+            return currentState(matchId, userId, Set.of(MeetupStatus.COMPLETED), "Meetup is not in progress");
+        }
+
+        MeetupEndView state = changed.get();
+        if (MeetupStatus.COMPLETED.name().equals(state.getStatus()))
+        {
+            eventPublisher.publishEvent(event(MeetupEvent.Type.COMPLETED, state));
+            if (state.getCompletedMatchId() != null)
+            {
+                eventPublisher.publishEvent(new MatchEvent(completedMatch(state)));
+            }
+            if (state.getCompletedPickRequestId() != null)
+            {
+                eventPublisher.publishEvent(PickRequestEvent.completed(state.getCompletedPickRequestId(),
+                        state.getPickRequestLatitude(), state.getPickRequestLongitude()));
+            }
+        }
+        return toResponse(state);
+    }
+
+    @Transactional
+    public MeetupResponse cancel(Long matchId, Long userId)
+    {
+        Optional<MeetupStateView> changed = meetupRepository.cancel(matchId, userId, LocalDateTime.now());
+        if (changed.isEmpty())
+        {
+            return currentState(matchId, userId, Set.of(MeetupStatus.CANCELLED), "Meetup is already over");
+        }
+
+        eventPublisher.publishEvent(event(MeetupEvent.Type.CANCELLED, changed.get()));
+        return toResponse(changed.get());
+    }
+
+    /**
+     * Nothing changed: a repeated tap (already in one of {@code idempotent}) gets the current state,
+     * anything else is an invalid transition.
+     */
+    private MeetupResponse currentState(Long matchId, Long userId, Set<MeetupStatus> idempotent, String error)
+    {
+        MeetupStateView state = meetupRepository.findState(matchId, userId)
+                .orElseThrow(() -> new MeetupException("Meetup not found"));
+        MeetupStatus status = MeetupStatus.valueOf(state.getStatus());
+        if (!idempotent.contains(status))
+        {
+            throw new MeetupException(error + " (status " + status + ")");
+        }
+        return toResponse(state);
+    }
+
+    private static MeetupEvent event(MeetupEvent.Type type, MeetupStateView state)
+    {
+        return MeetupEvent.builder()
+                .type(type)
+                .meetupId(state.getMeetupId())
+                .pickerId(state.getPickerId())
+                .requesterId(state.getRequesterId())
+                .startedAt(state.getStartedAt())
+                .durationMinutes(state.getDurationMinutes())
+                .build();
+    }
+
+    private static MatchResponse completedMatch(MeetupEndView state)
+    {
+        DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+        return MatchResponse.builder()
+                .matchId(state.getCompletedMatchId())
+                .pickRequestId(state.getCompletedPickRequestId())
+                .pickerId(state.getPickerId())
+                .pickerName(state.getPickerName())
+                .requesterId(state.getRequesterId())
+                .requesterName(state.getRequesterName())
+                .status(MatchStatus.COMPLETED)
+                .createdAt(state.getMatchCreatedAt().format(formatter))
+                .approvedAt(state.getMatchApprovedAt() != null ? state.getMatchApprovedAt().format(formatter) : null)
+                .build();
+    }
+
+    private static MeetupResponse toResponse(MeetupStateView state)
+    {
+        DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+        return MeetupResponse.builder()
+                .meetupId(state.getMeetupId())
+                .matchId(state.getMatchId())
+                .status(MeetupStatus.valueOf(state.getStatus()))
+                .pickerConfirmedStart(Boolean.TRUE.equals(state.getPickerConfirmedStart()))
+                .requesterConfirmedStart(Boolean.TRUE.equals(state.getRequesterConfirmedStart()))
+                .pickerConfirmedEnd(Boolean.TRUE.equals(state.getPickerConfirmedEnd()))
+                .requesterConfirmedEnd(Boolean.TRUE.equals(state.getRequesterConfirmedEnd()))
+                .startedAt(state.getStartedAt() != null ? state.getStartedAt().format(formatter) : null)
+                .endedAt(state.getEndedAt() != null ? state.getEndedAt().format(formatter) : null)
+                .build();
+    }
+}
@@ -0,0 +1,174 @@
+package com.oddo.hackaton.backend.service;
+
+import com.oddo.hackaton.backend.event.MeetupEvent;
+import com.oddo.hackaton.backend.event.MeetupTimerEvent;
+import com.oddo.hackaton.backend.model.enums.MeetupStatus;
+import com.oddo.hackaton.backend.model.projection.MeetupTimerView;
+import com.oddo.hackaton.backend.repository.MeetupRepository;
+import com.oddo.hackaton.backend.util.HashedWheelTimer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Safety timers for running meetups: a CHECK_IN when the planned duration is reached and an
+ * OVERRUN alert once the grace period after it has passed.
+ *
+ * Timers live in a {@link HashedWheelTimer} (1s ticks), so 100k+ running meetups cost two small
+ * objects each and no database polling. Timers are armed and disarmed from committed
+ * {@link MeetupEvent}s and rebuilt from IN_PROGRESS meetups at startup.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MeetupTimerService
+{
+    private static final int WHEEL_SIZE = 1024;
+
+    private final MeetupRepository meetupRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${meetup.overrun-grace-minutes:30}")
+    private long overrunGraceMinutes;
+
+    @Value("${meetup.default-duration-minutes:60}")
+    private int defaultDurationMinutes;
+
+    private final ExecutorService timerTasks = Executors.newVirtualThreadPerTaskExecutor();
+    private final HashedWheelTimer wheel =
+            new HashedWheelTimer("meetup-timer", 1, TimeUnit.SECONDS, WHEEL_SIZE, timerTasks);
+    private final Map<Long, MeetupTimers> timers = new ConcurrentHashMap<>();
+
+    /**
+     * Arm (or re-arm) the timers of a running meetup.
+     */
+    public void schedule(Long meetupId, Long pickerId, Long requesterId, LocalDateTime startedAt,
+                         Integer durationMinutes)
+    {
+        int duration = durationMinutes != null ? durationMinutes : defaultDurationMinutes;
+        LocalDateTime checkInAt = startedAt.plusMinutes(duration);
+        LocalDateTime overrunAt = checkInAt.plusMinutes(overrunGraceMinutes);
+        LocalDateTime now = LocalDateTime.now();
+
+        timers.compute(meetupId, (id, previous) -> {
+            if (previous != null)
+            {
+                previous.cancel();
+            }
+            MeetupTimers armed = new MeetupTimers();
+            // After a restart past the check-in time only the overrun alert is still meaningful
+            if (now.isBefore(overrunAt) && !now.isAfter(checkInAt.plusMinutes(1)))
+            {
+                armed.checkIn = wheel.schedule(
+                        () -> fire(MeetupTimerEvent.Type.CHECK_IN, meetupId, pickerId, requesterId, startedAt),
+                        millisUntil(now, checkInAt), TimeUnit.MILLISECONDS);
+            }
+            armed.overrun = wheel.schedule(
+                    () -> fire(MeetupTimerEvent.Type.OVERRUN, meetupId, pickerId, requesterId, startedAt),
+                    millisUntil(now, overrunAt), TimeUnit.MILLISECONDS);
+            return armed;
+        });
+    }
+
+    public void cancel(Long meetupId)
+    {
+        MeetupTimers removed = timers.remove(meetupId);
+        if (removed != null)
+        {
+            removed.cancel();
+        }
+    }
+
+    public int activeTimers()
+    {
+        return wheel.pendingTimeouts();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMeetupEvent(MeetupEvent event)
+    {
+        if (event.getType() == MeetupEvent.Type.STARTED && event.getStartedAt() != null)
+        {
+            schedule(event.getMeetupId(), event.getPickerId(), event.getRequesterId(),
+                    event.getStartedAt(), event.getDurationMinutes());
+        }
+        else
+        {
+            cancel(event.getMeetupId());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild()
+    {
+        long start = System.currentTimeMillis();
+        List<MeetupTimerView> running = meetupRepository.findTimersByStatus(MeetupStatus.IN_PROGRESS);
+        running.forEach(view -> schedule(view.getMeetupId(), view.getPickerId(), view.getRequesterId(),
+                view.getStartedAt(), view.getDurationMinutes()));
+        log.info("Armed safety timers for {} running meetups in {}ms",
+                running.size(), System.currentTimeMillis() - start);
+    }
+
+    @PreDestroy
+    void shutdown()
+    {
+        wheel.close();
+        timerTasks.shutdown();
+    }
+
+    private void fire(MeetupTimerEvent.Type type, Long meetupId, Long pickerId, Long requesterId,
+                      LocalDateTime startedAt)
+    {
+        if (type == MeetupTimerEvent.Type.OVERRUN)
+        {
+            timers.remove(meetupId);
+        }
+        try
+        {
+            eventPublisher.publishEvent(
+                    new MeetupTimerEvent(type, meetupId, pickerId, requesterId, startedAt, LocalDateTime.now()));
+        }
+        catch (Exception e)
+        {
+            log.warn("Meetup {} {} timer listener failed: {}", meetupId, type, e.getMessage());
+        }
+    }
+
+    private static long millisUntil(LocalDateTime now, LocalDateTime at)
+    {
+        return Math.max(0, Duration.between(now, at).toMillis());
+    }
+
+    private static final class MeetupTimers
+    {
+        private HashedWheelTimer.Timeout checkIn;
+        private HashedWheelTimer.Timeout overrun;
+
+        void cancel()
+        {
+            if (checkIn != null)
+            {
+                checkIn.cancel();
+            }
+            if (overrun != null)
+            {
+                overrun.cancel();
+            }
+        }
+    }
+}
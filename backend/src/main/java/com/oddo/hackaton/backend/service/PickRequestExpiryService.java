@@ -0,0 +1,126 @@
+package com.oddo.hackaton.backend.service;
+
+import com.oddo.hackaton.backend.event.PickRequestEvent;
+import com.oddo.hackaton.backend.model.enums.PickStatus;
+import com.oddo.hackaton.backend.model.projection.ExpiredPickRequestView;
+import com.oddo.hackaton.backend.repository.PickRequestRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves overdue ACTIVE pick requests to EXPIRED.
+ *
+ * Each batch is its own short transaction: take the cluster-wide advisory lock (so only one
+ * node sweeps at a time), expire up to {@code batchSize} rows with a single UPDATE ... RETURNING,
+ * decline the pickers still waiting on those rows, and publish an EXPIRED event per row. The events
+ * are delivered after the batch commits, so the spatial index, clusters and live feed drop the
+ * requests in the same pass.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PickRequestExpiryService
+{
+    // Arbitrary but fixed: every node must use the same key
+    static final long EXPIRY_LOCK_KEY = 0x7069_6B6D_6578_7001L;
+
+    private final PickRequestRepository pickRequestRepository;
+    private final MatchService matchService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${pick-request.expiry.batch-size:500}")
+    private int batchSize;
+
+    @Value("${pick-request.expiry.max-batches-per-sweep:20}")
+    private int maxBatchesPerSweep;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private TransactionTemplate transactionTemplate;
+    private Timer sweepTimer;
+    private Counter expiredCounter;
+
+    @PostConstruct
+    void init()
+    {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        sweepTimer = Timer.builder("pikme.pick_requests.expiry.sweep")
+                .description("Duration of one expiry sweep")
+                .register(meterRegistry);
+        expiredCounter = Counter.builder("pikme.pick_requests.expired")
+                .description("Pick requests moved to EXPIRED")
+                .register(meterRegistry);
+        Gauge.builder("pikme.pick_requests.expiry.backlog", backlog, AtomicLong::get)
+                .description("Overdue ACTIVE pick requests left after the last sweep")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${pick-request.expiry.interval-ms:30000}",
+            initialDelayString = "${pick-request.expiry.initial-delay-ms:10000}")
+    public void sweep()
+    {
+        sweepTimer.record(() -> {
+            int total = 0;
+            for (int batch = 0; batch < maxBatchesPerSweep; batch++)
+            {
+                Integer expired = transactionTemplate.execute(status -> expireBatch());
+                if (expired == null || expired < 0)
+                {
+                    // Another node holds the lock and is sweeping
+                    break;
+                }
+                total += expired;
+                if (expired < batchSize)
+                {
+                    break;
+                }
+            }
+
+            backlog.set(pickRequestRepository.countByStatusAndExpiresAtBefore(PickStatus.ACTIVE, LocalDateTime.now()));
+            if (total > 0)
+            {
+                log.info("Expired {} pick requests ({} overdue left)", total, backlog.get());
+            }
+        });
+    }
+
+    /**
+     * @return rows expired, or -1 if the lock is held elsewhere
+     */
+    private int expireBatch()
+    {
+        if (!pickRequestRepository.tryAdvisoryXactLock(EXPIRY_LOCK_KEY))
+        {
+            return -1;
+        }
+
+        List<ExpiredPickRequestView> expired = pickRequestRepository.expireOverdue(LocalDateTime.now(), batchSize);
+        // expireOverdue is not @Modifying (it returns rows): drop any PickRequest loaded before it by hand
+        entityManager.clear();
+        matchService.declinePending(expired.stream().map(ExpiredPickRequestView::getId).toArray(Long[]::new));
+        expired.forEach(row -> eventPublisher.publishEvent(PickRequestEvent.expired(row)));
+        expiredCounter.increment(expired.size());
+        return expired.size();
+    }
+}
@@ -1,26 +1,42 @@
 package com.oddo.hackaton.backend.service;
 
+import com.oddo.hackaton.backend.event.PickRequestEvent;
 import com.oddo.hackaton.backend.exceptions.PickRequestException;
-import com.oddo.hackaton.backend.exceptions.UserException;
+import com.oddo.hackaton.backend.geo.ClusterIndex;
+import com.oddo.hackaton.backend.geo.InterestDictionary;
+import com.oddo.hackaton.backend.geo.NearbyRanker;
+import com.oddo.hackaton.backend.geo.PickRequestSummary;
+import com.oddo.hackaton.backend.geo.SpatialIndex;
+import com.oddo.hackaton.backend.model.dto.reponse.ClusterResponse;
 import com.oddo.hackaton.backend.model.dto.reponse.NearbyPickRequestResponse;
 import com.oddo.hackaton.backend.model.dto.reponse.PickRequestResponse;
 import com.oddo.hackaton.backend.model.dto.request.CreatePickRequestRequest;
 import com.oddo.hackaton.backend.model.entity.PickRequest;
+import com.oddo.hackaton.backend.model.mapper.PickRequestMapper;
 import com.oddo.hackaton.backend.model.entity.User;
+import com.oddo.hackaton.backend.model.enums.ActivityType;
 import com.oddo.hackaton.backend.model.enums.PickStatus;
+import com.oddo.hackaton.backend.model.projection.NearbyPickRequestView;
 import com.oddo.hackaton.backend.repository.PickRequestRepository;
 import com.oddo.hackaton.backend.repository.UserRepository;
+import com.oddo.hackaton.backend.util.GeoUtils;
 import lombok.RequiredArgsConstructor;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.PrecisionModel;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -28,6 +44,20 @@ public class PickRequestService {
 
     private final PickRequestRepository pickRequestRepository;
     private final UserRepository userRepository;
+    private final SpatialIndex spatialIndex;
+    private final ClusterIndex clusterIndex;
+    private final InterestDictionary interestDictionary;
+    private final NearbyRanker nearbyRanker;
+    private final MatchService matchService;
+    private final ApplicationEventPublisher eventPublisher;
+    // The map never shows more markers than this
+    private static final int MAX_NEAREST_LIMIT = 200;
+    private static final int MAX_VIEWPORT_RESULTS = 500;
+    // Ranking scores every request in the radius, so the radius is what bounds the work
+    private static final double MAX_RANKED_RADIUS_METERS = 50_000;
+    // Clusters are computed 3 zoom levels deeper than the map: roughly one cluster per 32px
+    private static final int CLUSTER_ZOOM_OFFSET = 3;
+
     private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
 
     /**
@@ -36,10 +66,10 @@ public class PickRequestService {
      */
 
     @Transactional
-    public PickRequestResponse createPickRequest(CreatePickRequestRequest request, String userEmail)
+    public PickRequestResponse createPickRequest(CreatePickRequestRequest request, Long userId)
     {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new UserException("User not found"));
+        // Reference only: the requester row is read once, when the summary needs the card
+        User user = userRepository.getReferenceById(userId);
 
         // Create PostGIS Point
         Point location = geometryFactory.createPoint(new Coordinate(request.getLongitude(), request.getLatitude()));
@@ -60,6 +90,7 @@ public class PickRequestService {
                 .build();
 
         PickRequest saved = pickRequestRepository.save(pickRequest);
+        eventPublisher.publishEvent(PickRequestEvent.created(PickRequestSummary.from(saved)));
         return mapToResponse(saved);
     }
 
@@ -67,114 +98,237 @@ public class PickRequestService {
      * Get current user's own pick requests.
      */
     @Transactional(readOnly = true)
-    public List<PickRequestResponse> getMyPickRequests(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        List<PickRequest> myRequests = pickRequestRepository.findByUserId(user.getId());
+    public List<PickRequestResponse> getMyPickRequests(Long userId) {
+        List<PickRequest> myRequests = pickRequestRepository.findByUserId(userId);
         return myRequests.stream()
                 .map(this::mapToResponse)
                 .toList();
     }
 
     /**
-     * Cancel a pick request (only if ACTIVE).
+     * Cancel a pick request (only if ACTIVE) and decline its waitlist.
+     * One conditional UPDATE, so a cancel racing the requester's own accept cannot undo the match.
      */
     @Transactional
-    public void cancelPickRequest(Long pickRequestId, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new PickRequestException("User not found"));
+    public void cancelPickRequest(Long pickRequestId, Long userId) {
+        int cancelled = pickRequestRepository.updateStatusForOwner(
+                pickRequestId, userId, PickStatus.ACTIVE, PickStatus.CANCELLED);
 
+        // Read after the update (it cleared the persistence context), so the status is current
         PickRequest pickRequest = pickRequestRepository.findById(pickRequestId)
                 .orElseThrow(() -> new PickRequestException("Pick request not found"));
 
-        // Validate ownership
-        if (!pickRequest.getUser().getId().equals(user.getId())) {
-            throw new PickRequestException("You can only cancel your own pick requests");
-        }
-
-        // Can only cancel if ACTIVE
-        if (pickRequest.getStatus() != PickStatus.ACTIVE) {
+        if (cancelled == 0) {
+            // Validate ownership
+            if (!pickRequest.getUser().getId().equals(userId)) {
+                throw new PickRequestException("You can only cancel your own pick requests");
+            }
             throw new PickRequestException("Can only cancel ACTIVE pick requests");
         }
 
-        pickRequest.setStatus(PickStatus.CANCELLED);
-        pickRequestRepository.save(pickRequest);
+        matchService.declinePending(new Long[]{pickRequestId});
+        eventPublisher.publishEvent(PickRequestEvent.cancelled(pickRequest));
     }
 
 
     /**
      * Find nearby active pick requests, excluding the current user's own requests.
+     * Served from the in-memory {@link SpatialIndex}; until the index is warm this is a single
+     * projection query (requester card, distance and own-user exclusion all computed in SQL).
      */
-    @Transactional(readOnly = true)
     public List<NearbyPickRequestResponse> findNearbyPickRequests(
             Double latitude,
             Double longitude,
             Double radiusMeters,
-            String currentUserEmail)
+            Long currentUserId)
     {
+        if (spatialIndex.isWarm())
+        {
+            return spatialIndex.findWithin(latitude, longitude, radiusMeters, currentUserId).stream()
+                    .map(hit -> PickRequestMapper.toNearbyResponse(hit.getSummary(), hit.getDistanceMeters()))
+                    .toList();
+        }
 
-//        User currentUser = userRepository.findByEmail(currentUserEmail)
-//                .orElseThrow(() -> new RuntimeException("User not found"));
-        User currentUser = null;
-        if (currentUserEmail != null)
-            currentUser = userRepository.findByEmail(currentUserEmail).orElse(null);
+        return pickRequestRepository.findNearbyPickRequests(latitude, longitude, radiusMeters, currentUserId)
+                .stream()
+                .map(view -> PickRequestMapper.toNearbyResponse(
+                        PickRequestSummary.from(view), view.getDistanceMeters()))
+                .toList();
+    }
 
-        List<PickRequest> nearbyRequests = pickRequestRepository.findNearbyPickRequests(
-                latitude, longitude, radiusMeters
-        );
+    /**
+     * K-nearest mode for the map: the {@code limit} closest active requests, searching outwards
+     * from 1km up to {@code maxRadiusMeters}. Payload size stays bounded however dense the city is.
+     */
+    public List<NearbyPickRequestResponse> findNearestPickRequests(
+            Double latitude,
+            Double longitude,
+            int limit,
+            Double maxRadiusMeters,
+            Long currentUserId)
+    {
+        int k = Math.max(1, Math.min(limit, MAX_NEAREST_LIMIT));
 
-        DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
-        final User finalCurrentUser = currentUser;
-
-        return nearbyRequests.stream()
-                .filter(pr -> /*finalCurrentUser == null ||*/ !pr.getUser().getId().equals(finalCurrentUser.getId()))
-//                .filter(pr -> !pr.getUser().getId().equals(currentUser.getId())) // Exclude own requests
-                .filter(pr -> pr.getStatus() == PickStatus.ACTIVE) // Only active
-                .map(pr -> {
-                    User requester = pr.getUser();
-
-                    // Calculate distance (simple approximation using Haversine)
-                    double distance = calculateDistance(
-                            latitude, longitude,
-                            pr.getLatitude(), pr.getLongitude()
-                    );
-
-                    return NearbyPickRequestResponse.builder()
-                            .pickRequestId(pr.getId())
-                            .userId(requester.getId())
-                            .userName(requester.getName())
-                            .userAge(requester.getAge())
-                            .userBio(requester.getBio())
-                            .interests(requester.getInterests())
-                            .safetyScore(requester.getSafetyScore())
-                            .activityType(pr.getActivityType())
-                            .subject(pr.getSubject())
-                            .durationMinutes(pr.getDurationMinutes())
-                            .latitude(pr.getLatitude())
-                            .longitude(pr.getLongitude())
-                            .distanceMeters(distance)
-                            .createdAt(pr.getCreatedAt().format(formatter))
-                            .build();
-                })
+        if (spatialIndex.isWarm())
+        {
+            return spatialIndex.findNearest(latitude, longitude, k, maxRadiusMeters, currentUserId)
+                    .stream()
+                    .map(hit -> PickRequestMapper.toNearbyResponse(hit.getSummary(), hit.getDistanceMeters()))
+                    .toList();
+        }
+
+        double radius = Math.min(SpatialIndex.INITIAL_KNN_RADIUS_METERS, maxRadiusMeters);
+        List<NearbyPickRequestView> nearest = pickRequestRepository.findNearestPickRequests(
+                latitude, longitude, radius, currentUserId, k);
+        while (nearest.size() < k && radius < maxRadiusMeters)
+        {
+            radius = Math.min(radius * 4, maxRadiusMeters);
+            nearest = pickRequestRepository.findNearestPickRequests(latitude, longitude, radius, currentUserId, k);
+        }
+
+        return nearest.stream()
+                .map(view -> PickRequestMapper.toNearbyResponse(
+                        PickRequestSummary.from(view), view.getDistanceMeters()))
                 .toList();
     }
 
-    // === HELPER ===
     /**
-     * Haversine formula for distance calculation.
+     * The {@code limit} most relevant active requests within the radius (at most 50km, see
+     * {@link NearbyRanker}). Candidates stream straight from the {@link SpatialIndex} into the
+     * ranker's bounded heap; until the index is warm they come from the nearby projection query instead.
      */
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int EARTH_RADIUS = 6371000; // meters
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
-                Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
-                        Math.sin(dLon / 2) * Math.sin(dLon / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return EARTH_RADIUS * c;
+    public List<NearbyPickRequestResponse> findRankedPickRequests(
+            Double latitude,
+            Double longitude,
+            Double radiusMeters,
+            int limit,
+            List<ActivityType> activityTypes,
+            Long currentUserId)
+    {
+        int k = Math.max(1, Math.min(limit, MAX_NEAREST_LIMIT));
+        double radius = Math.min(radiusMeters, MAX_RANKED_RADIUS_METERS);
+        long[] viewerInterests = currentUserId == null
+                ? InterestDictionary.EMPTY
+                : interestDictionary.encode(userRepository.findInterestsById(currentUserId).orElse(null));
+
+        Consumer<SpatialIndex.HitVisitor> candidates;
+        if (spatialIndex.isWarm())
+        {
+            candidates = visitor ->
+                    spatialIndex.forEachWithin(latitude, longitude, radius, currentUserId, visitor);
+        }
+        else
+        {
+            List<NearbyPickRequestView> views =
+                    pickRequestRepository.findNearbyPickRequests(latitude, longitude, radius, currentUserId);
+            candidates = visitor -> views.forEach(view -> visitor.visit(
+                    interestDictionary.withInterestBits(PickRequestSummary.from(view)), view.getDistanceMeters()));
+        }
+
+        int activityMask = NearbyRanker.activityMask(activityTypes);
+        return nearbyRanker.rank(candidates, radius, viewerInterests, activityMask, k).stream()
+                .map(PickRequestMapper::toNearbyResponse)
+                .toList();
     }
 
+    /**
+     * Active requests inside the visible map rectangle, newest first.
+     * The zoom level caps the result size: zoomed-out views get fewer markers.
+     */
+    public List<NearbyPickRequestResponse> findInViewport(
+            Double minLat,
+            Double minLon,
+            Double maxLat,
+            Double maxLon,
+            Integer zoom,
+            Long currentUserId)
+    {
+        if (minLat > maxLat || minLon > maxLon || minLat < -90 || maxLat > 90 || minLon < -180 || maxLon > 180)
+        {
+            throw new PickRequestException("Invalid viewport bounds");
+        }
+
+        int limit = maxResultsForZoom(zoom);
+
+        if (spatialIndex.isWarm())
+        {
+            return spatialIndex.findInBox(minLat, minLon, maxLat, maxLon, currentUserId, limit)
+                    .stream()
+                    .map(summary -> PickRequestMapper.toNearbyResponse(summary, null))
+                    .toList();
+        }
+
+        return pickRequestRepository.findInViewport(minLat, minLon, maxLat, maxLon, currentUserId, limit).stream()
+                .map(view -> PickRequestMapper.toNearbyResponse(PickRequestSummary.from(view), null))
+                .toList();
+    }
+
+    /**
+     * Marker clusters for a zoomed-out map: count, centroid and activity breakdown per cell.
+     * Reads the incrementally maintained {@link ClusterIndex}, so cost depends on visible cells only.
+     */
+    public List<ClusterResponse> findClusters(Double minLat, Double minLon, Double maxLat, Double maxLon, int zoom)
+    {
+        if (minLat > maxLat || minLon > maxLon || minLat < -90 || maxLat > 90 || minLon < -180 || maxLon > 180)
+        {
+            throw new PickRequestException("Invalid viewport bounds");
+        }
+
+        int clusterZoom = Math.min(Math.max(zoom, 0) + CLUSTER_ZOOM_OFFSET, ClusterIndex.MAX_ZOOM);
+
+        if (spatialIndex.isWarm())
+        {
+            return clusterIndex.findClusters(minLat, minLon, maxLat, maxLon, clusterZoom).stream()
+                    .map(cluster -> ClusterResponse.builder()
+                            .cellId(cluster.getCellId())
+                            .count(cluster.getCount())
+                            .latitude(cluster.getLatitude())
+                            .longitude(cluster.getLongitude())
+                            .activityCounts(cluster.getActivityCounts())
+                            .build())
+                    .toList();
+        }
+
+        // Cold start: aggregate the capped viewport result instead
+        List<NearbyPickRequestView> visible = pickRequestRepository.findInViewport(
+                minLat, minLon, maxLat, maxLon, null, MAX_VIEWPORT_RESULTS);
+        Map<String, List<NearbyPickRequestView>> byCell = new LinkedHashMap<>();
+        for (NearbyPickRequestView view : visible)
+        {
+            String cellId = clusterZoom + "/" + GeoUtils.tileX(view.getLongitude(), clusterZoom)
+                    + "/" + GeoUtils.tileY(view.getLatitude(), clusterZoom);
+            byCell.computeIfAbsent(cellId, id -> new ArrayList<>()).add(view);
+        }
+
+        return byCell.entrySet().stream()
+                .map(entry -> {
+                    List<NearbyPickRequestView> members = entry.getValue();
+                    Map<ActivityType, Integer> activityCounts = new EnumMap<>(ActivityType.class);
+                    members.forEach(view ->
+                            activityCounts.merge(ActivityType.valueOf(view.getActivityType()), 1, Integer::sum));
+                    return ClusterResponse.builder()
+                            .cellId(entry.getKey())
+                            .count(members.size())
+                            .latitude(members.stream()
+                                    .mapToDouble(NearbyPickRequestView::getLatitude).average().orElse(0))
+                            .longitude(members.stream()
+                                    .mapToDouble(NearbyPickRequestView::getLongitude).average().orElse(0))
+                            .activityCounts(activityCounts)
+                            .build();
+                })
+                .toList();
+    }
+
+    private int maxResultsForZoom(Integer zoom)
+    {
+        if (zoom == null || zoom >= 15)
+        {
+            return MAX_VIEWPORT_RESULTS;
+        }
+        return zoom >= 12 ? MAX_VIEWPORT_RESULTS / 2 : MAX_VIEWPORT_RESULTS / 5;
+    }
+
+    // === HELPER ===
     private PickRequestResponse mapToResponse(PickRequest pickRequest)
     {
         DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
@@ -0,0 +1,202 @@
+package com.oddo.hackaton.backend.service;
+
+import com.oddo.hackaton.backend.geo.InterestDictionary;
+import com.oddo.hackaton.backend.geo.NearbyRanker;
+import com.oddo.hackaton.backend.geo.SpatialIndex;
+import com.oddo.hackaton.backend.model.dto.reponse.MatchResponse;
+import com.oddo.hackaton.backend.model.dto.reponse.QuickMatchStatusResponse;
+import com.oddo.hackaton.backend.model.dto.request.JoinQuickMatchRequest;
+import com.oddo.hackaton.backend.quickmatch.GreedyMatcher;
+import com.oddo.hackaton.backend.quickmatch.QuickMatchAssignment;
+import com.oddo.hackaton.backend.quickmatch.QuickMatchEntry;
+import com.oddo.hackaton.backend.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Quick match: pickers join a pool instead of choosing a request, and a periodic round pairs them
+ * with ACTIVE pick requests (see {@link GreedyMatcher}).
+ *
+ * A round works on a snapshot of the pool and the spatial index. It then queues every pair as a PENDING
+ * match in one transaction with a single statement ({@link MatchService#createMatches}), exactly like a
+ * manual pick: the request stays ACTIVE on the map and its owner picks one of the queued pickers. A request
+ * accepted, cancelled or expired during the round is simply not queued; the picker stays in the pool and
+ * the request is skipped for them from then on.
+ *
+ * Matched pickers leave the pool and hear about their match on the usual match stream
+ * (/api/matches/stream). Entries expire after {@code quick-match.pool-ttl-minutes}.
+ *
+ * The pool is held in memory on the node the picker joined. Rounds on different nodes only meet in the
+ * database, where the per-pair unique constraint keeps a picker from being queued twice on one request.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QuickMatchService
+{
+    private static final int DEFAULT_MAX_DISTANCE_METERS = 2000;
+
+    private final GreedyMatcher greedyMatcher;
+    private final MatchService matchService;
+    private final SpatialIndex spatialIndex;
+    private final InterestDictionary interestDictionary;
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${quick-match.pool-ttl-minutes:30}")
+    private long poolTtlMinutes;
+
+    @Value("${quick-match.shortlist-size:8}")
+    private int shortlistSize;
+
+    private final Map<Long, QuickMatchEntry> pool = new ConcurrentHashMap<>();
+    private Timer roundTimer;
+    private Counter matchedCounter;
+    private Counter lostCounter;
+
+    @PostConstruct
+    void init()
+    {
+        roundTimer = Timer.builder("pikme.quick_match.round")
+                .description("Duration of one quick-match round (shortlists, greedy pass and insert)")
+                .register(meterRegistry);
+        matchedCounter = Counter.builder("pikme.quick_match.matched")
+                .description("Matches created by quick match")
+                .register(meterRegistry);
+        lostCounter = Counter.builder("pikme.quick_match.lost")
+                .description("Assignments dropped because the request changed during the round")
+                .register(meterRegistry);
+        Gauge.builder("pikme.quick_match.pool", pool, Map::size)
+                .description("Pickers waiting in the quick-match pool")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Join (or re-join with new settings) the pool.
+     */
+    public QuickMatchStatusResponse join(Long userId, JoinQuickMatchRequest request)
+    {
+        LocalDateTime now = LocalDateTime.now();
+        long[] interests = interestDictionary.encode(userRepository.findInterestsById(userId).orElse(null));
+
+        QuickMatchEntry entry = new QuickMatchEntry(
+                userId,
+                request.getLatitude(),
+                request.getLongitude(),
+                request.getMaxDistanceMeters() != null ? request.getMaxDistanceMeters() : DEFAULT_MAX_DISTANCE_METERS,
+                NearbyRanker.activityMask(request.getActivityTypes()),
+                interests,
+                now,
+                now.plusMinutes(poolTtlMinutes));
+        pool.put(userId, entry);
+        return toResponse(entry);
+    }
+
+    public void leave(Long userId)
+    {
+        pool.remove(userId);
+    }
+
+    public QuickMatchStatusResponse getStatus(Long userId)
+    {
+        QuickMatchEntry entry = pool.get(userId);
+        if (entry == null || entry.isExpired(LocalDateTime.now()))
+        {
+            return QuickMatchStatusResponse.builder().waiting(false).build();
+        }
+        return toResponse(entry);
+    }
+
+    @Scheduled(fixedDelayString = "${quick-match.round-interval-ms:5000}",
+            initialDelayString = "${quick-match.initial-delay-ms:15000}")
+    public void runRound()
+    {
+        if (pool.isEmpty() || !spatialIndex.isWarm())
+        {
+            return;
+        }
+        roundTimer.record(this::round);
+    }
+
+    private void round()
+    {
+        LocalDateTime now = LocalDateTime.now();
+        pool.values().removeIf(entry -> entry.isExpired(now));
+
+        List<QuickMatchEntry> pickers = new ArrayList<>(pool.values());
+        if (pickers.isEmpty())
+        {
+            return;
+        }
+
+        // Pickers who left or re-joined while the shortlists were computed keep their new state
+        List<QuickMatchAssignment> assignments = greedyMatcher.match(pickers, shortlistSize).stream()
+                .filter(assignment -> pool.get(assignment.getPicker().getUserId()) == assignment.getPicker())
+                .toList();
+        if (assignments.isEmpty())
+        {
+            return;
+        }
+
+        Long[] pickRequestIds = new Long[assignments.size()];
+        Long[] pickerIds = new Long[assignments.size()];
+        for (int i = 0; i < assignments.size(); i++)
+        {
+            pickRequestIds[i] = assignments.get(i).getRequest().getSummary().getPickRequestId();
+            pickerIds[i] = assignments.get(i).getPicker().getUserId();
+        }
+
+        List<MatchResponse> created = matchService.createMatches(pickRequestIds, pickerIds);
+
+        Set<Long> matchedPickers = new HashSet<>();
+        created.forEach(match -> matchedPickers.add(match.getPickerId()));
+        for (QuickMatchAssignment assignment : assignments)
+        {
+            QuickMatchEntry picker = assignment.getPicker();
+            if (matchedPickers.contains(picker.getUserId()))
+            {
+                pool.remove(picker.getUserId(), picker);
+            }
+            else
+            {
+                picker.exclude(assignment.getRequest().getSummary().getPickRequestId());
+            }
+        }
+
+        matchedCounter.increment(created.size());
+        lostCounter.increment(assignments.size() - created.size());
+        log.info("Quick match: {} pickers, {} assignments, {} matches created",
+                pickers.size(), assignments.size(), created.size());
+    }
+
+    private static QuickMatchStatusResponse toResponse(QuickMatchEntry entry)
+    {
+        DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+        return QuickMatchStatusResponse.builder()
+                .waiting(true)
+                .latitude(entry.getLatitude())
+                .longitude(entry.getLongitude())
+                .maxDistanceMeters(entry.getMaxDistanceMeters())
+                .joinedAt(entry.getJoinedAt().format(formatter))
+                .expiresAt(entry.getExpiresAt().format(formatter))
+                .build();
+    }
+}
@@ -0,0 +1,111 @@
+package com.oddo.hackaton.backend.service;
+
+import com.oddo.hackaton.backend.event.ReputationChangedEvent;
+import com.oddo.hackaton.backend.repository.ReviewRepository;
+import com.oddo.hackaton.backend.repository.UserBadgeCountRepository;
+import com.oddo.hackaton.backend.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Nightly check of the running review aggregates (see ReviewService) against the reviews table.
+ *
+ * Users are walked in id order, {@code chunkSize} at a time; one read-only query per chunk returns
+ * the users whose counters or badge histogram disagree with their raw reviews. Each of those is then
+ * repaired in its own short transaction: lock the users row, recompute everything from the reviews,
+ * commit. Taking the row lock first means a review submitted at the same moment either commits before
+ * the recompute reads the reviews, or applies its increment on top of the repaired values.
+ *
+ * A mismatch means a bug or a manual edit, so every repair is logged and counted.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReputationVerificationService
+{
+    private final ReviewRepository reviewRepository;
+    private final UserRepository userRepository;
+    private final UserBadgeCountRepository userBadgeCountRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${reputation.verify.chunk-size:1000}")
+    private int chunkSize;
+
+    private TransactionTemplate transactionTemplate;
+    private Timer verifyTimer;
+    private Counter repairedCounter;
+
+    @PostConstruct
+    void init()
+    {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        verifyTimer = Timer.builder("pikme.reputation.verify")
+                .description("Duration of one aggregate verification pass")
+                .register(meterRegistry);
+        repairedCounter = Counter.builder("pikme.reputation.repaired")
+                .description("Users whose review aggregates disagreed with the reviews table")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${reputation.verify.cron:0 30 3 * * *}")
+    public void verify()
+    {
+        verifyTimer.record(() -> {
+            long afterId = 0;
+            int repaired = 0;
+            Long chunkEnd;
+            while ((chunkEnd = reviewRepository.findUserChunkEnd(afterId, chunkSize)) != null)
+            {
+                List<Long> stale = reviewRepository.findUsersWithStaleAggregates(afterId, chunkEnd);
+                for (Long userId : stale)
+                {
+                    transactionTemplate.executeWithoutResult(status -> repair(userId));
+                    repaired++;
+                }
+                afterId = chunkEnd;
+            }
+
+            if (repaired > 0)
+            {
+                log.warn("Repaired review aggregates of {} users", repaired);
+            }
+            else
+            {
+                log.info("Review aggregates verified up to user {}", afterId);
+            }
+        });
+    }
+
+    private void repair(Long userId)
+    {
+        if (userRepository.lockById(userId).isEmpty())
+        {
+            return;
+        }
+
+        Integer safetyScore = userRepository.recomputeReviewAggregates(userId).orElse(null);
+        userBadgeCountRepository.deleteByUserId(userId);
+        userBadgeCountRepository.rebuildFromReviews(userId);
+
+        log.warn("Review aggregates of user {} did not match the reviews table; recomputed", userId);
+        repairedCounter.increment();
+        eventPublisher.publishEvent(ReputationChangedEvent.builder()
+                .userId(userId)
+                .safetyScore(safetyScore)
+                .build());
+    }
+}
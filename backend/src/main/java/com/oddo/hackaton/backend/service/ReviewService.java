@@ -0,0 +1,171 @@
+package com.oddo.hackaton.backend.service;
+
+import com.oddo.hackaton.backend.event.ReputationChangedEvent;
+import com.oddo.hackaton.backend.exceptions.ReviewException;
+import com.oddo.hackaton.backend.exceptions.UserException;
+import com.oddo.hackaton.backend.model.dto.reponse.ReputationResponse;
+import com.oddo.hackaton.backend.model.dto.reponse.ReviewResponse;
+import com.oddo.hackaton.backend.model.dto.request.SubmitReviewRequest;
+import com.oddo.hackaton.backend.model.entity.Review;
+import com.oddo.hackaton.backend.model.entity.UserBadgeCount;
+import com.oddo.hackaton.backend.model.enums.MeetupStatus;
+import com.oddo.hackaton.backend.model.projection.MeetupStateView;
+import com.oddo.hackaton.backend.model.projection.ReputationView;
+import com.oddo.hackaton.backend.repository.MeetupRepository;
+import com.oddo.hackaton.backend.repository.ReviewRepository;
+import com.oddo.hackaton.backend.repository.UserBadgeCountRepository;
+import com.oddo.hackaton.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Post-meetup reviews and the reputation derived from them.
+ *
+ * The reviewed user's rating sum/count, would-meet-again counts, safety score and badge histogram
+ * are running aggregates, bumped in the same transaction as the review insert (one UPDATE on the
+ * users row plus one upsert on user_badge_counts). Reading a reputation is a primary-key lookup,
+ * no matter how many reviews the user has. ReputationVerificationService re-checks the aggregates
+ * against the reviews table every night.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReviewService
+{
+    private final ReviewRepository reviewRepository;
+    private final MeetupRepository meetupRepository;
+    private final UserRepository userRepository;
+    private final UserBadgeCountRepository userBadgeCountRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Review the other participant of a completed meetup. One review per participant per meetup.
+     */
+    @Transactional
+    public ReviewResponse submitReview(Long matchId, Long reviewerId, SubmitReviewRequest request)
+    {
+        MeetupStateView meetup = meetupRepository.findState(matchId, reviewerId)
+                .orElseThrow(() -> new ReviewException("Meetup not found"));
+
+        if (!MeetupStatus.COMPLETED.name().equals(meetup.getStatus()))
+        {
+            throw new ReviewException("Only completed meetups can be reviewed");
+        }
+        if (reviewRepository.existsByMeetupIdAndReviewerId(meetup.getMeetupId(), reviewerId))
+        {
+            throw new ReviewException("You already reviewed this meetup");
+        }
+
+        Long reviewedUserId = reviewerId.equals(meetup.getPickerId())
+                ? meetup.getRequesterId()
+                : meetup.getPickerId();
+        String[] badges = normalizeBadges(request.getBadges());
+        Boolean wouldMeetAgain = request.getWouldMeetAgain();
+
+        Review review = Review.builder()
+                .meetup(meetupRepository.getReferenceById(meetup.getMeetupId()))
+                .reviewer(userRepository.getReferenceById(reviewerId))
+                .reviewedUser(userRepository.getReferenceById(reviewedUserId))
+                .rating(request.getRating())
+                .badges(badges)
+                .wouldMeetAgain(wouldMeetAgain)
+                .comment(request.getComment() != null ? request.getComment().trim() : null)
+                .build();
+
+        try
+        {
+            review = reviewRepository.saveAndFlush(review);
+        }
+        catch (DataIntegrityViolationException e)
+        {
+            // Double tap that got past the exists check: the unique (meetup_id, reviewer_id) constraint wins
+            throw new ReviewException("You already reviewed this meetup");
+        }
+
+        Integer safetyScore = userRepository.applyReview(reviewedUserId, request.getRating(),
+                        Boolean.TRUE.equals(wouldMeetAgain) ? 1 : 0, wouldMeetAgain != null ? 1 : 0)
+                .orElseThrow(() -> new UserException("User not found"));
+        if (badges.length > 0)
+        {
+            userBadgeCountRepository.increment(reviewedUserId, badges);
+        }
+
+        eventPublisher.publishEvent(ReputationChangedEvent.builder()
+                .userId(reviewedUserId)
+                .safetyScore(safetyScore)
+                .build());
+
+        return toResponse(review, meetup.getMeetupId(), reviewedUserId);
+    }
+
+    @Transactional(readOnly = true)
+    public ReputationResponse getReputation(Long userId)
+    {
+        ReputationView view = userRepository.findReputation(userId)
+                .orElseThrow(() -> new UserException("User not found"));
+
+        Map<String, Integer> badges = new LinkedHashMap<>();
+        for (UserBadgeCount count : userBadgeCountRepository.findByIdUserIdOrderByCountDesc(userId))
+        {
+            badges.put(count.getId().getBadge(), count.getCount());
+        }
+
+        int ratingCount = view.getRatingCount();
+        int answers = view.getWouldMeetAgainAnswers();
+        return ReputationResponse.builder()
+                .userId(view.getUserId())
+                .averageRating(ratingCount > 0 ? (double) view.getRatingSum() / ratingCount : null)
+                .reviewCount(ratingCount)
+                .wouldMeetAgainRatio(answers > 0 ? (double) view.getWouldMeetAgainYes() / answers : null)
+                .safetyScore(view.getSafetyScore())
+                .completedMeetups(view.getCompletedMeetups())
+                .badges(badges)
+                .build();
+    }
+
+    /**
+     * Trimmed, non-blank and distinct (the histogram upsert must not touch the same row twice).
+     */
+    private static String[] normalizeBadges(List<String> badges)
+    {
+        if (badges == null)
+        {
+            return new String[0];
+        }
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String badge : badges)
+        {
+            if (badge != null && !badge.isBlank())
+            {
+                distinct.add(badge.trim());
+            }
+        }
+        return distinct.toArray(new String[0]);
+    }
+
+    private static ReviewResponse toResponse(Review review, Long meetupId, Long reviewedUserId)
+    {
+        return ReviewResponse.builder()
+                .reviewId(review.getId())
+                .meetupId(meetupId)
+                .reviewedUserId(reviewedUserId)
+                .rating(review.getRating())
+                .badges(Arrays.asList(review.getBadges()))
+                .wouldMeetAgain(review.getWouldMeetAgain())
+                .comment(review.getComment())
+                .createdAt(review.getCreatedAt() != null
+                        ? review.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+                        : null)
+                .build();
+    }
+}
@@ -0,0 +1,206 @@
+package com.oddo.hackaton.backend.service;
+
+import com.oddo.hackaton.backend.geo.SpatialIndex;
+import com.oddo.hackaton.backend.model.dto.reponse.NearbyPickRequestResponse;
+import com.oddo.hackaton.backend.model.dto.reponse.SimilarUserResponse;
+import com.oddo.hackaton.backend.model.entity.User;
+import com.oddo.hackaton.backend.model.projection.UserInterestsView;
+import com.oddo.hackaton.backend.repository.UserRepository;
+import com.oddo.hackaton.backend.similarity.SimilarUser;
+import com.oddo.hackaton.backend.similarity.SimilarUserIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * "People like you": users whose interests overlap the caller's, found through the {@link SimilarUserIndex}
+ * and optionally narrowed to those with an ACTIVE pick request nearby.
+ *
+ * With a location, the requesters nearby are collected first (from the {@link SpatialIndex}, with a clamped
+ * radius). Up to {@code similar-users.max-candidates} of them are scored directly against their signatures;
+ * a bigger crowd goes through the LSH buckets with "is nearby" as the filter, so only nearby users count
+ * towards the candidate cap either way.
+ *
+ * The index is built at startup and rebuilt nightly by streaming the users table in id order,
+ * {@code chunkSize} rows at a time, so only one chunk is ever held in memory. Profile edits keep it
+ * current in between; the rebuild only catches what events cannot (rows edited outside the API, a node
+ * that missed an event). Until the first build finishes the similar-users list is empty.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SimilarUserService
+{
+    private static final int MAX_LIMIT = 50;
+    private static final double MAX_RADIUS_METERS = 50_000;
+
+    private final SimilarUserIndex similarUserIndex;
+    private final UserRepository userRepository;
+    private final PickRequestService pickRequestService;
+    private final SpatialIndex spatialIndex;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${similar-users.rebuild-chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${similar-users.min-similarity:0.2}")
+    private double minSimilarity;
+
+    @Value("${similar-users.max-candidates:2000}")
+    private int maxCandidates;
+
+    private Timer rebuildTimer;
+
+    @PostConstruct
+    void init()
+    {
+        rebuildTimer = Timer.builder("pikme.similar_users.rebuild")
+                .description("Duration of one similar-user index rebuild")
+                .register(meterRegistry);
+        Gauge.builder("pikme.similar_users.indexed", similarUserIndex, SimilarUserIndex::size)
+                .description("Users with an interest signature in the similar-user index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Most similar users first. With a location, only users with an ACTIVE request within
+     * {@code radiusMeters} are returned, each with their closest such request.
+     */
+    public List<SimilarUserResponse> findSimilarUsers(Long userId, int limit,
+                                                      Double latitude, Double longitude, Double radiusMeters)
+    {
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        Map<Long, NearbyRequest> requests = null;
+        List<SimilarUser> similar;
+        if (latitude != null && longitude != null)
+        {
+            requests = closestRequestPerRequester(latitude, longitude,
+                    Math.min(radiusMeters, MAX_RADIUS_METERS), userId);
+            Map<Long, NearbyRequest> nearby = requests;
+            similar = nearby.size() <= maxCandidates
+                    ? similarUserIndex.scoreAmong(userId, nearby.keySet(), size, minSimilarity)
+                    : similarUserIndex.findSimilar(userId, size, minSimilarity, nearby::containsKey);
+        }
+        else
+        {
+            similar = similarUserIndex.findSimilar(userId, size, minSimilarity, candidateId -> true);
+        }
+        if (similar.isEmpty())
+        {
+            return List.of();
+        }
+
+        Map<Long, User> users = userRepository.findAllById(similar.stream().map(SimilarUser::getUserId).toList())
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        Map<Long, NearbyRequest> nearby = requests;
+        return similar.stream()
+                .filter(match -> users.containsKey(match.getUserId()))
+                .map(match -> toResponse(users.get(match.getUserId()), match.getSimilarity(),
+                        nearby != null ? nearby.get(match.getUserId()) : null))
+                .toList();
+    }
+
+    /**
+     * Each requester with an ACTIVE request in the circle, with their closest one. Straight from the spatial
+     * index (no response objects per hit); the database only while the index is still loading.
+     */
+    private Map<Long, NearbyRequest> closestRequestPerRequester(double latitude, double longitude,
+                                                                double radiusMeters, Long userId)
+    {
+        Map<Long, NearbyRequest> closest = new HashMap<>();
+        if (spatialIndex.isWarm())
+        {
+            spatialIndex.forEachWithin(latitude, longitude, radiusMeters, userId, (summary, distanceMeters) ->
+                    closest.merge(summary.getUserId(), new NearbyRequest(summary.getPickRequestId(), distanceMeters),
+                            (current, candidate) -> candidate.distanceMeters < current.distanceMeters
+                                    ? candidate : current));
+            return closest;
+        }
+
+        // Closest first, so the first request seen per requester is their closest one
+        for (NearbyPickRequestResponse request
+                : pickRequestService.findNearbyPickRequests(latitude, longitude, radiusMeters, userId))
+        {
+            closest.putIfAbsent(request.getUserId(),
+                    new NearbyRequest(request.getPickRequestId(), request.getDistanceMeters()));
+        }
+        return closest;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp()
+    {
+        rebuild();
+    }
+
+    @Scheduled(cron = "${similar-users.rebuild-cron:0 0 4 * * *}")
+    public synchronized void rebuild()
+    {
+        rebuildTimer.record(() -> {
+            long start = System.currentTimeMillis();
+            int generation = similarUserIndex.beginRebuild();
+            long afterId = 0;
+            int loaded = 0;
+            List<UserInterestsView> chunk;
+            do
+            {
+                chunk = userRepository.findInterestsChunk(afterId, chunkSize);
+                for (UserInterestsView view : chunk)
+                {
+                    similarUserIndex.load(view.getId(), view.getInterestArray(), generation);
+                    afterId = view.getId();
+                }
+                loaded += chunk.size();
+            }
+            while (chunk.size() == chunkSize);
+
+            similarUserIndex.finishRebuild(generation);
+            log.info("Similar-user index rebuilt from {} users ({} indexed) in {}ms",
+                    loaded, similarUserIndex.size(), System.currentTimeMillis() - start);
+        });
+    }
+
+    private static SimilarUserResponse toResponse(User user, double similarity, NearbyRequest request)
+    {
+        return SimilarUserResponse.builder()
+                .userId(user.getId())
+                .name(user.getName())
+                .age(user.getAge())
+                .bio(user.getBio())
+                .interests(user.getInterests())
+                .safetyScore(user.getSafetyScore())
+                .similarity(similarity)
+                .pickRequestId(request != null ? request.pickRequestId : null)
+                .distanceMeters(request != null ? request.distanceMeters : null)
+                .build();
+    }
+
+    private static final class NearbyRequest
+    {
+        final Long pickRequestId;
+        final double distanceMeters;
+
+        NearbyRequest(Long pickRequestId, double distanceMeters)
+        {
+            this.pickRequestId = pickRequestId;
+            this.distanceMeters = distanceMeters;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.oddo.hackaton.backend.service;
+
+import com.oddo.hackaton.backend.event.TokenVersionChangedEvent;
+import com.oddo.hackaton.backend.event.UserProfileChangedEvent;
+import com.oddo.hackaton.backend.exceptions.UserException;
+import com.oddo.hackaton.backend.model.dto.reponse.AuthResponse;
+import com.oddo.hackaton.backend.model.dto.reponse.UserProfileResponse;
+import com.oddo.hackaton.backend.model.dto.request.ChangePasswordRequest;
+import com.oddo.hackaton.backend.model.dto.request.UpdateProfileRequest;
+import com.oddo.hackaton.backend.model.entity.User;
+import com.oddo.hackaton.backend.repository.UserRepository;
+import com.oddo.hackaton.backend.security.AuthenticatedUser;
+import com.oddo.hackaton.backend.security.JwtUtils;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor
+public class UserService
+{
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final JwtUtils jwtUtils;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init()
+    {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Change the password and bump the token version, which revokes every token issued so far.
+     * Returns a fresh token so the caller stays logged in.
+     *
+     * Not @Transactional on purpose: checking and hashing take ~200ms and must not hold a DB connection.
+     * A short read, the hashing, then a short conditional write that only applies if the stored hash
+     * is still the one that was checked. With open-in-view off the read's connection goes back to the
+     * pool as soon as findById returns, so none is held while hashing.
+     */
+    public AuthResponse changePassword(Long userId, ChangePasswordRequest request)
+    {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserException("User not found"));
+
+        if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword()))
+        {
+            throw new UserException("Current password is incorrect");
+        }
+        String newHash = passwordEncoder.encode(request.getNewPassword());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (userRepository.replacePassword(userId, user.getPassword(), newHash) == 0)
+            {
+                throw new UserException("Password was changed by another request");
+            }
+            // Cached versions are dropped after commit, so no request can re-cache the old one
+            eventPublisher.publishEvent(new TokenVersionChangedEvent(userId));
+        });
+
+        // The write matched the hash we read, so the version moved exactly one step from ours
+        user.setPassword(newHash);
+        user.setTokenVersion(user.getTokenVersion() + 1);
+
+        return AuthResponse.builder()
+                .token(jwtUtils.generateToken(AuthenticatedUser.from(user)))
+                .type("Bearer")
+                .userId(user.getId())
+                .email(user.getEmail())
+                .name(user.getName())
+                .build();
+    }
+
+    /**
+     * Edit name, age, bio and interests (null fields are left as they are). The committed change is
+     * broadcast so the cached cards (user directory, map, similar-user index) follow.
+     */
+    @Transactional
+    public UserProfileResponse updateProfile(Long userId, UpdateProfileRequest request)
+    {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserException("User not found"));
+
+        if (request.getName() != null)
+        {
+            user.setName(request.getName().trim());
+        }
+        if (request.getAge() != null)
+        {
+            user.setAge(request.getAge());
+        }
+        if (request.getBio() != null)
+        {
+            user.setBio(request.getBio());
+        }
+        if (request.getInterests() != null)
+        {
+            user.setInterests(Arrays.stream(request.getInterests())
+                    .filter(Objects::nonNull)
+                    .map(String::trim)
+                    .filter(interest -> !interest.isEmpty())
+                    .distinct()
+                    .toArray(String[]::new));
+        }
+        User savedUser = userRepository.save(user);
+
+        eventPublisher.publishEvent(UserProfileChangedEvent.builder()
+                .userId(savedUser.getId())
+                .email(savedUser.getEmail())
+                .name(savedUser.getName())
+                .age(savedUser.getAge())
+                .bio(savedUser.getBio())
+                .interests(savedUser.getInterests())
+                .build());
+
+        return UserProfileResponse.builder()
+                .userId(savedUser.getId())
+                .email(savedUser.getEmail())
+                .name(savedUser.getName())
+                .age(savedUser.getAge())
+                .bio(savedUser.getBio())
+                .interests(savedUser.getInterests())
+                .safetyScore(savedUser.getSafetyScore())
+                .build();
+    }
+}
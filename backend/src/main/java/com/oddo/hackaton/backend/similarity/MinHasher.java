@@ -0,0 +1,131 @@
+package com.oddo.hackaton.backend.similarity;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * MinHash signatures of interest sets, and their LSH band keys.
+ *
+ * A signature is {@code bands * rowsPerBand} minimums, one per hash function; the share of positions
+ * where two signatures agree estimates the Jaccard similarity of the two interest sets. Users whose
+ * signatures agree on a whole band land in the same bucket, so candidates are found by looking up
+ * {@code bands} buckets instead of comparing against every user. With the defaults (16 x 4) a pair with
+ * Jaccard 0.5 shares a bucket ~65% of the time, a pair at 0.2 only ~2.5%.
+ *
+ * Interests are normalised like {@code InterestDictionary} (trimmed, lower case). The hash functions
+ * come from a fixed seed, so signatures are the same on every node and across restarts.
+ */
+@Component
+public class MinHasher
+{
+    private static final long SEED = 0x5069_6B4D_6548_6173L;
+
+    private final int bands;
+    private final int rowsPerBand;
+    private final long[] seeds;
+
+    public MinHasher(@Value("${similar-users.bands:16}") int bands,
+                     @Value("${similar-users.rows-per-band:4}") int rowsPerBand)
+    {
+        this.bands = bands;
+        this.rowsPerBand = rowsPerBand;
+        this.seeds = new long[bands * rowsPerBand];
+        long state = SEED;
+        for (int i = 0; i < seeds.length; i++)
+        {
+            state += 0x9E37_79B9_7F4A_7C15L;
+            seeds[i] = mix(state);
+        }
+    }
+
+    /**
+     * Signature of an interest set, or null if it has no usable interest (such users are not indexed).
+     */
+    public int[] signature(String[] interests)
+    {
+        if (interests == null || interests.length == 0)
+        {
+            return null;
+        }
+
+        int[] signature = new int[seeds.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        boolean any = false;
+        for (String interest : interests)
+        {
+            if (interest == null || interest.isBlank())
+            {
+                continue;
+            }
+            long base = hash(interest.trim().toLowerCase(Locale.ROOT));
+            for (int i = 0; i < seeds.length; i++)
+            {
+                int value = (int) (mix(base ^ seeds[i]) >>> 33);
+                if (value < signature[i])
+                {
+                    signature[i] = value;
+                }
+            }
+            any = true;
+        }
+        return any ? signature : null;
+    }
+
+    /**
+     * One bucket key per band. The band number is mixed in, so equal rows in different bands never collide.
+     */
+    public long[] bandKeys(int[] signature)
+    {
+        long[] keys = new long[bands];
+        for (int band = 0; band < bands; band++)
+        {
+            long key = band + 1;
+            for (int row = band * rowsPerBand; row < (band + 1) * rowsPerBand; row++)
+            {
+                key = mix(key * 31 + signature[row]);
+            }
+            keys[band] = key;
+        }
+        return keys;
+    }
+
+    /**
+     * Estimated Jaccard similarity: the share of signature positions that agree.
+     */
+    public static double similarity(int[] a, int[] b)
+    {
+        int equal = 0;
+        for (int i = 0; i < a.length; i++)
+        {
+            if (a[i] == b[i])
+            {
+                equal++;
+            }
+        }
+        return (double) equal / a.length;
+    }
+
+    // FNV-1a over the chars: stable across JVMs, unlike String.hashCode's 32 bits it keeps collisions rare
+    private static long hash(String value)
+    {
+        long hash = 0xCBF2_9CE4_8422_2325L;
+        for (int i = 0; i < value.length(); i++)
+        {
+            hash ^= value.charAt(i);
+            hash *= 0x0000_0100_0000_01B3L;
+        }
+        return hash;
+    }
+
+    // SplitMix64 finaliser
+    private static long mix(long value)
+    {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xBF58_476D_1CE4_E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D0_49BB_1331_11EBL;
+        return z ^ (z >>> 31);
+    }
+}
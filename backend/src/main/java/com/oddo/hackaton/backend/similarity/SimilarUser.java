@@ -0,0 +1,13 @@
+package com.oddo.hackaton.backend.similarity;
+
+import lombok.Value;
+
+/**
+ * A user found by {@link SimilarUserIndex}, with their estimated interest similarity (0..1).
+ */
+@Value
+public class SimilarUser
+{
+    Long userId;
+    double similarity;
+}
@@ -0,0 +1,244 @@
+package com.oddo.hackaton.backend.similarity;
+
+import com.oddo.hackaton.backend.event.UserProfileChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+
+/**
+ * In-memory LSH index of user interest signatures ({@link MinHasher}): "people like you" in time
+ * proportional to the users sharing a bucket with you, not to the number of users.
+ *
+ * Every user with at least one interest has an entry (signature + band keys) and sits in one bucket
+ * per band. Bucket moves for a user happen inside that user's {@code byUser} bin, so concurrent updates
+ * of the same user never interleave. Very common interest sets make large buckets; a query scores
+ * no more than {@code similar-users.max-candidates} of them. When the caller already has a short list
+ * of users (e.g. "requesters nearby"), {@link #scoreAmong} compares against exactly those instead.
+ *
+ * Kept current from committed {@link UserProfileChangedEvent}s and rebuilt from the users table by
+ * SimilarUserService. A rebuild runs in place under a new generation: entries written during the rebuild
+ * (by a profile update or by the rebuild itself) carry it, and whatever still has an older one when the
+ * rebuild ends belonged to a user who is gone or lost their interests.
+ */
+@Component
+public class SimilarUserIndex
+{
+    private final MinHasher minHasher;
+    private final int maxCandidates;
+
+    private final Map<Long, Entry> byUser = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> buckets = new ConcurrentHashMap<>();
+
+    private volatile int generation = 0;
+    private volatile boolean warm = false;
+
+    public SimilarUserIndex(MinHasher minHasher,
+                            @Value("${similar-users.max-candidates:2000}") int maxCandidates)
+    {
+        this.minHasher = minHasher;
+        this.maxCandidates = maxCandidates;
+    }
+
+    public boolean isWarm()
+    {
+        return warm;
+    }
+
+    public int size()
+    {
+        return byUser.size();
+    }
+
+    /**
+     * Index (or re-index) a user from their current interests; no usable interest removes them.
+     */
+    public void put(Long userId, String[] interests)
+    {
+        int[] signature = minHasher.signature(interests);
+        int current = generation;
+        byUser.compute(userId, (id, previous) -> replace(id, previous, signature, current));
+    }
+
+    /**
+     * Rebuild load: like {@link #put}, but an entry already written under {@code rebuildGeneration}
+     * is newer than the row being loaded and is kept.
+     */
+    public void load(Long userId, String[] interests, int rebuildGeneration)
+    {
+        int[] signature = minHasher.signature(interests);
+        byUser.compute(userId, (id, previous) -> previous != null && previous.generation == rebuildGeneration
+                ? previous
+                : replace(id, previous, signature, rebuildGeneration));
+    }
+
+    /**
+     * Start a rebuild: from now on every write is stamped with the returned generation.
+     */
+    public int beginRebuild()
+    {
+        return ++generation;
+    }
+
+    /**
+     * Drop every entry the rebuild did not see, and mark the index warm.
+     */
+    public void finishRebuild(int rebuildGeneration)
+    {
+        for (Entry entry : byUser.values())
+        {
+            if (entry.generation < rebuildGeneration)
+            {
+                byUser.computeIfPresent(entry.userId, (id, previous) -> previous.generation < rebuildGeneration
+                        ? replace(id, previous, null, rebuildGeneration)
+                        : previous);
+            }
+        }
+        warm = true;
+    }
+
+    /**
+     * Users whose estimated Jaccard similarity with {@code userId} is at least {@code minSimilarity},
+     * most similar first. Empty if the user has no interests.
+     *
+     * @param filter only candidates it accepts are scored (e.g. "has an ACTIVE request nearby"); rejected
+     *               ones do not count towards the candidate cap
+     */
+    public List<SimilarUser> findSimilar(Long userId, int limit, double minSimilarity, LongPredicate filter)
+    {
+        Entry self = byUser.get(userId);
+        if (self == null)
+        {
+            return List.of();
+        }
+
+        Set<Long> seen = new HashSet<>();
+        List<SimilarUser> found = new ArrayList<>();
+        for (long key : self.bandKeys)
+        {
+            Set<Long> bucket = buckets.get(key);
+            if (bucket == null)
+            {
+                continue;
+            }
+            for (Long candidateId : bucket)
+            {
+                if (seen.size() >= maxCandidates)
+                {
+                    break;
+                }
+                if (candidateId.equals(userId) || !filter.test(candidateId) || !seen.add(candidateId))
+                {
+                    continue;
+                }
+                Entry candidate = byUser.get(candidateId);
+                if (candidate == null)
+                {
+                    continue;
+                }
+                double similarity = MinHasher.similarity(self.signature, candidate.signature);
+                if (similarity >= minSimilarity)
+                {
+                    found.add(new SimilarUser(candidateId, similarity));
+                }
+            }
+        }
+
+        return top(found, limit);
+    }
+
+    /**
+     * Like {@link #findSimilar}, but scores exactly {@code candidateIds} against their signatures instead
+     * of going through the buckets: cheaper for a short list, and it misses no one LSH would have missed.
+     */
+    public List<SimilarUser> scoreAmong(Long userId, Collection<Long> candidateIds, int limit, double minSimilarity)
+    {
+        Entry self = byUser.get(userId);
+        if (self == null)
+        {
+            return List.of();
+        }
+
+        List<SimilarUser> found = new ArrayList<>();
+        for (Long candidateId : candidateIds)
+        {
+            Entry candidate = candidateId.equals(userId) ? null : byUser.get(candidateId);
+            if (candidate == null)
+            {
+                continue;
+            }
+            double similarity = MinHasher.similarity(self.signature, candidate.signature);
+            if (similarity >= minSimilarity)
+            {
+                found.add(new SimilarUser(candidateId, similarity));
+            }
+        }
+        return top(found, limit);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProfileChanged(UserProfileChangedEvent event)
+    {
+        put(event.getUserId(), event.getInterests());
+    }
+
+    private static List<SimilarUser> top(List<SimilarUser> found, int limit)
+    {
+        found.sort(Comparator.comparingDouble(SimilarUser::getSimilarity).reversed());
+        return found.size() > limit ? found.subList(0, limit) : found;
+    }
+
+    private Entry replace(Long userId, Entry previous, int[] signature, int entryGeneration)
+    {
+        if (previous != null)
+        {
+            for (long key : previous.bandKeys)
+            {
+                buckets.computeIfPresent(key, (k, bucket) -> {
+                    bucket.remove(userId);
+                    return bucket.isEmpty() ? null : bucket;
+                });
+            }
+        }
+        if (signature == null)
+        {
+            return null;
+        }
+
+        long[] bandKeys = minHasher.bandKeys(signature);
+        for (long key : bandKeys)
+        {
+            buckets.compute(key, (k, bucket) -> {
+                Set<Long> target = bucket != null ? bucket : ConcurrentHashMap.newKeySet();
+                target.add(userId);
+                return target;
+            });
+        }
+        return new Entry(userId, signature, bandKeys, entryGeneration);
+    }
+
+    private static final class Entry
+    {
+        final Long userId;
+        final int[] signature;
+        final long[] bandKeys;
+        final int generation;
+
+        Entry(Long userId, int[] signature, long[] bandKeys, int generation)
+        {
+            this.userId = userId;
+            this.signature = signature;
+            this.bandKeys = bandKeys;
+            this.generation = generation;
+        }
+    }
+}
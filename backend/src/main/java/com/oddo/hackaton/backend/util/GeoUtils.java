@@ -0,0 +1,102 @@
+package com.oddo.hackaton.backend.util;
+
+/**
+ * Geospatial helpers shared by the in-memory indexes and services.
+ * Tiles follow the Web Mercator (slippy map) scheme used by the mobile map,
+ * so a tile at zoom {@code z} is exactly what the client renders at that zoom.
+ */
+public final class GeoUtils
+{
+    public static final double EARTH_RADIUS_METERS = 6371000;
+    private static final double METERS_PER_DEGREE_LAT = 111320;
+    private static final double MAX_MERCATOR_LAT = 85.05112878;
+    private static final int TILE_COORD_MASK = (1 << 29) - 1;
+
+    private GeoUtils() { }
+
+    /**
+     * Haversine distance between two coordinates, in meters.
+     */
+    public static double distanceMeters(double lat1, double lon1, double lat2, double lon2)
+    {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
+                        Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return EARTH_RADIUS_METERS * c;
+    }
+
+    /**
+     * Degrees of latitude spanned by the given distance.
+     */
+    public static double latDelta(double meters)
+    {
+        return meters / METERS_PER_DEGREE_LAT;
+    }
+
+    /**
+     * Degrees of longitude spanned by the given distance at the given latitude.
+     */
+    public static double lonDelta(double meters, double latitude)
+    {
+        double cos = Math.cos(Math.toRadians(latitude));
+        if (cos < 1e-6)
+        {
+            return 360;
+        }
+        return Math.min(360, meters / (METERS_PER_DEGREE_LAT * cos));
+    }
+
+    public static int tileX(double longitude, int zoom)
+    {
+        int n = 1 << zoom;
+        int x = (int) Math.floor((longitude + 180.0) / 360.0 * n);
+        return Math.max(0, Math.min(n - 1, x));
+    }
+
+    public static int tileY(double latitude, int zoom)
+    {
+        int n = 1 << zoom;
+        double lat = Math.toRadians(Math.max(-MAX_MERCATOR_LAT, Math.min(MAX_MERCATOR_LAT, latitude)));
+        int y = (int) Math.floor((1 - Math.log(Math.tan(lat) + 1 / Math.cos(lat)) / Math.PI) / 2 * n);
+        return Math.max(0, Math.min(n - 1, y));
+    }
+
+    /**
+     * Pack a tile address into a single long (zoom in the top bits, then x, then y).
+     */
+    public static long tileKey(int zoom, int x, int y)
+    {
+        return ((long) zoom << 58) | ((long) x << 29) | y;
+    }
+
+    public static long tileKey(double latitude, double longitude, int zoom)
+    {
+        return tileKey(zoom, tileX(longitude, zoom), tileY(latitude, zoom));
+    }
+
+    public static int keyTileX(long tileKey)
+    {
+        return (int) (tileKey >>> 29) & TILE_COORD_MASK;
+    }
+
+    public static int keyTileY(long tileKey)
+    {
+        return (int) tileKey & TILE_COORD_MASK;
+    }
+
+    public static int keyZoom(long tileKey)
+    {
+        return (int) (tileKey >>> 58);
+    }
+
+    /**
+     * Human/URL form of a tile key: {@code zoom/x/y}.
+     */
+    public static String tileId(long tileKey)
+    {
+        return keyZoom(tileKey) + "/" + keyTileX(tileKey) + "/" + keyTileY(tileKey);
+    }
+}
@@ -0,0 +1,330 @@
+package com.oddo.hackaton.backend.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.LongSupplier;
+
+/**
+ * Hashed timing wheel for large numbers of coarse-grained timers (minutes to hours, second precision).
+ *
+ * Scheduling and cancelling are O(1) and lock-free for the caller: both only enqueue. A single worker
+ * thread owns the wheel; every tick it moves new timeouts into their bucket (deadline modulo wheel
+ * size, plus the number of full rotations left), unlinks cancelled ones, and fires the bucket under
+ * the hand. Expired tasks run on {@code taskExecutor}, never on the worker, so a slow task cannot
+ * delay the wheel.
+ *
+ * Same design as Netty's HashedWheelTimer, trimmed to what we need. Tests drive it without a worker
+ * thread through {@link #manual}, on a fake clock.
+ */
+public final class HashedWheelTimer implements AutoCloseable
+{
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Executor taskExecutor;
+    private final Queue<Timeout> pendingAdds = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> pendingCancels = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingTimeouts = new AtomicInteger();
+    private final LongSupplier clock;
+    private final long startNanos;
+    private final Thread worker; // null in manual mode
+
+    private volatile boolean running = true;
+    private long tick; // worker thread only (the driving thread in manual mode)
+
+    /**
+     * @param wheelSize number of buckets, rounded up to a power of two
+     */
+    public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int wheelSize, Executor taskExecutor)
+    {
+        this(name, tickDuration, unit, wheelSize, taskExecutor, System::nanoTime);
+    }
+
+    /**
+     * A timer without a worker thread: time comes from {@code clock} and ticks only run in {@link #advance}.
+     */
+    static HashedWheelTimer manual(long tickDuration, TimeUnit unit, int wheelSize, Executor taskExecutor,
+                                   LongSupplier clock)
+    {
+        return new HashedWheelTimer(null, tickDuration, unit, wheelSize, taskExecutor, clock);
+    }
+
+    private HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int wheelSize, Executor taskExecutor,
+                             LongSupplier clock)
+    {
+        if (tickDuration <= 0 || wheelSize <= 0)
+        {
+            throw new IllegalArgumentException("tickDuration and wheelSize must be positive");
+        }
+        int size = Integer.highestOneBit(wheelSize - 1) << 1;
+        this.wheel = new Bucket[Math.max(1, size)];
+        for (int i = 0; i < wheel.length; i++)
+        {
+            wheel[i] = new Bucket();
+        }
+        this.mask = wheel.length - 1;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.taskExecutor = taskExecutor;
+        this.clock = clock;
+        this.startNanos = clock.getAsLong();
+        if (name == null)
+        {
+            this.worker = null;
+            return;
+        }
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Run {@code task} after {@code delay}. Safe to call from any thread.
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit)
+    {
+        if (!running)
+        {
+            throw new IllegalStateException("Timer is stopped");
+        }
+        long deadline = clock.getAsLong() - startNanos + Math.max(0, unit.toNanos(delay));
+        Timeout timeout = new Timeout(task, deadline);
+        pendingTimeouts.incrementAndGet();
+        pendingAdds.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Scheduled timeouts that have neither fired nor been cancelled.
+     */
+    public int pendingTimeouts()
+    {
+        return pendingTimeouts.get();
+    }
+
+    @Override
+    public void close()
+    {
+        running = false;
+        if (worker != null)
+        {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * Run every tick whose end the clock has passed. Manual mode only; the worker does this itself.
+     */
+    void advance()
+    {
+        while (tickNanos * (tick + 1) <= clock.getAsLong() - startNanos)
+        {
+            processTick();
+        }
+    }
+
+    private void run()
+    {
+        while (running)
+        {
+            long deadline = tickNanos * (tick + 1);
+            long sleepNanos = deadline - (clock.getAsLong() - startNanos);
+            if (sleepNanos > 0)
+            {
+                try
+                {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                }
+                catch (InterruptedException e)
+                {
+                    if (!running)
+                    {
+                        return;
+                    }
+                    continue;
+                }
+            }
+
+            processTick();
+        }
+    }
+
+    private void processTick()
+    {
+        processCancellations();
+        transferPendingAdds();
+        wheel[(int) (tick & mask)].expire(tickNanos * (tick + 1));
+        tick++;
+    }
+
+    private void transferPendingAdds()
+    {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++)
+        {
+            Timeout timeout = pendingAdds.poll();
+            if (timeout == null)
+            {
+                return;
+            }
+            if (timeout.state != Timeout.ST_PENDING)
+            {
+                continue;
+            }
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            // Already overdue: fire on the current tick
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void processCancellations()
+    {
+        Timeout timeout;
+        while ((timeout = pendingCancels.poll()) != null)
+        {
+            if (timeout.bucket != null)
+            {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    public final class Timeout
+    {
+        private static final int ST_PENDING = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final Runnable task;
+        private final long deadline;
+        private volatile int state = ST_PENDING;
+
+        // Owned by the worker thread
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(Runnable task, long deadline)
+        {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * @return false if the timeout already fired or was cancelled
+         */
+        public boolean cancel()
+        {
+            if (!STATE.compareAndSet(this, ST_PENDING, ST_CANCELLED))
+            {
+                return false;
+            }
+            pendingTimeouts.decrementAndGet();
+            pendingCancels.add(this);
+            return true;
+        }
+
+        public boolean isCancelled()
+        {
+            return state == ST_CANCELLED;
+        }
+
+        public boolean isExpired()
+        {
+            return state == ST_EXPIRED;
+        }
+
+        private void expire()
+        {
+            if (!STATE.compareAndSet(this, ST_PENDING, ST_EXPIRED))
+            {
+                return;
+            }
+            pendingTimeouts.decrementAndGet();
+            taskExecutor.execute(task);
+        }
+    }
+
+    /**
+     * Doubly-linked list of timeouts, touched only by the worker thread.
+     */
+    private static final class Bucket
+    {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout)
+        {
+            timeout.bucket = this;
+            if (head == null)
+            {
+                head = tail = timeout;
+            }
+            else
+            {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expire(long deadline)
+        {
+            Timeout timeout = head;
+            while (timeout != null)
+            {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline)
+                {
+                    remove(timeout);
+                    timeout.expire();
+                }
+                else if (timeout.isCancelled())
+                {
+                    remove(timeout);
+                }
+                else
+                {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(Timeout timeout)
+        {
+            if (timeout.bucket != this)
+            {
+                return;
+            }
+            if (timeout.prev != null)
+            {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next != null)
+            {
+                timeout.next.prev = timeout.prev;
+            }
+            if (timeout == head)
+            {
+                head = timeout.next;
+            }
+            if (timeout == tail)
+            {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
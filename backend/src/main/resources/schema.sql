@@ -0,0 +1,15 @@
+-- Indexes Hibernate's ddl-auto cannot express. Runs after the JPA schema update
+-- (spring.jpa.defer-datasource-initialization=true), so every statement must be idempotent.
+
+-- GiST index for ST_DWithin and the kNN (<->) ordering on pick request locations
+CREATE INDEX IF NOT EXISTS idx_pick_location ON pick_requests USING GIST (location);
+
+-- Planar GiST index for viewport (&&) lookups; matches the location::geometry expression in the query
+CREATE INDEX IF NOT EXISTS idx_pick_location_geom ON pick_requests USING GIST ((location::geometry));
+
+-- Partial index for the expiry sweep: only ACTIVE rows, ordered by deadline
+CREATE INDEX IF NOT EXISTS idx_pick_active_expires ON pick_requests (expires_at) WHERE status = 'ACTIVE';
+
+-- Single-column match indexes, superseded by idx_match_picker_id / idx_match_requester_id ((user, id) prefix)
+DROP INDEX IF EXISTS idx_match_picker;
+DROP INDEX IF EXISTS idx_match_requester;
@@ -0,0 +1,205 @@
+package com.oddo.hackaton.backend;
+
+import com.oddo.hackaton.backend.exceptions.PickRequestTakenException;
+import com.oddo.hackaton.backend.model.entity.Match;
+import com.oddo.hackaton.backend.model.entity.PickRequest;
+import com.oddo.hackaton.backend.model.entity.User;
+import com.oddo.hackaton.backend.model.enums.ActivityType;
+import com.oddo.hackaton.backend.model.enums.MatchStatus;
+import com.oddo.hackaton.backend.model.enums.PickStatus;
+import com.oddo.hackaton.backend.repository.MatchRepository;
+import com.oddo.hackaton.backend.repository.MeetupRepository;
+import com.oddo.hackaton.backend.repository.PickRequestRepository;
+import com.oddo.hackaton.backend.repository.UserRepository;
+import com.oddo.hackaton.backend.service.MatchService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stress test for the waitlist: hundreds of pickers queue on the same pick request at the same instant
+ * and all get a PENDING match. The requester then accepts one while more pickers keep arriving: exactly
+ * one match ends ACCEPTED, every other one DECLINED, and latecomers get either a (declined) match or
+ * PickRequestTakenException - never a PENDING match on a MATCHED request.
+ *
+ * Runs against the real PostgreSQL database (like BackendApplicationTests) and cleans up its own rows.
+ */
+@SpringBootTest
+class MatchClaimConcurrencyTest {
+
+    private static final int PICKERS = 300;
+    private static final int LATE_PICKERS = 50;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PickRequestRepository pickRequestRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private MeetupRepository meetupRepository;
+
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+    private User requester;
+    private List<User> pickers;
+
+    @BeforeEach
+    void setUp() {
+        requester = userRepository.save(newUser("requester"));
+
+        pickers = new ArrayList<>();
+        for (int i = 0; i < PICKERS; i++) {
+            pickers.add(newUser("picker" + i));
+        }
+        pickers = userRepository.saveAll(pickers);
+    }
+
+    @AfterEach
+    void tearDown() {
+        List<PickRequest> requests = pickRequestRepository.findByUserId(requester.getId());
+        for (PickRequest request : requests) {
+            for (MatchStatus status : MatchStatus.values()) {
+                List<Match> matches = matchRepository.findByPickRequestIdAndStatus(request.getId(), status);
+                matches.forEach(match -> meetupRepository.findByMatchId(match.getId())
+                        .ifPresent(meetupRepository::delete));
+                matchRepository.deleteAll(matches);
+            }
+        }
+        pickRequestRepository.deleteAll(requests);
+        userRepository.deleteAll(pickers);
+        userRepository.delete(requester);
+    }
+
+    @Test
+    void concurrentPickers_AllQueueAndOneIsAccepted() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(PICKERS);
+        List<User> early = pickers.subList(0, PICKERS - LATE_PICKERS);
+        List<User> late = pickers.subList(PICKERS - LATE_PICKERS, PICKERS);
+
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                PickRequest pickRequest = pickRequestRepository.save(PickRequest.builder()
+                        .user(requester)
+                        .activityType(ActivityType.COFFEE)
+                        .subject("Stress test " + runId + " #" + round)
+                        .latitude(45.5017)
+                        .longitude(-73.5673)
+                        .status(PickStatus.ACTIVE)
+                        .expiresAt(LocalDateTime.now().plusHours(2))
+                        .build());
+                Long pickRequestId = pickRequest.getId();
+
+                // 1. Everyone queues at once
+                Outcome queued = race(pool, early, picker -> matchService.createMatch(pickRequestId, picker.getId()));
+
+                assertThat(queued.created.get()).isEqualTo(early.size());
+                assertThat(queued.taken.get()).isZero();
+                assertThat(queued.unexpected.get()).isZero();
+                assertThat(pickRequestRepository.findById(pickRequestId).orElseThrow().getStatus())
+                        .isEqualTo(PickStatus.ACTIVE);
+
+                // 2. The requester accepts the first picker while latecomers keep queueing
+                Long acceptedId = matchRepository.findByPickRequestIdAndPickerUserId(pickRequestId,
+                        early.get(0).getId()).orElseThrow().getId();
+                List<User> racers = new ArrayList<>(late);
+                racers.add(requester);
+                Outcome closing = race(pool, racers, user -> {
+                    if (user == requester) {
+                        matchService.respondToMatch(acceptedId, true, requester.getId());
+                    } else {
+                        matchService.createMatch(pickRequestId, user.getId());
+                    }
+                });
+
+                // Then
+                int lateCreated = closing.created.get() - 1;
+                assertThat(closing.unexpected.get()).isZero();
+                assertThat(lateCreated + closing.taken.get()).isEqualTo(LATE_PICKERS);
+                assertThat(matchRepository.findByPickRequestIdAndStatus(pickRequestId, MatchStatus.ACCEPTED))
+                        .extracting(Match::getId)
+                        .containsExactly(acceptedId);
+                assertThat(matchRepository.findByPickRequestIdAndStatus(pickRequestId, MatchStatus.PENDING))
+                        .isEmpty();
+                assertThat(matchRepository.findByPickRequestIdAndStatus(pickRequestId, MatchStatus.DECLINED))
+                        .hasSize(early.size() - 1 + lateCreated);
+                assertThat(pickRequestRepository.findById(pickRequestId).orElseThrow().getStatus())
+                        .isEqualTo(PickStatus.MATCHED);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Run {@code action} once per user, all released at the same instant, and count the outcomes.
+     */
+    private Outcome race(ExecutorService pool, List<User> users, UserAction action) throws Exception {
+        Outcome outcome = new Outcome();
+        CountDownLatch ready = new CountDownLatch(users.size());
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (User user : users) {
+            futures.add(pool.submit(() -> {
+                ready.countDown();
+                start.await();
+                try {
+                    action.run(user);
+                    outcome.created.incrementAndGet();
+                } catch (PickRequestTakenException e) {
+                    outcome.taken.incrementAndGet();
+                } catch (RuntimeException e) {
+                    outcome.unexpected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        ready.await(30, TimeUnit.SECONDS);
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        return outcome;
+    }
+
+    private interface UserAction {
+        void run(User user);
+    }
+
+    private static class Outcome {
+        final AtomicInteger created = new AtomicInteger();
+        final AtomicInteger taken = new AtomicInteger();
+        final AtomicInteger unexpected = new AtomicInteger();
+    }
+
+    private User newUser(String name) {
+        User user = new User();
+        user.setEmail(name + "-" + runId + "@stress.test");
+        user.setPassword("password123");
+        user.setName(name);
+        return user;
+    }
+}
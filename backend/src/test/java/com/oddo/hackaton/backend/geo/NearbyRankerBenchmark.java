@@ -0,0 +1,110 @@
+package com.oddo.hackaton.backend.geo;
+
+import com.oddo.hackaton.backend.model.enums.ActivityType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ranking 10k candidates inside a 5km radius down to the top 20.
+ *
+ * distanceOnly: the plain nearby query (findWithin: one Hit per candidate, full sort)
+ * ranked:       NearbyRanker over the same candidates (popcount scoring, bounded heap)
+ *
+ * Run: mvn test-compile, then run main() from the IDE, or
+ *      java -cp target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)
+ *          com.oddo.hackaton.backend.geo.NearbyRankerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NearbyRankerBenchmark
+{
+    private static final double LATITUDE = 45.5088;
+    private static final double LONGITUDE = -73.5878;
+    private static final double RADIUS_METERS = 5000;
+    private static final int CANDIDATES = 10_000;
+    private static final String[] INTERESTS = {
+            "hiking", "coffee", "jazz", "chess", "climbing", "photography", "cooking", "running",
+            "board games", "anime", "yoga", "cycling", "poetry", "football", "startups", "painting"
+    };
+
+    private SpatialIndex spatialIndex;
+    private NearbyRanker ranker;
+    private long[] viewerInterests;
+    private int activityMask;
+
+    @Setup
+    public void setUp()
+    {
+        InterestDictionary dictionary = new InterestDictionary(4096);
+        spatialIndex = new SpatialIndex(null, new ClusterIndex(), dictionary);
+        ranker = new NearbyRanker(0.4, 0.2, 0.3, 0.1);
+
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        ActivityType[] activities = ActivityType.values();
+        for (int i = 0; i < CANDIDATES; i++)
+        {
+            String[] interests = new String[1 + random.nextInt(5)];
+            for (int j = 0; j < interests.length; j++)
+            {
+                interests[j] = INTERESTS[random.nextInt(INTERESTS.length)];
+            }
+            // Uniform in a ~3.5km square around the center: every candidate is within the radius
+            spatialIndex.put(PickRequestSummary.builder()
+                    .pickRequestId((long) i)
+                    .userId((long) i + 1_000_000)
+                    .userName("user" + i)
+                    .interests(interests)
+                    .safetyScore(random.nextInt(101))
+                    .activityType(activities[random.nextInt(activities.length)])
+                    .latitude(LATITUDE + (random.nextDouble() - 0.5) * 0.05)
+                    .longitude(LONGITUDE + (random.nextDouble() - 0.5) * 0.05)
+                    .createdAt(now)
+                    .expiresAt(now.plusDays(1))
+                    .build());
+        }
+
+        viewerInterests = dictionary.encode(new String[] {"coffee", "chess", "jazz"});
+        activityMask = NearbyRanker.activityMask(List.of(ActivityType.COFFEE, ActivityType.WALK));
+    }
+
+    @Benchmark
+    public List<SpatialIndex.Hit> distanceOnly()
+    {
+        return spatialIndex.findWithin(LATITUDE, LONGITUDE, RADIUS_METERS, null);
+    }
+
+    @Benchmark
+    public List<RankedPickRequest> ranked()
+    {
+        return ranker.rank(visitor -> spatialIndex.forEachWithin(LATITUDE, LONGITUDE, RADIUS_METERS, null, visitor),
+                RADIUS_METERS, viewerInterests, activityMask, 20);
+    }
+
+    public static void main(String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder()
+                .include(NearbyRankerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
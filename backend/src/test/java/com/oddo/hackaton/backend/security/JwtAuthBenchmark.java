@@ -0,0 +1,90 @@
+package com.oddo.hackaton.backend.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT authentication cost.
+ *
+ * legacyValidateThenParse: what JwtAuthenticationFilter used to do (derive key + build parser + verify, twice)
+ * verifyUncached:           one parse/verify with the prebuilt key and parser (first request with a token)
+ * verifyCached:             repeat request with the same token (digest lookup only)
+ *
+ * Run: mvn test-compile, then run main() from the IDE, or
+ *      java -cp target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)
+ *          com.oddo.hackaton.backend.security.JwtAuthBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthBenchmark
+{
+    private static final String SECRET =
+            "peekme-hackathon-secret-key-change-in-production-256-bits-minimum-length-required";
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setUp()
+    {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86_400_000L);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheSize", 10_000L);
+        jwtUtils.init();
+
+        token = jwtUtils.generateToken(1L, "alice@example.com", 0);
+        jwtUtils.verify(token);
+    }
+
+    @Benchmark
+    public String legacyValidateThenParse()
+    {
+        SecretKey validateKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        Jwts.parser().verifyWith(validateKey).build().parseSignedClaims(token);
+
+        SecretKey parseKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parser().verifyWith(parseKey).build().parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    @Benchmark
+    public JwtPrincipal verifyUncached()
+    {
+        return jwtUtils.parse(token);
+    }
+
+    @Benchmark
+    public JwtPrincipal verifyCached()
+    {
+        return jwtUtils.verify(token);
+    }
+
+    public static void main(String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
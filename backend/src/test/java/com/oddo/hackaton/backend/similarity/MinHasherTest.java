@@ -0,0 +1,62 @@
+package com.oddo.hackaton.backend.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * MinHash signatures must not depend on the node, the run or how an interest was typed: the
+ * SimilarUserIndex buckets users by them, and every node must put a given user in the same buckets.
+ */
+class MinHasherTest {
+
+    private final MinHasher minHasher = new MinHasher(16, 4);
+
+    @Test
+    void signatureIsPinnedAcrossRuns() {
+        // Changing the seed or the hashing re-buckets every user until the next rebuild: do it on purpose
+        int[] signature = minHasher.signature(new String[]{"hiking", "coffee"});
+
+        assertThat(signature).hasSize(64);
+        assertThat(signature[0]).isEqualTo(246822817);
+        assertThat(signature[1]).isEqualTo(4991223);
+        assertThat(minHasher.bandKeys(signature)[0]).isEqualTo(3203744956164770376L);
+    }
+
+    @Test
+    void signatureIgnoresCaseSpacingOrderAndDuplicates() {
+        int[] signature = minHasher.signature(new String[]{"hiking", "coffee"});
+
+        assertThat(minHasher.signature(new String[]{" COFFEE ", "Hiking", "coffee"})).isEqualTo(signature);
+        assertThat(new MinHasher(16, 4).signature(new String[]{"coffee", "hiking"})).isEqualTo(signature);
+    }
+
+    @Test
+    void noUsableInterestHasNoSignature() {
+        assertThat(minHasher.signature(null)).isNull();
+        assertThat(minHasher.signature(new String[0])).isNull();
+        assertThat(minHasher.signature(new String[]{" ", null})).isNull();
+    }
+
+    @Test
+    void similarityEstimatesJaccard() {
+        int[] abc = minHasher.signature(new String[]{"a", "b", "c"});
+
+        assertThat(MinHasher.similarity(abc, minHasher.signature(new String[]{"c", "b", "a"}))).isEqualTo(1.0);
+        // Jaccard 2/4
+        assertThat(MinHasher.similarity(abc, minHasher.signature(new String[]{"b", "c", "d"})))
+                .isCloseTo(0.5, within(0.15));
+        assertThat(MinHasher.similarity(
+                minHasher.signature(new String[]{"hiking", "coffee", "chess"}),
+                minHasher.signature(new String[]{"salsa", "poetry", "surfing"}))).isLessThan(0.1);
+    }
+
+    @Test
+    void identicalSetsShareEveryBandAndBandsNeverCollide() {
+        long[] keys = minHasher.bandKeys(minHasher.signature(new String[]{"hiking", "coffee"}));
+
+        assertThat(minHasher.bandKeys(minHasher.signature(new String[]{"coffee", "hiking"}))).isEqualTo(keys);
+        assertThat(keys).hasSize(16).doesNotHaveDuplicates();
+    }
+}
@@ -0,0 +1,125 @@
+package com.oddo.hackaton.backend.similarity;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SimilarUserIndexTest {
+
+    private static final String[] OUTDOORS = {"hiking", "climbing", "camping"};
+    private static final String[] INDOORS = {"chess", "poetry", "board games"};
+
+    private SimilarUserIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SimilarUserIndex(new MinHasher(16, 4), 2);
+    }
+
+    @Test
+    void findsUsersSharingABucketButNotThemselves() {
+        index.put(1L, OUTDOORS);
+        index.put(2L, OUTDOORS);
+        index.put(3L, INDOORS);
+
+        assertThat(index.findSimilar(1L, 10, 0.2, id -> true))
+                .containsExactly(new SimilarUser(2L, 1.0));
+        assertThat(index.findSimilar(4L, 10, 0.2, id -> true)).isEmpty();
+    }
+
+    @Test
+    void putMovesTheUserToTheirNewBuckets() {
+        index.put(1L, OUTDOORS);
+        index.put(2L, OUTDOORS);
+        index.put(3L, INDOORS);
+
+        index.put(1L, INDOORS);
+
+        assertThat(ids(index.findSimilar(2L, 10, 0.2, id -> true))).isEmpty();
+        assertThat(ids(index.findSimilar(3L, 10, 0.2, id -> true))).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void putWithoutInterestsRemovesTheUser() {
+        index.put(1L, OUTDOORS);
+        index.put(2L, OUTDOORS);
+
+        index.put(1L, new String[0]);
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.findSimilar(2L, 10, 0.2, id -> true)).isEmpty();
+        assertThat(index.findSimilar(1L, 10, 0.2, id -> true)).isEmpty();
+    }
+
+    @Test
+    void filteredOutCandidatesDoNotUseUpTheCandidateCap() {
+        // Cap of 2, and only the fifth user is accepted: the others must not fill the cap first
+        for (long id = 1; id <= 5; id++) {
+            index.put(id, OUTDOORS);
+        }
+
+        assertThat(ids(index.findSimilar(1L, 10, 0.2, id -> id == 5L))).containsExactly(5L);
+    }
+
+    @Test
+    void scoreAmongComparesExactlyTheGivenUsers() {
+        index.put(1L, OUTDOORS);
+        index.put(2L, OUTDOORS);
+        index.put(3L, new String[]{"hiking", "climbing", "chess"});
+        index.put(4L, INDOORS);
+
+        List<SimilarUser> similar = index.scoreAmong(1L, List.of(1L, 3L, 4L, 99L), 10, 0.2);
+
+        assertThat(ids(similar)).containsExactly(3L);
+        assertThat(ids(index.scoreAmong(1L, List.of(2L, 3L), 1, 0.2))).containsExactly(2L);
+    }
+
+    @Test
+    void rebuildDropsUsersItDidNotSee() {
+        index.put(1L, OUTDOORS);
+        index.put(2L, OUTDOORS);
+        assertThat(index.isWarm()).isFalse();
+
+        int generation = index.beginRebuild();
+        index.load(1L, OUTDOORS, generation);
+        index.load(3L, OUTDOORS, generation);
+        index.finishRebuild(generation);
+
+        assertThat(index.isWarm()).isTrue();
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(ids(index.findSimilar(1L, 10, 0.2, id -> true))).containsExactly(3L);
+    }
+
+    @Test
+    void updateDuringRebuildIsKeptOverTheOlderRow() {
+        index.put(1L, OUTDOORS);
+        index.put(2L, INDOORS);
+
+        int generation = index.beginRebuild();
+        // The profile edit commits after the rebuild started but before it reaches user 1
+        index.put(1L, INDOORS);
+        index.load(1L, OUTDOORS, generation);
+        index.load(2L, INDOORS, generation);
+        index.finishRebuild(generation);
+
+        assertThat(ids(index.findSimilar(2L, 10, 0.2, id -> true))).containsExactly(1L);
+    }
+
+    @Test
+    void userAddedDuringRebuildSurvivesIt() {
+        int generation = index.beginRebuild();
+        index.load(1L, OUTDOORS, generation);
+        index.put(2L, OUTDOORS);
+        index.finishRebuild(generation);
+
+        assertThat(ids(index.findSimilar(1L, 10, 0.2, id -> true))).containsExactly(2L);
+    }
+
+    private static List<Long> ids(List<SimilarUser> users) {
+        return users.stream().map(SimilarUser::getUserId).toList();
+    }
+}
@@ -0,0 +1,193 @@
+package com.oddo.hackaton.backend.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Deterministic tests for HashedWheelTimer: no worker thread, a fake clock, ticks driven by hand
+ * and tasks run inline on the driving thread.
+ *
+ * Wheel of 4 one-second buckets, so anything further than 4s out has to go round more than once.
+ */
+class HashedWheelTimerTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong now = new AtomicLong(1_000 * SECOND);
+    private final List<String> fired = new ArrayList<>();
+    private HashedWheelTimer timer;
+
+    @BeforeEach
+    void setUp() {
+        timer = HashedWheelTimer.manual(1, TimeUnit.SECONDS, 4, Runnable::run, now::get);
+    }
+
+    @Test
+    void firesAfterItsDelayAndWithinOneTick() {
+        HashedWheelTimer.Timeout timeout = timer.schedule(() -> fired.add("a"), 3, TimeUnit.SECONDS);
+
+        advanceBy(3 * SECOND - 1);
+        assertThat(fired).isEmpty();
+        assertThat(timeout.isExpired()).isFalse();
+
+        advanceBy(SECOND + 1);
+        assertThat(fired).containsExactly("a");
+        assertThat(timeout.isExpired()).isTrue();
+        assertThat(timer.pendingTimeouts()).isZero();
+    }
+
+    @Test
+    void timeoutScheduledMidTickCountsFromScheduleTime() {
+        advanceBy(5 * SECOND + SECOND / 2);
+        timer.schedule(() -> fired.add("a"), 3, TimeUnit.SECONDS);
+
+        advanceBy(3 * SECOND - 1);
+        assertThat(fired).isEmpty();
+
+        advanceBy(SECOND);
+        assertThat(fired).containsExactly("a");
+    }
+
+    @Test
+    void waitsOutRemainingRoundsAcrossWrapAround() {
+        // 10s on a 4-bucket wheel: same bucket as 2s, visited twice before it is due
+        timer.schedule(() -> fired.add("ten"), 10, TimeUnit.SECONDS);
+        timer.schedule(() -> fired.add("two"), 2, TimeUnit.SECONDS);
+        timer.schedule(() -> fired.add("six"), 6, TimeUnit.SECONDS);
+
+        advanceBy(3 * SECOND);
+        assertThat(fired).containsExactly("two");
+
+        advanceBy(4 * SECOND);
+        assertThat(fired).containsExactly("two", "six");
+
+        advanceBy(2 * SECOND);
+        assertThat(fired).containsExactly("two", "six");
+
+        advanceBy(2 * SECOND);
+        assertThat(fired).containsExactly("two", "six", "ten");
+    }
+
+    @Test
+    void delayOfExactlyOneLapFiresOnTheNextLap() {
+        timer.schedule(() -> fired.add("lap"), 4, TimeUnit.SECONDS);
+
+        advanceBy(4 * SECOND);
+        assertThat(fired).isEmpty();
+
+        advanceBy(SECOND);
+        assertThat(fired).containsExactly("lap");
+    }
+
+    @Test
+    void zeroAndNegativeDelaysFireOnTheNextTick() {
+        timer.schedule(() -> fired.add("zero"), 0, TimeUnit.SECONDS);
+        timer.schedule(() -> fired.add("negative"), -5, TimeUnit.SECONDS);
+
+        advanceBy(SECOND);
+        assertThat(fired).containsExactlyInAnyOrder("zero", "negative");
+    }
+
+    @Test
+    void catchesUpAfterAStalledWorker() {
+        timer.schedule(() -> fired.add("late"), 1, TimeUnit.SECONDS);
+        timer.schedule(() -> fired.add("later"), 6, TimeUnit.SECONDS);
+
+        // The clock jumps nine ticks at once: every tick still runs, in order, and nothing waits a lap
+        now.addAndGet(9 * SECOND);
+        timer.advance();
+        assertThat(fired).containsExactly("late", "later");
+    }
+
+    @Test
+    void cancelledTimeoutNeverFires() {
+        HashedWheelTimer.Timeout kept = timer.schedule(() -> fired.add("kept"), 2, TimeUnit.SECONDS);
+        HashedWheelTimer.Timeout cancelled = timer.schedule(() -> fired.add("cancelled"), 2, TimeUnit.SECONDS);
+
+        advanceBy(SECOND);
+        assertThat(cancelled.cancel()).isTrue();
+        assertThat(cancelled.cancel()).isFalse();
+
+        advanceBy(2 * SECOND);
+        assertThat(fired).containsExactly("kept");
+        assertThat(kept.isExpired()).isTrue();
+        assertThat(cancelled.isCancelled()).isTrue();
+        assertThat(cancelled.isExpired()).isFalse();
+        assertThat(timer.pendingTimeouts()).isZero();
+    }
+
+    @Test
+    void cancelBeforeFirstTickDropsThePendingAdd() {
+        HashedWheelTimer.Timeout timeout = timer.schedule(() -> fired.add("a"), 1, TimeUnit.SECONDS);
+        timeout.cancel();
+
+        advanceBy(3 * SECOND);
+        assertThat(fired).isEmpty();
+        assertThat(timer.pendingTimeouts()).isZero();
+    }
+
+    @Test
+    void cancelAfterExpiryIsANoOp() {
+        HashedWheelTimer.Timeout timeout = timer.schedule(() -> fired.add("a"), 1, TimeUnit.SECONDS);
+        advanceBy(2 * SECOND);
+
+        assertThat(timeout.cancel()).isFalse();
+        assertThat(timeout.isExpired()).isTrue();
+        assertThat(timeout.isCancelled()).isFalse();
+    }
+
+    @Test
+    void taskCancellingAnotherInTheSameBucketWhileItExpires() {
+        AtomicReference<HashedWheelTimer.Timeout> victim = new AtomicReference<>();
+        timer.schedule(() -> {
+            fired.add("first");
+            victim.get().cancel();
+        }, 2, TimeUnit.SECONDS);
+        victim.set(timer.schedule(() -> fired.add("victim"), 2, TimeUnit.SECONDS));
+
+        advanceBy(3 * SECOND);
+        assertThat(fired).containsExactly("first");
+        assertThat(victim.get().isCancelled()).isTrue();
+
+        // The pending cancellation of an already-removed timeout is harmless on later ticks
+        advanceBy(5 * SECOND);
+        assertThat(fired).containsExactly("first");
+        assertThat(timer.pendingTimeouts()).isZero();
+    }
+
+    @Test
+    void taskSchedulingWhileItsBucketExpiresRunsOnALaterTick() {
+        timer.schedule(() -> {
+            fired.add("outer");
+            timer.schedule(() -> fired.add("inner"), 0, TimeUnit.SECONDS);
+        }, 1, TimeUnit.SECONDS);
+
+        advanceBy(2 * SECOND);
+        assertThat(fired).containsExactly("outer");
+
+        advanceBy(SECOND);
+        assertThat(fired).containsExactly("outer", "inner");
+    }
+
+    @Test
+    void closedTimerRejectsNewTimeouts() {
+        timer.close();
+
+        assertThatThrownBy(() -> timer.schedule(() -> fired.add("a"), 1, TimeUnit.SECONDS))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private void advanceBy(long nanos) {
+        now.addAndGet(nanos);
+        timer.advance();
+    }
+}